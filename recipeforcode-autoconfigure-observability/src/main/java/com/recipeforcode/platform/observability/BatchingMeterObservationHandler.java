@@ -0,0 +1,259 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.MeterObservationHandler;
+import io.micrometer.observation.Observation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Records the same meters as {@link io.micrometer.core.instrument.observation.DefaultMeterObservationHandler}
+ * (a timer per observation name and low-cardinality tags, {@code .active} long task timers, event counters), but
+ * keeps the shared meters off the request path.
+ * <p>
+ * Meters are resolved once per name, tag set and error value through a map keyed on a pre-hashed key, so a request
+ * skips building tags and ids and the registry's own lookup. Durations go into one of a few striped buffers, picked
+ * by thread, and are folded into the timers every {@code flushInterval} on a background thread. A stripe that fills
+ * swaps in a spare buffer and hands the full one to that thread, so recording threads never fold. Timers, with
+ * their histograms, see every recording, at most one flush interval late.
+ * <p>
+ * Past {@code maxMeters} distinct keys, new ones are resolved on every request rather than cached. Meters removed
+ * from the registry stay cached.
+ */
+public class BatchingMeterObservationHandler implements MeterObservationHandler<Observation.Context>, AutoCloseable {
+
+    private static final String START = BatchingMeterObservationHandler.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+    private final boolean longTaskTimers;
+    private final Config config;
+    private final ConcurrentHashMap<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, LongTaskTimer> active = new ConcurrentHashMap<>();
+    private final Stripe[] stripes;
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * @param flushInterval how often buffered durations are folded into the timers
+     * @param bufferSize    durations buffered per stripe before they are handed to the flush thread
+     * @param maxMeters     distinct name, tag set and error combinations cached per meter type
+     */
+    public record Config(Duration flushInterval, int bufferSize, int maxMeters) {
+        public Config {
+            if (!flushInterval.isPositive()) throw new IllegalArgumentException("flushInterval must be positive");
+            if (bufferSize < 1 || maxMeters < 0) {
+                throw new IllegalArgumentException("bufferSize must be >= 1 and maxMeters >= 0");
+            }
+        }
+    }
+
+    public BatchingMeterObservationHandler(MeterRegistry registry, boolean longTaskTimers, Config config) {
+        this.registry = registry;
+        this.longTaskTimers = longTaskTimers;
+        this.config = config;
+        // a power of two, at least twice the cores
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(2, 2 * cores) - 1) << 1];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("recipeforcode-metrics-flush").factory());
+    }
+
+    /** Starts folding buffered durations into the timers every {@code flushInterval}. */
+    public void start() {
+        long interval = config.flushInterval().toNanos();
+        flusher.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /** Stops the background flush and folds in whatever is still buffered. */
+    @Override
+    public void close() {
+        // full buffers already handed over are still folded; the periodic flush is cancelled
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+
+    /** Folds every buffered duration into its timer now, on the flush thread unless closed. */
+    public void flush() {
+        try {
+            flusher.submit(this::drain).get();
+        } catch (RejectedExecutionException e) {
+            drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Flushing observation meters failed", e.getCause());
+        }
+    }
+
+    private void drain() {
+        for (var stripe : stripes) {
+            var buffer = stripe.take();
+            if (buffer != null) stripe.recycle(buffer.drain());
+        }
+    }
+
+    private void handOff(Stripe stripe, Buffer full) {
+        try {
+            flusher.execute(() -> stripe.recycle(full.drain()));
+        } catch (RejectedExecutionException e) {
+            // closed: nothing folds on our behalf any more
+            full.drain();
+        }
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        if (longTaskTimers) {
+            var key = new Key(context.getName() + ".active", context.getLowCardinalityKeyValues(), null);
+            var timer = resolve(active, key,
+                    k -> LongTaskTimer.builder(k.name).tags(tags(k.keyValues, null)).register(registry));
+            context.put(LongTaskTimer.Sample.class, timer.start());
+        }
+        context.put(START, registry.config().clock().monotonicTime());
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        if (context.get(START) instanceof Long start) {
+            long duration = registry.config().clock().monotonicTime() - start;
+            var error = context.getError();
+            var key = new Key(context.getName(), context.getLowCardinalityKeyValues(),
+                    error == null ? "none" : error.getClass().getSimpleName());
+            var timer = resolve(timers, key,
+                    k -> Timer.builder(k.name).tags(tags(k.keyValues, k.error)).register(registry));
+            var stripe = stripe();
+            var full = stripe.add(timer, duration);
+            if (full != null) handOff(stripe, full);
+        }
+        if (longTaskTimers && context.get(LongTaskTimer.Sample.class) instanceof LongTaskTimer.Sample sample) {
+            sample.stop();
+        }
+    }
+
+    @Override
+    public void onEvent(Observation.Event event, Observation.Context context) {
+        // rare enough to go through the registry
+        Counter.builder(context.getName() + "." + event.getName())
+                .tags(tags(context.getLowCardinalityKeyValues(), null))
+                .register(registry)
+                .increment();
+    }
+
+    private <M> M resolve(ConcurrentHashMap<Key, M> cache, Key key, Function<Key, M> register) {
+        var meter = cache.get(key);
+        if (meter != null) return meter;
+        return cache.size() < config.maxMeters() ? cache.computeIfAbsent(key, register) : register.apply(key);
+    }
+
+    private Stripe stripe() {
+        int h = Long.hashCode(Thread.currentThread().threadId());
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static List<Tag> tags(KeyValues keyValues, String error) {
+        var tags = new ArrayList<Tag>();
+        for (var kv : keyValues) tags.add(Tag.of(kv.getKey(), kv.getValue()));
+        if (error != null) tags.add(Tag.of("error", error));
+        return tags;
+    }
+
+    private static final class Key {
+        final String name;
+        final KeyValues keyValues;
+        final String error;
+        private final int hash;
+
+        Key(String name, KeyValues keyValues, String error) {
+            this.name = name;
+            this.keyValues = keyValues;
+            this.error = error;
+            int h = 31 * name.hashCode() + keyValues.hashCode();
+            this.hash = 31 * h + (error == null ? 0 : error.hashCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && hash == k.hash && name.equals(k.name) && keyValues.equals(k.keyValues)
+                    && Objects.equals(error, k.error);
+        }
+    }
+
+    /**
+     * Buffer the recording threads of one stripe fill, plus a spare to swap in when it is full. Buffers taken out
+     * are folded by one thread at a time, the flush thread or {@link #close()} after it stopped.
+     */
+    private final class Stripe {
+        private Buffer buffer = new Buffer(config.bufferSize());
+        private Buffer spare = new Buffer(config.bufferSize());
+
+        /** Buffers {@code duration}, returning the buffer it filled, if any, to be folded by the caller. */
+        synchronized Buffer add(Timer timer, long duration) {
+            var b = buffer;
+            b.timers[b.size] = timer;
+            b.durations[b.size++] = duration;
+            if (b.size < b.timers.length) return null;
+            // a flush thread that is behind costs an allocation rather than a recording
+            buffer = spare != null ? spare : new Buffer(b.timers.length);
+            spare = null;
+            return b;
+        }
+
+        /** Swaps out the current buffer if it holds anything. */
+        synchronized Buffer take() {
+            if (buffer.size == 0) return null;
+            var b = buffer;
+            buffer = spare != null ? spare : new Buffer(b.timers.length);
+            spare = null;
+            return b;
+        }
+
+        synchronized void recycle(Buffer drained) {
+            if (spare == null) spare = drained;
+        }
+    }
+
+    private static final class Buffer {
+        final Timer[] timers;
+        final long[] durations;
+        int size;
+
+        Buffer(int capacity) {
+            this.timers = new Timer[capacity];
+            this.durations = new long[capacity];
+        }
+
+        Buffer drain() {
+            for (int i = 0; i < size; i++) {
+                timers[i].record(durations[i], TimeUnit.NANOSECONDS);
+                timers[i] = null;
+            }
+            size = 0;
+            return this;
+        }
+    }
+}
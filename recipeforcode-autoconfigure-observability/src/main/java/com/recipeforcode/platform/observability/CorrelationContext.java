@@ -0,0 +1,116 @@
+package com.recipeforcode.platform.observability;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Immutable snapshot of the correlation values ({@code requestId}, {@code service}, {@code hdr.*}) that the
+ * MDC filter puts on the request thread.
+ * <p>
+ * The filter builds one instance per request and binds it to the thread. Handing the request to another
+ * thread means passing that reference along and re-applying its few MDC keys there, rather than copying the
+ * whole MDC map. Use {@link #wrap(Runnable)}, {@link CorrelationTaskDecorator}, {@link #wrap(ExecutorService)}
+ * or the Micrometer context-propagation accessor registered by the auto-configuration.
+ */
+public final class CorrelationContext {
+
+    private static final ThreadLocal<CorrelationContext> CURRENT = new ThreadLocal<>();
+
+    private final String[] keys;
+    private final String[] values;
+
+    /**
+     * @param keys   MDC keys, shared between instances and never modified
+     * @param values values aligned with {@code keys}; {@code null} entries are skipped
+     */
+    CorrelationContext(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /** The context bound to the calling thread, or {@code null} outside a correlated request. */
+    public static CorrelationContext current() {
+        return CURRENT.get();
+    }
+
+    public String get(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) return values[i];
+        }
+        return null;
+    }
+
+    public String requestId() {
+        return get(RequestCorrelationFilter.REQUEST_ID_KEY);
+    }
+
+    /**
+     * Binds this context to the calling thread until the returned scope is closed, then puts back whatever
+     * was bound before. Binding the context that is already current is a no-op, so caller-runs executors
+     * do not strip the request thread's MDC.
+     */
+    public Scope open() {
+        var previous = CURRENT.get();
+        if (previous == this) return Scope.NOOP;
+        attach(this);
+        return () -> {
+            detach();
+            if (previous != null) attach(previous);
+        };
+    }
+
+    static void attach(CorrelationContext ctx) {
+        CURRENT.set(ctx);
+        for (int i = 0; i < ctx.keys.length; i++) {
+            if (ctx.values[i] != null) MDC.put(ctx.keys[i], ctx.values[i]);
+        }
+    }
+
+    static void detach() {
+        var ctx = CURRENT.get();
+        if (ctx == null) return;
+        for (var key : ctx.keys) MDC.remove(key);
+        CURRENT.remove();
+    }
+
+    public static Runnable wrap(Runnable task) {
+        var ctx = CURRENT.get();
+        if (ctx == null) return task;
+        return () -> {
+            try (var ignored = ctx.open()) {
+                task.run();
+            }
+        };
+    }
+
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        var ctx = CURRENT.get();
+        if (ctx == null) return task;
+        return () -> {
+            try (var ignored = ctx.open()) {
+                return task.call();
+            }
+        };
+    }
+
+    /** Wraps {@code delegate} so every submitted task runs with the submitter's correlation context. */
+    public static ExecutorService wrap(ExecutorService delegate) {
+        return new CorrelatingExecutorService(delegate);
+    }
+
+    /** {@link Executors#newVirtualThreadPerTaskExecutor()} with correlation context propagation. */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return wrap(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        Scope NOOP = () -> { };
+
+        @Override
+        void close();
+    }
+}
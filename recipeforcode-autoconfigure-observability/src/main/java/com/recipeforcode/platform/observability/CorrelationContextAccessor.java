@@ -0,0 +1,34 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Exposes {@link CorrelationContext} to Micrometer context-propagation, so {@code ContextSnapshot},
+ * Reactor and {@code ContextPropagatingTaskDecorator} carry the request's MDC correlation along. Registered with
+ * the global {@code ContextRegistry} through {@code META-INF/services}, once per class loader.
+ */
+public class CorrelationContextAccessor implements ThreadLocalAccessor<CorrelationContext> {
+
+    public static final String KEY = "recipeforcode.correlation";
+
+    @Override
+    public Object key() {
+        return KEY;
+    }
+
+    @Override
+    public CorrelationContext getValue() {
+        return CorrelationContext.current();
+    }
+
+    @Override
+    public void setValue(CorrelationContext value) {
+        CorrelationContext.detach();
+        CorrelationContext.attach(value);
+    }
+
+    @Override
+    public void setValue() {
+        CorrelationContext.detach();
+    }
+}
@@ -0,0 +1,15 @@
+package com.recipeforcode.platform.observability;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's {@link CorrelationContext} into tasks run by Spring executors
+ * ({@code @Async}, {@code applicationTaskExecutor}, MVC async request processing).
+ */
+public class CorrelationTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return CorrelationContext.wrap(runnable);
+    }
+}
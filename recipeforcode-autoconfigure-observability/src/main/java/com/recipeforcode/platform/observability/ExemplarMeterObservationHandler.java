@@ -0,0 +1,56 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.observation.MeterObservationHandler;
+import io.micrometer.observation.Observation;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Records observation meters with the request's {@link CorrelationContext} bound, so exemplars sampled by
+ * {@link RequestIdSpanContext} name the request.
+ * <p>
+ * {@code http.server.requests} is stopped by the observation filter after {@link RequestCorrelationFilter} has
+ * returned and cleared the MDC (and, for async requests, on another thread). For server request observations this
+ * handler re-binds the context the correlation filter left on the request while the delegate records; other
+ * observations already run inside the request and are passed straight through.
+ */
+public class ExemplarMeterObservationHandler implements MeterObservationHandler<Observation.Context> {
+
+    private final MeterObservationHandler<Observation.Context> delegate;
+
+    public ExemplarMeterObservationHandler(MeterObservationHandler<Observation.Context> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        delegate.onStart(context);
+    }
+
+    @Override
+    public void onError(Observation.Context context) {
+        delegate.onError(context);
+    }
+
+    @Override
+    public void onEvent(Observation.Event event, Observation.Context context) {
+        delegate.onEvent(event, context);
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        var correlation = context instanceof ServerRequestObservationContext server && CorrelationContext.current() == null
+                ? RequestCorrelationFilter.context(server.getCarrier()) : null;
+        if (correlation == null) {
+            delegate.onStop(context);
+            return;
+        }
+        try (var ignored = correlation.open()) {
+            delegate.onStop(context);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return delegate.supportsContext(context);
+    }
+}
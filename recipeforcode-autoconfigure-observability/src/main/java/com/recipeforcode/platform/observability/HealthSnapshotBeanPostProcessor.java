@@ -0,0 +1,40 @@
+package com.recipeforcode.platform.observability;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.availability.AvailabilityStateHealthIndicator;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Registers every {@link HealthIndicator} bean with {@link HealthSnapshots} and exposes the snapshot-serving wrapper
+ * in its place, under the same bean name, so the health endpoint picks it up unchanged. Liveness and readiness
+ * indicators are left alone: they only read application state, and a shutdown must be visible to the next probe.
+ * The wrapper is a plain {@link HealthIndicator}, so indicator beans can no longer be injected by their own type.
+ */
+public class HealthSnapshotBeanPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<HealthSnapshots> snapshots;
+
+    public HealthSnapshotBeanPostProcessor(ObjectProvider<HealthSnapshots> snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HealthIndicator indicator) || bean instanceof AvailabilityStateHealthIndicator
+                || bean instanceof HealthSnapshots.Indicator) {
+            return bean;
+        }
+        return snapshots.getObject().register(name(beanName), indicator);
+    }
+
+    // the name the health endpoint shows, as Boot derives it
+    static String name(String beanName) {
+        for (var suffix : new String[] {"HealthIndicator", "HealthContributor"}) {
+            if (beanName.length() > suffix.length() && beanName.endsWith(suffix)) {
+                return beanName.substring(0, beanName.length() - suffix.length());
+            }
+        }
+        return beanName;
+    }
+}
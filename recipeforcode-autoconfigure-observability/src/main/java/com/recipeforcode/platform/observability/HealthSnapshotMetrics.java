@@ -0,0 +1,41 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes how long each snapshotted health indicator's last check took, its timeouts, and how old the snapshots
+ * are. Staleness well past the refresh interval means the refresh itself is stuck.
+ */
+public class HealthSnapshotMetrics implements MeterBinder {
+
+    private final HealthSnapshots snapshots;
+
+    public HealthSnapshotMetrics(HealthSnapshots snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("recipeforcode.health.staleness", snapshots, TimeUnit.NANOSECONDS,
+                        s -> s.getStaleness().toNanos())
+                .description("Time since health snapshots were last refreshed")
+                .register(registry);
+        for (var indicator : snapshots.getIndicators()) {
+            TimeGauge.builder("recipeforcode.health.indicator.duration", indicator, TimeUnit.NANOSECONDS,
+                            i -> i.getLastDuration().toNanos())
+                    .tag("indicator", indicator.getName())
+                    .description("Duration of the indicator's last completed check")
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.health.indicator.timeouts", indicator,
+                            HealthSnapshots.Indicator::getTimeoutCount)
+                    .tag("indicator", indicator.getName())
+                    .description("Checks of the indicator that ran past the timeout")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.recipeforcode.platform.observability;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves health indicators from a snapshot instead of running them on every probe.
+ * <p>
+ * {@link #register} wraps an indicator; the wrapper's {@link HealthIndicator#health()} returns the indicator's last
+ * result. One background thread refreshes every snapshot each {@code refreshInterval}, running the indicators
+ * concurrently on virtual threads, so a refresh takes as long as the slowest check, not their sum, and probes
+ * never run a check themselves or run one twice. A check still going after {@code timeout} is reported
+ * {@code DOWN} until it returns, and is not started again meanwhile. A check that throws anything, errors
+ * included, is reported {@code DOWN} and runs again on the next refresh. An indicator probed before its first
+ * refresh is checked on the probing thread once.
+ */
+public class HealthSnapshots implements SmartInitializingSingleton, AutoCloseable {
+
+    private final Config config;
+    private final List<Indicator> indicators = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService refresher;
+    private final ExecutorService checks;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile long lastRefresh = System.nanoTime();
+
+    /**
+     * @param refreshInterval delay between the end of one refresh and the start of the next
+     * @param timeout         longest a check may run before it is reported {@code DOWN}
+     * @param exclude         indicator names (bean names without the {@code HealthIndicator} suffix) left uncached
+     */
+    public record Config(Duration refreshInterval, Duration timeout, List<String> exclude) {
+        public Config {
+            if (!refreshInterval.isPositive() || !timeout.isPositive()) {
+                throw new IllegalArgumentException("refreshInterval and timeout must be positive");
+            }
+            exclude = exclude == null ? List.of() : List.copyOf(exclude);
+        }
+    }
+
+    public HealthSnapshots(Config config) {
+        this.config = config;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("recipeforcode-health-refresh").factory());
+        this.checks = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("recipeforcode-health-", 0).factory());
+    }
+
+    /** Wraps {@code delegate} so it is served from snapshots, unless its name is excluded. */
+    public HealthIndicator register(String name, HealthIndicator delegate) {
+        if (config.exclude().contains(name)) return delegate;
+        var indicator = new Indicator(name, delegate);
+        indicators.add(indicator);
+        return indicator;
+    }
+
+    /** Takes the first snapshots and schedules the refresh. */
+    public void start() {
+        if (!started.compareAndSet(false, true)) return;
+        refresh();
+        long interval = config.refreshInterval().toNanos();
+        refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        start();
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+        checks.shutdownNow();
+    }
+
+    /** Runs every indicator not still busy with an earlier check, concurrently, and waits up to the timeout. */
+    synchronized void refresh() {
+        var running = new ArrayList<CompletableFuture<Void>>();
+        var checked = new ArrayList<Indicator>();
+        for (var indicator : indicators) {
+            if (!indicator.busy.compareAndSet(false, true)) continue;
+            try {
+                running.add(CompletableFuture.runAsync(indicator::check, checks));
+            } catch (RejectedExecutionException e) {
+                // closed
+                indicator.busy.set(false);
+                return;
+            }
+            checked.add(indicator);
+        }
+        long deadline = System.nanoTime() + config.timeout().toNanos();
+        for (int i = 0; i < running.size(); i++) {
+            try {
+                running.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                checked.get(i).timedOut();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // check() reports its own failures, so this one got past it
+                checked.get(i).failed(e.getCause());
+            }
+        }
+        lastRefresh = System.nanoTime();
+    }
+
+    public List<Indicator> getIndicators() {
+        return List.copyOf(indicators);
+    }
+
+    /** Time since the last refresh finished. */
+    public Duration getStaleness() {
+        return Duration.ofNanos(System.nanoTime() - lastRefresh);
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /** A registered indicator, answering from its last check. */
+    public final class Indicator implements HealthIndicator {
+        private final String name;
+        private final HealthIndicator delegate;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private final LongAdder timeouts = new LongAdder();
+        private volatile Health snapshot;
+        private volatile long lastDurationNanos;
+
+        Indicator(String name, HealthIndicator delegate) {
+            this.name = name;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Health health() {
+            var health = snapshot;
+            if (health != null) return health;
+            // probed before the first refresh
+            if (busy.compareAndSet(false, true)) check();
+            health = snapshot;
+            return health != null ? health : Health.unknown().withDetail("reason", "Not checked yet").build();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** How long the last completed check took. */
+        public Duration getLastDuration() {
+            return Duration.ofNanos(lastDurationNanos);
+        }
+
+        public long getTimeoutCount() {
+            return timeouts.sum();
+        }
+
+        private void check() {
+            long start = System.nanoTime();
+            Health health = null;
+            try {
+                health = delegate.health();
+            } catch (Throwable e) {
+                health = Health.down().withException(e).build();
+            } finally {
+                lastDurationNanos = System.nanoTime() - start;
+                snapshot = health != null ? health : Health.down().withDetail("error", "No health returned").build();
+                busy.set(false);
+            }
+        }
+
+        private void failed(Throwable cause) {
+            snapshot = Health.down().withException(cause).build();
+            busy.set(false);
+        }
+
+        private void timedOut() {
+            timeouts.increment();
+            if (busy.get()) {
+                snapshot = Health.down().withDetail("error", "Timed out after " + config.timeout().toMillis() + "ms").build();
+            }
+        }
+    }
+}
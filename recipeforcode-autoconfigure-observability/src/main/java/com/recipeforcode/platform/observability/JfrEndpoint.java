@@ -0,0 +1,54 @@
+package com.recipeforcode.platform.observability;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@code /actuator/jfr}: downloads the continuous recording of {@link JfrEventStream}, i.e. the last
+ * {@code maxAge} of JFR data, as a {@code .jfr} file for JDK Mission Control or {@code jfr print}. The dump is
+ * written to a temporary file that is deleted once sent.
+ */
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrEventStream stream;
+
+    public JfrEndpoint(JfrEventStream stream) {
+        this.stream = stream;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump() throws IOException {
+        var file = Files.createTempFile("recording-", ".jfr");
+        try {
+            stream.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    private static final class TemporaryFileResource extends FileSystemResource {
+        private final Path path;
+
+        TemporaryFileResource(Path path) {
+            super(path);
+            this.path = path;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+    }
+}
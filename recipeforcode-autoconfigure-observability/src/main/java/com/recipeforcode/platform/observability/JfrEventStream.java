@@ -0,0 +1,163 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.Configuration;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Continuous JFR recording, consumed in-process and turned into meters.
+ * <p>
+ * One {@link RecordingStream} runs with a built-in JFR configuration ({@code default} is designed for under 1%
+ * overhead and includes 20ms execution sampling) and keeps the last {@code maxAge} on disk for
+ * {@link #dump(Path)}. A few events are enabled on top and published as meters, which carry the registry's
+ * common tags:
+ * <ul>
+ *   <li>{@code recipeforcode.jfr.gc.pause}: summed pauses per collection, by {@code gc} and {@code cause}</li>
+ *   <li>{@code recipeforcode.jfr.safepoint} and {@code .safepoint.sync}: whole safepoints and time to reach them</li>
+ *   <li>{@code recipeforcode.jfr.virtual-thread.pinned}: pinned virtual threads over {@code pinnedThreshold}</li>
+ *   <li>{@code recipeforcode.jfr.monitor.blocked} and {@code .thread.park}: blocking over {@code lockThreshold},
+ *   by contended {@code class}. Parks of idle workers waiting for work (on a {@code ForkJoinPool}, a queue, an
+ *   executor or a {@code Condition}) are left out, so {@code .thread.park} stays a lock-contention signal</li>
+ *   <li>{@code recipeforcode.jfr.allocation}: bytes allocated, estimated from allocation samples</li>
+ * </ul>
+ * Events are handled on the stream's own thread; nothing runs on application threads beyond JFR itself.
+ */
+public class JfrEventStream implements MeterBinder, AutoCloseable {
+
+    private final Config config;
+    private final RecordingStream stream;
+    // safepoint id -> start, touched only by the stream thread
+    private final Map<Long, Instant> safepoints = new HashMap<>();
+    private volatile MeterRegistry registry;
+    private volatile Counter allocated;
+    private boolean started;
+
+    /**
+     * @param settings        built-in JFR configuration: {@code default} or {@code profile}
+     * @param maxAge          how much history {@link #dump(Path)} returns
+     * @param maxSize         disk bound for that history
+     * @param lockThreshold   shortest monitor wait or park recorded
+     * @param pinnedThreshold shortest virtual thread pinning recorded
+     */
+    public record Config(String settings, Duration maxAge, long maxSize, Duration lockThreshold, Duration pinnedThreshold) {}
+
+    public JfrEventStream(Config config) {
+        this.config = config;
+        try {
+            this.stream = new RecordingStream(Configuration.getConfiguration(config.settings()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR configuration " + config.settings(), e);
+        }
+        stream.setMaxAge(config.maxAge());
+        stream.setMaxSize(config.maxSize());
+        stream.enable("jdk.GarbageCollection");
+        stream.enable("jdk.SafepointBegin");
+        stream.enable("jdk.SafepointEnd");
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(config.pinnedThreshold());
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(config.lockThreshold());
+        stream.enable("jdk.ThreadPark").withThreshold(config.lockThreshold());
+        stream.enable("jdk.ObjectAllocationSample");
+        stream.onEvent("jdk.GarbageCollection", this::onGarbageCollection);
+        stream.onEvent("jdk.SafepointBegin", this::onSafepointBegin);
+        stream.onEvent("jdk.SafepointEnd", this::onSafepointEnd);
+        stream.onEvent("jdk.VirtualThreadPinned", e -> timer("recipeforcode.jfr.virtual-thread.pinned", e.getDuration()));
+        stream.onEvent("jdk.JavaMonitorEnter", e -> timer("recipeforcode.jfr.monitor.blocked", e.getDuration(),
+                "class", className(e.getClass("monitorClass"))));
+        stream.onEvent("jdk.ThreadPark", this::onThreadPark);
+        stream.onEvent("jdk.ObjectAllocationSample", this::onAllocationSample);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.allocated = Counter.builder("recipeforcode.jfr.allocation")
+                .baseUnit("bytes")
+                .description("Bytes allocated on the heap, estimated from JFR allocation samples")
+                .register(registry);
+        this.registry = registry;
+    }
+
+    /** Starts recording and streaming on a background thread. */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        stream.startAsync();
+    }
+
+    /** Writes the retained recording (up to {@code maxAge}) to {@code path}. */
+    public void dump(Path path) throws IOException {
+        stream.dump(path);
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private void onGarbageCollection(RecordedEvent e) {
+        timer("recipeforcode.jfr.gc.pause", e.getDuration("sumOfPauses"), "gc", e.getString("name"), "cause", e.getString("cause"));
+    }
+
+    private void onSafepointBegin(RecordedEvent e) {
+        safepoints.put(e.getLong("safepointId"), e.getStartTime());
+        timer("recipeforcode.jfr.safepoint.sync", e.getDuration());
+    }
+
+    private void onSafepointEnd(RecordedEvent e) {
+        // no begin when the stream started mid-safepoint
+        var begin = safepoints.remove(e.getLong("safepointId"));
+        if (begin != null) timer("recipeforcode.jfr.safepoint", Duration.between(begin, e.getEndTime()));
+    }
+
+    private void onThreadPark(RecordedEvent e) {
+        var parked = e.getClass("parkedClass");
+        if (parked == null || isIdleWait(parked.getName())) return;
+        timer("recipeforcode.jfr.thread.park", e.getDuration(), "class", className(parked));
+    }
+
+    /**
+     * Whether a park on {@code blocker} is a thread waiting for work rather than for a lock: carriers and pool
+     * workers park on their {@code ForkJoinPool}, and executor workers wait on their queue's {@code Condition}.
+     */
+    static boolean isIdleWait(String blocker) {
+        return blocker.endsWith("$ConditionObject") || blocker.contains("ForkJoinPool")
+                || blocker.contains("Queue") || blocker.contains("Executor");
+    }
+
+    private void onAllocationSample(RecordedEvent e) {
+        var counter = allocated;
+        if (counter != null) counter.increment(e.getLong("weight"));
+    }
+
+    private void timer(String name, Duration duration, String... tags) {
+        var r = registry;
+        if (r != null) Timer.builder(name).tags(tags).register(r).record(duration);
+    }
+
+    private static String className(RecordedClass c) {
+        if (c == null) return "unknown";
+        // hidden classes (lambdas, proxies) carry an address suffix; keep the tag bounded
+        var name = c.getName();
+        int hidden = name.indexOf("$$");
+        return hidden < 0 ? name : name.substring(0, hidden);
+    }
+}
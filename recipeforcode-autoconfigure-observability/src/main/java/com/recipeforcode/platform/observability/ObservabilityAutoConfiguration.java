@@ -1,36 +1,46 @@
 package com.recipeforcode.platform.observability;
 
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.config.MeterFilter;
 import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.observation.MeterObservationHandler;
+import io.prometheus.metrics.tracer.common.SpanContext;
+import net.logstash.logback.encoder.StreamingEncoder;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.UUID;
 
-@AutoConfiguration
+// ahead of the observation auto-configuration, whose meter handler backs off when exemplars or batching supply one
+@AutoConfiguration(beforeName = "org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration")
 @EnableConfigurationProperties(ObservabilityProps.class)
 @ConditionalOnClass({MeterRegistry.class, MeterRegistryCustomizer.class})
+@ImportRuntimeHints(ObservabilityRuntimeHints.class)
 public class ObservabilityAutoConfiguration {
 
     @Bean(name = "observabilityCommonTagsCustomizer")
@@ -52,10 +62,13 @@ public class ObservabilityAutoConfiguration {
 
     @Bean
     @ConditionalOnProperty(prefix="recipeforcode.observability", name="http-percentiles")
-    MeterFilter httpPercentiles(ObservabilityProps p) {
+    MeterFilter httpPercentiles(ObservabilityProps p, ObjectProvider<RelativeErrorHistogramMeterFilter> histogram) {
         double[] ps = p.httpPercentiles().stream().mapToDouble(Double::parseDouble).toArray();
+        var histogramMode = histogram.getIfAvailable();
         return new MeterFilter() {
             @Override public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig c) {
+                // histogram mode owns the timers it matches
+                if (histogramMode != null && histogramMode.matches(id)) return c;
                 if ("http.server.requests".equals(id.getName())) {
                     return DistributionStatisticConfig.builder()
                             .percentiles(ps)
@@ -66,37 +79,196 @@ public class ObservabilityAutoConfiguration {
         };
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix="recipeforcode.observability", name="http-server-histogram", havingValue="true")
+    RelativeErrorHistogramMeterFilter httpServerHistogram(ObservabilityProps p) {
+        var h = p.histogram();
+        return new RelativeErrorHistogramMeterFilter(h.meterPrefixes(), h.relativeAccuracy(),
+                h.minimumExpectedValue(), h.maximumExpectedValue());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.cardinality", name = "enabled", havingValue = "true")
+    CardinalityLimitingMeterFilter cardinalityLimitingMeterFilter(ObservabilityProps p) {
+        var c = p.cardinality();
+        return new CardinalityLimitingMeterFilter(c.maxTagValues(), c.meterPrefixes(), c.tagKeys(), c.overflowValue());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    RequestIdGenerator requestIdGenerator(ObservabilityProps p) {
+        return p.requestIdGenerator().create();
+    }
+
     @Bean
     @ConditionalOnClass(MDC.class)
     @ConditionalOnProperty(prefix="recipeforcode.observability", name="add-request-id-mdc", havingValue="true", matchIfMissing = true)
-    FilterRegistrationBean<OncePerRequestFilter> mdcFilter(ObservabilityProps p) {
-        OncePerRequestFilter f = new OncePerRequestFilter() {
-            @Override
-            protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
-                    throws ServletException, IOException {
-                try {
-                    String requestId = req.getHeader("X-Request-Id");
-                    if (!hasText(requestId)) requestId = UUID.randomUUID().toString();
-                    MDC.put("requestId", requestId);
-                    if (hasText(p.service())) MDC.put("service", p.service());
-                    // copy selected headers to MDC (e.g., user id, tenant)
-                    if (p.mdcHeaders()!=null) {
-                        for (var h: p.mdcHeaders()) {
-                            var v = req.getHeader(h);
-                            if (hasText(v)) MDC.put("hdr." + h.toLowerCase(), v);
-                        }
-                    }
-                    chain.doFilter(req, res);
-                } finally {
-                    MDC.clear();
-                }
-            }
-        };
+    FilterRegistrationBean<OncePerRequestFilter> mdcFilter(ObservabilityProps p, RequestIdGenerator requestIds) {
+        OncePerRequestFilter f = new RequestCorrelationFilter(p.service(), p.mdcHeaders(), requestIds, p.exemplars().enabled());
         var reg = new FilterRegistrationBean<>(f);
         reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
         return reg;
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({LoggerContext.class, MDC.class})
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.tail-sampling", name = "enabled", havingValue = "true")
+    @ConditionalOnProperty(prefix = "recipeforcode.observability", name = "add-request-id-mdc", havingValue = "true", matchIfMissing = true)
+    static class TailSamplingConfiguration {
+
+        @Bean(initMethod = "install", destroyMethod = "uninstall")
+        @ConditionalOnMissingBean
+        TailSampler tailSampler(ObservabilityProps p) {
+            return new TailSampler(p.tailSampling().toConfig());
+        }
+
+        @Bean
+        FilterRegistrationBean<TailSamplingFilter> tailSamplingFilter(TailSampler sampler) {
+            var reg = new FilterRegistrationBean<>(new TailSamplingFilter(sampler));
+            // right after mdcFilter, which sets the request id the buffers are keyed by
+            reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 11);
+            return reg;
+        }
+
+        @Bean
+        TailSamplerMetrics tailSamplerMetrics(TailSampler sampler) {
+            return new TailSamplerMetrics(sampler);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "jdk.jfr.consumer.RecordingStream")
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.jfr", name = "enabled", havingValue = "true")
+    static class JfrConfiguration {
+
+        @Bean(initMethod = "start", destroyMethod = "close")
+        @ConditionalOnMissingBean
+        JfrEventStream jfrEventStream(ObservabilityProps p) {
+            return new JfrEventStream(p.jfr().toConfig());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        JfrEndpoint jfrEndpoint(JfrEventStream stream) {
+            return new JfrEndpoint(stream);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({SpanContext.class, MDC.class, ServerRequestObservationContext.class})
+    @ConditionalOnMissingClass("io.micrometer.tracing.Tracer")
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.exemplars", name = "enabled", havingValue = "true")
+    static class ExemplarConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        SpanContext requestIdSpanContext() {
+            return new RequestIdSpanContext();
+        }
+
+        @Bean
+        MeterFilter exemplarHistogram(ObjectProvider<RelativeErrorHistogramMeterFilter> histogram) {
+            var histogramMode = histogram.getIfAvailable();
+            return new MeterFilter() {
+                @Override public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig c) {
+                    // exemplars attach to buckets; histogram mode already publishes its own
+                    if (!"http.server.requests".equals(id.getName()) || histogramMode != null && histogramMode.matches(id)) return c;
+                    return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(c);
+                }
+            };
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(MeterObservationHandler.class)
+        ExemplarMeterObservationHandler exemplarMeterObservationHandler(MeterRegistry registry, Environment env) {
+            // same delegate the observation auto-configuration would create
+            var longTaskTimers = env.getProperty("management.observations.long-task-timer.enabled", Boolean.class, true);
+            return new ExemplarMeterObservationHandler(longTaskTimers
+                    ? new DefaultMeterObservationHandler(registry)
+                    : new DefaultMeterObservationHandler(registry, DefaultMeterObservationHandler.IgnoredMeters.LONG_TASK_TIMER));
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.batched-recording", name = "enabled", havingValue = "true")
+    // exemplars are sampled on the recording thread, which batching moves off the request
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.exemplars", name = "enabled", havingValue = "false", matchIfMissing = true)
+    static class BatchedRecordingConfiguration {
+
+        @Bean(initMethod = "start", destroyMethod = "close")
+        @ConditionalOnMissingBean(MeterObservationHandler.class)
+        BatchingMeterObservationHandler batchingMeterObservationHandler(ObservabilityProps p, MeterRegistry registry,
+                                                                        Environment env) {
+            var longTaskTimers = env.getProperty("management.observations.long-task-timer.enabled", Boolean.class, true);
+            return new BatchingMeterObservationHandler(registry, longTaskTimers, p.batchedRecording().toConfig());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(ServerRequestObservationContext.class)
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.slo", name = "enabled", havingValue = "true")
+    static class SloConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        SloObservationHandler sloObservationHandler(ObservabilityProps p, ObjectProvider<Clock> clock) {
+            var c = clock.getIfAvailable(() -> Clock.SYSTEM);
+            return new SloObservationHandler(p.slo().toConfigs().stream().map(t -> new SloTracker(t, c)).toList(), c);
+        }
+
+        @Bean
+        SloMetrics sloMetrics(SloObservationHandler handler) {
+            return new SloMetrics(handler.getTrackers());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HealthIndicator.class)
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.health", name = "enabled", havingValue = "true")
+    static class HealthSnapshotConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        HealthSnapshots healthSnapshots(ObservabilityProps p) {
+            return new HealthSnapshots(p.health().toConfig());
+        }
+
+        @Bean
+        static HealthSnapshotBeanPostProcessor healthSnapshotBeanPostProcessor(ObjectProvider<HealthSnapshots> snapshots) {
+            return new HealthSnapshotBeanPostProcessor(snapshots);
+        }
+
+        // refreshes start once all singletons exist, even under spring.main.lazy-initialization
+        @Bean
+        static LazyInitializationExcludeFilter healthSnapshotsLazyInitializationExcludeFilter() {
+            return LazyInitializationExcludeFilter.forBeanTypes(HealthSnapshots.class);
+        }
+
+        @Bean
+        HealthSnapshotMetrics healthSnapshotMetrics(HealthSnapshots snapshots) {
+            return new HealthSnapshotMetrics(snapshots);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(TaskDecorator.class)
+    CorrelationTaskDecorator correlationTaskDecorator() {
+        return new CorrelationTaskDecorator();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({LoggerContext.class, StreamingEncoder.class})
+    @ConditionalOnProperty(prefix = "recipeforcode.observability.logging", name = "mode", havingValue = "async")
+    static class AsyncLoggingConfiguration {
+
+        @Bean
+        RingBufferAppenderMetrics ringBufferAppenderMetrics() {
+            return new RingBufferAppenderMetrics();
+        }
+    }
+
 
     private static boolean hasText(String s){ return s!=null && !s.isBlank(); }
 }
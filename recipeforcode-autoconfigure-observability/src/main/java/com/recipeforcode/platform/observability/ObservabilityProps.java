@@ -1,7 +1,10 @@
 package com.recipeforcode.platform.observability;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.List;
 
 @ConfigurationProperties("recipeforcode.observability")
@@ -9,4 +12,132 @@ public record ObservabilityProps(String service, String environment,
                                  List<String> httpPercentiles,
                                  Boolean httpServerHistogram,
                                  List<String> mdcHeaders,
-                                 Boolean addRequestIdMdc) {}
+                                 Boolean addRequestIdMdc,
+                                 @DefaultValue("time-ordered") RequestIdGenerator.Strategy requestIdGenerator,
+                                 @DefaultValue Histogram histogram,
+                                 @DefaultValue Cardinality cardinality,
+                                 @DefaultValue Scrape scrape,
+                                 @DefaultValue TailSampling tailSampling,
+                                 @DefaultValue Jfr jfr,
+                                 @DefaultValue Exemplars exemplars,
+                                 @DefaultValue Slo slo,
+                                 @DefaultValue BatchedRecording batchedRecording,
+                                 @DefaultValue Health health) {
+
+    /**
+     * Bucket layout used when {@code httpServerHistogram} is on: timers whose name starts with one of
+     * {@code meterPrefixes} publish log-spaced buckets with the given relative accuracy instead of percentiles.
+     */
+    public record Histogram(@DefaultValue("http.server.requests") List<String> meterPrefixes,
+                            @DefaultValue("0.1") double relativeAccuracy,
+                            @DefaultValue("1ms") Duration minimumExpectedValue,
+                            @DefaultValue("30s") Duration maximumExpectedValue) {}
+
+    /**
+     * Tag-cardinality guard. {@code meterPrefixes} and {@code tagKeys} narrow what is guarded; empty means all.
+     */
+    public record Cardinality(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("100") int maxTagValues,
+                              List<String> meterPrefixes,
+                              List<String> tagKeys,
+                              @DefaultValue("OTHER") String overflowValue) {}
+
+    /**
+     * Streaming Prometheus scrape servlet, an alternative to {@code /actuator/prometheus} for large registries.
+     * A positive {@code cacheTtl} lets concurrent scrapers share one render.
+     */
+    public record Scrape(@DefaultValue("false") boolean enabled,
+                         @DefaultValue("/metrics") String path,
+                         @DefaultValue("0s") Duration cacheTtl,
+                         @DefaultValue("32KB") DataSize bufferSize) {}
+
+    /**
+     * Tail-based log sampling (see {@link TailSampler}): a request's DEBUG/INFO events are written only when it was
+     * slow, failed or is in the random sample. Keys on the request id, so it needs {@code addRequestIdMdc}.
+     */
+    public record TailSampling(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("1s") Duration slowThreshold,
+                               @DefaultValue("0.01") double sampleRate,
+                               @DefaultValue("256") int maxEventsPerRequest,
+                               @DefaultValue("1024") int maxBufferedRequests) {
+
+        TailSampler.Config toConfig() {
+            return new TailSampler.Config(slowThreshold, sampleRate, maxEventsPerRequest, maxBufferedRequests);
+        }
+    }
+
+    /**
+     * Continuous JFR recording streamed into meters (see {@link JfrEventStream}); {@code maxAge} is what the
+     * {@code jfr} actuator endpoint returns.
+     */
+    public record Jfr(@DefaultValue("false") boolean enabled,
+                      @DefaultValue("default") String settings,
+                      @DefaultValue("10m") Duration maxAge,
+                      @DefaultValue("100MB") DataSize maxSize,
+                      @DefaultValue("10ms") Duration lockThreshold,
+                      @DefaultValue("20ms") Duration pinnedThreshold) {
+
+        JfrEventStream.Config toConfig() {
+            return new JfrEventStream.Config(settings, maxAge, maxSize.toBytes(), lockThreshold, pinnedThreshold);
+        }
+    }
+
+    /**
+     * OpenMetrics exemplars naming the request (or trace) behind histogram buckets; see
+     * {@link RequestIdSpanContext}. {@code http.server.requests} also publishes buckets so the exemplars have
+     * somewhere to go.
+     */
+    public record Exemplars(@DefaultValue("false") boolean enabled) {}
+
+    /**
+     * Per-route latency and availability objectives, tracked in-process by {@link SloTracker} and published as
+     * burn rates over each of {@code windows}. {@code uri} is the route template, as in the {@code uri} tag of
+     * {@code http.server.requests}; {@code method} narrows it, {@code latency} is optional.
+     */
+    public record Slo(@DefaultValue("false") boolean enabled,
+                      @DefaultValue({"5m", "1h", "6h"}) List<Duration> windows,
+                      @DefaultValue("30s") Duration resolution,
+                      List<Route> routes) {
+
+        public record Route(String uri, String method, Duration latency,
+                            @DefaultValue("0.99") double latencyTarget,
+                            @DefaultValue("0.999") double availabilityTarget) {}
+
+        List<SloTracker.Config> toConfigs() {
+            if (routes == null) return List.of();
+            return routes.stream()
+                    .map(r -> new SloTracker.Config(r.uri(), r.method(), r.latency(), r.latencyTarget(),
+                            r.availabilityTarget(), windows, resolution))
+                    .toList();
+        }
+    }
+
+    /**
+     * Observation meters recorded through {@link BatchingMeterObservationHandler}: cached meter lookup and striped
+     * buffers folded into the registry every {@code flushInterval}. Exemplars, which need the request on the
+     * recording thread, take precedence when both are on.
+     */
+    public record BatchedRecording(@DefaultValue("false") boolean enabled,
+                                   @DefaultValue("1s") Duration flushInterval,
+                                   @DefaultValue("128") int bufferSize,
+                                   @DefaultValue("10000") int maxMeters) {
+
+        BatchingMeterObservationHandler.Config toConfig() {
+            return new BatchingMeterObservationHandler.Config(flushInterval, bufferSize, maxMeters);
+        }
+    }
+
+    /**
+     * Health indicators served from snapshots refreshed in the background (see {@link HealthSnapshots}), so probes
+     * never wait on checks. {@code exclude} names indicators to run on every probe as usual.
+     */
+    public record Health(@DefaultValue("false") boolean enabled,
+                         @DefaultValue("5s") Duration refreshInterval,
+                         @DefaultValue("2s") Duration timeout,
+                         List<String> exclude) {
+
+        HealthSnapshots.Config toConfig() {
+            return new HealthSnapshots.Config(refreshInterval, timeout, exclude);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.recipeforcode.platform.observability;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * AOT hints for what logback creates reflectively from the starter's {@code logback-spring.xml}: the ring-buffer
+ * appender (constructor and setters) and the configuration file itself.
+ */
+class ObservabilityRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(RingBufferConsoleAppender.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.resources().registerPattern("logback-spring.xml");
+    }
+}
@@ -0,0 +1,48 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.prometheus.metrics.config.PrometheusPropertiesLoader;
+import io.prometheus.metrics.expositionformats.ExpositionFormats;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import jakarta.servlet.http.HttpServlet;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.prometheus.PrometheusMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link PrometheusScrapeServlet} when {@code recipeforcode.observability.scrape.enabled=true}.
+ * The actuator endpoint stays available; point scrapers at whichever path suits the deployment. Both write with the
+ * same exporter settings, {@code management.prometheus.metrics.export.properties.*} included.
+ */
+@AutoConfiguration(after = PrometheusMetricsExportAutoConfiguration.class)
+@EnableConfigurationProperties(ObservabilityProps.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({PrometheusRegistry.class, ExpositionFormats.class, HttpServlet.class})
+@ConditionalOnBean(PrometheusRegistry.class)
+@ConditionalOnProperty(prefix = "recipeforcode.observability.scrape", name = "enabled", havingValue = "true")
+public class PrometheusScrapeAutoConfiguration {
+
+    @Bean
+    ServletRegistrationBean<PrometheusScrapeServlet> prometheusScrapeServlet(ObservabilityProps p, PrometheusRegistry registry,
+                                                                             ObjectProvider<PrometheusConfig> config) {
+        var s = p.scrape();
+        // as Boot's scrape endpoint loads them
+        var prometheusConfig = config.getIfAvailable();
+        var properties = prometheusConfig != null
+                ? PrometheusPropertiesLoader.load(prometheusConfig.prometheusProperties())
+                : PrometheusPropertiesLoader.load();
+        var formats = ExpositionFormats.init(properties.getExporterProperties());
+        var servlet = new PrometheusScrapeServlet(registry, formats, s.cacheTtl(), (int) s.bufferSize().toBytes());
+        var reg = new ServletRegistrationBean<>(servlet, s.path());
+        reg.setName("prometheusScrapeServlet");
+        reg.setLoadOnStartup(1);
+        return reg;
+    }
+}
@@ -0,0 +1,223 @@
+package com.recipeforcode.platform.observability;
+
+import io.prometheus.metrics.expositionformats.ExpositionFormatWriter;
+import io.prometheus.metrics.expositionformats.ExpositionFormats;
+import io.prometheus.metrics.model.registry.MetricNameFilter;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prometheus scrape endpoint that streams the exposition straight to the response.
+ * <p>
+ * The actuator endpoint renders the whole exposition into a byte array before writing it, so every scrape of a
+ * large registry allocates a multi-MB buffer (and its copies while growing). Here the format writer encodes into
+ * a pooled chunk buffer that is flushed to the servlet stream whenever it fills, optionally through gzip.
+ * <p>
+ * The format follows the {@code Accept} header (Prometheus text, OpenMetrics, or protobuf when available).
+ * With a positive {@code cacheTtl}, unfiltered scrapes within the TTL share one render per format and encoding:
+ * the first scraper renders, concurrent ones wait for and reuse its bytes.
+ */
+public class PrometheusScrapeServlet extends HttpServlet {
+
+    private static final int POOLED_BUFFERS = 4;
+
+    private final transient PrometheusRegistry registry;
+    private final transient ExpositionFormats formats;
+    private final long cacheTtlNanos;
+    private final int bufferSize;
+    private final transient ArrayBlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+    private final transient ConcurrentHashMap<String, Rendered> cache = new ConcurrentHashMap<>();
+
+    public PrometheusScrapeServlet(PrometheusRegistry registry, ExpositionFormats formats, Duration cacheTtl, int bufferSize) {
+        this.registry = registry;
+        this.formats = formats;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        var writer = formats.findWriter(req.getHeader("Accept"));
+        var gzip = acceptsGzip(req.getHeader("Accept-Encoding"));
+        var names = req.getParameterValues("name[]");
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(writer.getContentType());
+        if (gzip) resp.setHeader("Content-Encoding", "gzip");
+        resp.setHeader("Vary", "Accept, Accept-Encoding");
+
+        if (cacheTtlNanos > 0 && names == null) {
+            byte[] body = cached(writer, gzip);
+            resp.setContentLength(body.length);
+            resp.getOutputStream().write(body);
+            return;
+        }
+        var snapshots = names == null
+                ? registry.scrape()
+                : registry.scrape(MetricNameFilter.builder().nameMustBeEqualTo(names).build());
+        var buffer = acquire();
+        try (var chunked = new ChunkedOutputStream(resp.getOutputStream(), buffer)) {
+            write(writer, snapshots, chunked, gzip);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private byte[] cached(ExpositionFormatWriter writer, boolean gzip) throws IOException {
+        var key = writer.getContentType() + (gzip ? ";gzip" : "");
+        while (true) {
+            var current = cache.get(key);
+            long now = System.nanoTime();
+            if (current != null && (!current.body.isDone() || now - current.renderedAt < cacheTtlNanos)) {
+                return await(current.body);
+            }
+            var next = new Rendered(now);
+            if (current == null ? cache.putIfAbsent(key, next) == null : cache.replace(key, current, next)) {
+                try {
+                    var out = new ByteArrayOutputStream(bufferSize);
+                    write(writer, registry.scrape(), out, gzip);
+                    next.body.complete(out.toByteArray());
+                } catch (IOException | RuntimeException e) {
+                    cache.remove(key, next);
+                    next.body.completeExceptionally(e);
+                    throw e;
+                }
+                return next.body.join();
+            }
+        }
+    }
+
+    private static void write(ExpositionFormatWriter writer, MetricSnapshots snapshots, OutputStream out, boolean gzip) throws IOException {
+        if (!gzip) {
+            writer.write(out, snapshots);
+            return;
+        }
+        var zipped = new GZIPOutputStream(out, 8192);
+        writer.write(zipped, snapshots);
+        zipped.finish();
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> body) throws IOException {
+        try {
+            return body.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a concurrent scrape", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Concurrent scrape failed", e.getCause());
+        }
+    }
+
+    private byte[] acquire() {
+        var b = buffers.poll();
+        return b != null ? b : new byte[bufferSize];
+    }
+
+    private void release(byte[] buffer) {
+        buffers.offer(buffer);
+    }
+
+    /**
+     * Whether to answer in gzip, from {@code Accept-Encoding} as RFC 9110 reads it: codings not listed take the
+     * {@code *} quality, and gzip is chosen when acceptable and not less preferred than {@code identity}, which is
+     * acceptable unless excluded but only preferred when listed. Kept identical to the OpenAPI starter's servlet.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        double gzip = -1, identity = -1, any = -1;
+        for (var part : acceptEncoding.split(",")) {
+            var coding = part.trim();
+            int semi = coding.indexOf(';');
+            var name = semi < 0 ? coding : coding.substring(0, semi).trim();
+            double q = semi < 0 ? 1 : quality(coding.substring(semi + 1));
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) gzip = q;
+            else if (name.equalsIgnoreCase("identity")) identity = q;
+            else if (name.equals("*")) any = q;
+        }
+        if (gzip < 0) gzip = Math.max(any, 0);
+        if (identity < 0) identity = Math.max(any, 0);
+        return gzip > 0 && gzip >= identity;
+    }
+
+    private static double quality(String params) {
+        for (var param : params.split(";")) {
+            var p = param.trim();
+            if (p.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Math.min(1, Math.max(0, Double.parseDouble(p.substring(2).trim())));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static final class Rendered {
+        final long renderedAt;
+        final CompletableFuture<byte[]> body = new CompletableFuture<>();
+
+        Rendered(long renderedAt) {
+            this.renderedAt = renderedAt;
+        }
+    }
+
+    /** Fixed-size buffer in front of the servlet stream; never grows, flushes whole chunks. */
+    static final class ChunkedOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final byte[] buf;
+        private int count;
+
+        ChunkedOutputStream(OutputStream target, byte[] buf) {
+            this.target = target;
+            this.buf = buf;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buf.length) drain();
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len >= buf.length) {
+                drain();
+                target.write(b, off, len);
+                return;
+            }
+            if (len > buf.length - count) drain();
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private void drain() throws IOException {
+            if (count > 0) target.write(buf, 0, count);
+            count = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
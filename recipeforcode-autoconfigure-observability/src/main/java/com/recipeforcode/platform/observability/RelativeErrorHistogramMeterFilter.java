@@ -0,0 +1,79 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Replaces client-side percentiles on matching timers with a fixed set of log-spaced histogram buckets.
+ * <p>
+ * Bucket upper bounds are {@code γ^i} with {@code γ = (1 + α) / (1 - α)}, the DDSketch index mapping, so any
+ * latency between the minimum and maximum expected value is reported with relative error at most {@code α}.
+ * The boundaries are identical on every instance and cheap to record into (one counter per bucket), so the
+ * resulting Prometheus {@code _bucket} series can be summed across the fleet before
+ * {@code histogram_quantile} — unlike client-side percentiles, which are neither mergeable nor bounded in
+ * memory per tag combination.
+ */
+public class RelativeErrorHistogramMeterFilter implements MeterFilter {
+
+    private final List<String> meterPrefixes;
+    private final double[] boundariesNanos;
+    private final Duration minimumExpected;
+    private final Duration maximumExpected;
+
+    public RelativeErrorHistogramMeterFilter(List<String> meterPrefixes, double relativeAccuracy,
+                                             Duration minimumExpected, Duration maximumExpected) {
+        this.meterPrefixes = List.copyOf(meterPrefixes);
+        this.boundariesNanos = boundaries(minimumExpected.toNanos(), maximumExpected.toNanos(), relativeAccuracy);
+        this.minimumExpected = minimumExpected;
+        this.maximumExpected = maximumExpected;
+    }
+
+    /** Whether this filter takes over the distribution configuration of {@code id}. */
+    public boolean matches(Meter.Id id) {
+        if (id.getType() != Meter.Type.TIMER && id.getType() != Meter.Type.LONG_TASK_TIMER) return false;
+        for (var prefix : meterPrefixes) {
+            if (id.getName().startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (!matches(id)) return config;
+        return DistributionStatisticConfig.builder()
+                .percentiles()
+                .percentilesHistogram(false)
+                .serviceLevelObjectives(boundariesNanos)
+                .minimumExpectedValue((double) minimumExpected.toNanos())
+                .maximumExpectedValue((double) maximumExpected.toNanos())
+                .build()
+                .merge(config);
+    }
+
+    int bucketCount() {
+        return boundariesNanos.length;
+    }
+
+    /**
+     * Upper bounds {@code γ^i} covering {@code [min, max]}; consecutive bounds differ by the factor {@code γ}.
+     */
+    static double[] boundaries(double min, double max, double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        if (!(min > 0 && max > min)) throw new IllegalArgumentException("expected range must satisfy 0 < min < max");
+        double gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        double logGamma = Math.log(gamma);
+        int first = (int) Math.ceil(Math.log(min) / logGamma);
+        int last = (int) Math.ceil(Math.log(max) / logGamma);
+        var bounds = new double[last - first + 1];
+        for (int i = first; i <= last; i++) {
+            bounds[i - first] = Math.ceil(Math.exp(i * logGamma));
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,97 @@
+package com.recipeforcode.platform.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Puts {@code requestId}, {@code service} and the configured {@code hdr.*} values into the MDC for the
+ * duration of a request.
+ * <p>
+ * MDC keys are derived once at construction so the per-request path does no string building, and on exit
+ * only the keys owned by this filter are removed; entries put by other filters survive. The values are
+ * captured in a {@link CorrelationContext} that other threads can restore, and which is re-applied on
+ * servlet async dispatch. With {@code retainContext} the context also stays on the request after the filter
+ * returns (see {@link #context(ServletRequest)}), for work that completes outside it, such as the
+ * {@code http.server.requests} observation.
+ */
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_KEY = "requestId";
+    public static final String SERVICE_KEY = "service";
+
+    private static final String CONTEXT_ATTRIBUTE = CorrelationContext.class.getName();
+    private static final int HEADERS_OFFSET = 2;
+
+    private final String service;
+    private final String[] headerNames;
+    // requestId, service, then one hdr.* key per header name
+    private final String[] keys;
+    private final RequestIdGenerator requestIds;
+    private final boolean retainContext;
+
+    public RequestCorrelationFilter(String service, List<String> mdcHeaders, RequestIdGenerator requestIds) {
+        this(service, mdcHeaders, requestIds, false);
+    }
+
+    public RequestCorrelationFilter(String service, List<String> mdcHeaders, RequestIdGenerator requestIds,
+                                    boolean retainContext) {
+        this.service = hasText(service) ? service : null;
+        var headers = mdcHeaders == null ? List.<String>of()
+                : mdcHeaders.stream().filter(RequestCorrelationFilter::hasText).map(String::trim).distinct().toList();
+        this.headerNames = headers.toArray(String[]::new);
+        this.keys = new String[HEADERS_OFFSET + headerNames.length];
+        keys[0] = REQUEST_ID_KEY;
+        keys[1] = SERVICE_KEY;
+        for (int i = 0; i < headerNames.length; i++) {
+            keys[HEADERS_OFFSET + i] = "hdr." + headerNames[i].toLowerCase(Locale.ROOT);
+        }
+        this.requestIds = requestIds;
+        this.retainContext = retainContext;
+    }
+
+    /** The correlation context the filter left on {@code req}, or {@code null}. */
+    public static CorrelationContext context(ServletRequest req) {
+        return req.getAttribute(CONTEXT_ATTRIBUTE) instanceof CorrelationContext c ? c : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        var ctx = isAsyncDispatch(req) && req.getAttribute(CONTEXT_ATTRIBUTE) instanceof CorrelationContext c
+                ? c : capture(req);
+        try (var ignored = ctx.open()) {
+            chain.doFilter(req, res);
+        } finally {
+            if (retainContext || req.isAsyncStarted()) req.setAttribute(CONTEXT_ATTRIBUTE, ctx);
+        }
+    }
+
+    private CorrelationContext capture(HttpServletRequest req) {
+        var values = new String[keys.length];
+        String requestId = req.getHeader(REQUEST_ID_HEADER);
+        values[0] = hasText(requestId) ? requestId : requestIds.generate();
+        values[1] = service;
+        // copy selected headers to MDC (e.g., user id, tenant)
+        for (int i = 0; i < headerNames.length; i++) {
+            var v = req.getHeader(headerNames[i]);
+            if (hasText(v)) values[HEADERS_OFFSET + i] = v;
+        }
+        return new CorrelationContext(keys, values);
+    }
+
+    static boolean hasText(String s) { return s != null && !s.isBlank(); }
+}
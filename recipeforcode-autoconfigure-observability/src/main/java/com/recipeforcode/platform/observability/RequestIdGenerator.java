@@ -0,0 +1,42 @@
+package com.recipeforcode.platform.observability;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates the {@code requestId} used by the MDC filter when the caller did not send {@code X-Request-Id}.
+ * Provide your own bean of this type to replace the platform generator.
+ */
+@FunctionalInterface
+public interface RequestIdGenerator {
+
+    String generate();
+
+    /**
+     * Time-ordered, UUIDv7-shaped ids (48-bit millisecond timestamp followed by random bits).
+     * Randomness comes from {@link ThreadLocalRandom}, so there is no shared state between threads
+     * and no blocking on the entropy pool. Not suitable where ids must be unguessable.
+     */
+    static RequestIdGenerator timeOrdered() {
+        return () -> {
+            var rnd = ThreadLocalRandom.current();
+            long msb = (System.currentTimeMillis() << 16) | 0x7000L | (rnd.nextLong() & 0x0FFFL);
+            long lsb = (rnd.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+            return new UUID(msb, lsb).toString();
+        };
+    }
+
+    /** Random (v4) UUIDs backed by {@code SecureRandom} (the original platform behaviour). */
+    static RequestIdGenerator randomUuid() {
+        return () -> UUID.randomUUID().toString();
+    }
+
+    enum Strategy {
+        TIME_ORDERED,
+        RANDOM_UUID;
+
+        RequestIdGenerator create() {
+            return this == RANDOM_UUID ? randomUuid() : timeOrdered();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.recipeforcode.platform.observability;
+
+import io.prometheus.metrics.tracer.common.SpanContext;
+import org.slf4j.MDC;
+
+/**
+ * Exemplar source for the Prometheus registry when no tracer is present. Exemplars get the current trace when
+ * something (an agent, a logging bridge) has put {@code traceId} and {@code spanId} into the MDC, and otherwise the
+ * request id of the current {@link CorrelationContext} as both {@code trace_id} and {@code span_id}, the only
+ * exemplar labels the Prometheus client writes.
+ * <p>
+ * Only consulted when the client's exemplar sampler is about to store one (at most one per bucket per sample
+ * interval), so the per-record path never reaches this class.
+ */
+public class RequestIdSpanContext implements SpanContext {
+
+    static final String TRACE_ID_KEY = "traceId";
+    static final String SPAN_ID_KEY = "spanId";
+
+    @Override
+    public String getCurrentTraceId() {
+        var traceId = MDC.get(TRACE_ID_KEY);
+        return traceId != null ? traceId : requestId();
+    }
+
+    @Override
+    public String getCurrentSpanId() {
+        var spanId = MDC.get(TRACE_ID_KEY) != null ? MDC.get(SPAN_ID_KEY) : null;
+        return spanId != null ? spanId : requestId();
+    }
+
+    @Override
+    public boolean isCurrentSpanSampled() {
+        return getCurrentTraceId() != null;
+    }
+
+    @Override
+    public void markCurrentSpanAsExemplar() {
+    }
+
+    private static String requestId() {
+        var ctx = CorrelationContext.current();
+        return ctx != null ? ctx.requestId() : null;
+    }
+}
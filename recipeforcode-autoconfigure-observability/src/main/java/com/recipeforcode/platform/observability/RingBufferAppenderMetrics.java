@@ -0,0 +1,52 @@
+package com.recipeforcode.platform.observability;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Publishes queue depth, capacity and written/dropped counts for every {@link RingBufferConsoleAppender}
+ * attached to a logback logger, tagged with the appender name.
+ */
+public class RingBufferAppenderMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (var appender : findAppenders()) {
+            var name = appender.getName() == null ? "unnamed" : appender.getName();
+            Gauge.builder("recipeforcode.logging.queue.depth", appender, RingBufferConsoleAppender::getQueueDepth)
+                    .tag("appender", name)
+                    .description("Log events waiting for the writer thread")
+                    .register(registry);
+            Gauge.builder("recipeforcode.logging.queue.capacity", appender, RingBufferConsoleAppender::getQueueCapacity)
+                    .tag("appender", name)
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.logging.events.written", appender, RingBufferConsoleAppender::getWrittenCount)
+                    .tag("appender", name)
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.logging.events.dropped", appender, RingBufferConsoleAppender::getDroppedCount)
+                    .tag("appender", name)
+                    .description("Log events shed by the overflow policy")
+                    .register(registry);
+        }
+    }
+
+    static Set<RingBufferConsoleAppender> findAppenders() {
+        Set<RingBufferConsoleAppender> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            for (var logger : context.getLoggerList()) {
+                for (var it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                    if (it.next() instanceof RingBufferConsoleAppender a) found.add(a);
+                }
+            }
+        }
+        return found;
+    }
+}
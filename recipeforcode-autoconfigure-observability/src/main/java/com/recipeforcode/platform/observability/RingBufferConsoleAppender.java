@@ -0,0 +1,298 @@
+package com.recipeforcode.platform.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.StreamingEncoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Console appender that takes stdout I/O off the logging thread.
+ * <p>
+ * Callers publish events into a bounded, lock-free multi-producer ring. A single writer thread drains it in
+ * batches, encodes each batch into one reusable buffer and hands the stream large writes, flushing when the
+ * ring runs empty. When the ring fills up the {@link OverflowPolicy} decides whether callers wait or events
+ * are shed; {@link #getQueueDepth()} and {@link #getDroppedCount()} are exported as meters by the
+ * auto-configuration.
+ * <p>
+ * Selected by {@code recipeforcode.observability.logging.mode=async} in the starter's {@code logback-spring.xml}.
+ */
+public class RingBufferConsoleAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public enum OverflowPolicy {
+        /** Callers wait for space; nothing is lost. */
+        BLOCK,
+        /** Past the discard threshold DEBUG/INFO are dropped; WARN and ERROR wait for space. */
+        DROP_BELOW_WARN,
+        /** Past the discard threshold one in {@code sampleRate} DEBUG/INFO events is kept; WARN and ERROR wait. */
+        SAMPLE
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MAX_RETAINED_BUFFER = 1 << 20;
+
+    private Encoder<ILoggingEvent> encoder;
+    private int queueSize = 8192;
+    private int batchSize = 256;
+    private int flushBytes = 64 * 1024;
+    private int sampleRate = 10;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_BELOW_WARN;
+    private OutputStream outputStream;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private Ring ring;
+    private int discardThreshold;
+    private Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean running;
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) { this.encoder = encoder; }
+
+    public void setQueueSize(int queueSize) { this.queueSize = queueSize; }
+
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public void setFlushBytes(int flushBytes) { this.flushBytes = flushBytes; }
+
+    public void setSampleRate(int sampleRate) { this.sampleRate = sampleRate; }
+
+    /** Accepts the enum name in any case, with {@code -} or {@code _} separators (e.g. {@code drop-below-warn}). */
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    /** Defaults to {@code System.out}; exposed for tests and benchmarks. */
+    public void setOutputStream(OutputStream outputStream) { this.outputStream = outputStream; }
+
+    public int getQueueDepth() { return ring == null ? 0 : ring.size(); }
+
+    public int getQueueCapacity() { return ring == null ? 0 : ring.capacity(); }
+
+    public long getDroppedCount() { return dropped.sum(); }
+
+    public long getWrittenCount() { return written.sum(); }
+
+    @Override
+    public void start() {
+        if (isStarted()) return;
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            return;
+        }
+        if (queueSize < 2 || batchSize < 1 || sampleRate < 1) {
+            addError("queueSize must be >= 2, batchSize and sampleRate >= 1 for the appender named [" + name + "].");
+            return;
+        }
+        if (!encoder.isStarted()) encoder.start();
+        if (outputStream == null) outputStream = System.out;
+        ring = new Ring(queueSize);
+        discardThreshold = ring.capacity() / 5;
+        running = true;
+        writer = new Thread(this::drainLoop, "recipeforcode-log-writer-" + name);
+        writer.setDaemon(true);
+        writer.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) return;
+        super.stop();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) addWarn("Log writer did not drain within 5s; " + ring.size() + " events lost.");
+        encoder.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        boolean lowLevel = event.getLevel().toInt() < Level.WARN_INT;
+        if (lowLevel && overflowPolicy != OverflowPolicy.BLOCK && ring.remainingCapacity() < discardThreshold
+                && (overflowPolicy == OverflowPolicy.DROP_BELOW_WARN || ThreadLocalRandom.current().nextInt(sampleRate) != 0)) {
+            dropped.increment();
+            return;
+        }
+        event.prepareForDeferredProcessing();
+        for (int attempt = 0; !ring.offer(event); attempt++) {
+            if (!running) {
+                dropped.increment();
+                return;
+            }
+            wakeWriter();
+            // give the writer the CPU rather than spinning against it; back off further while it stays full
+            if (attempt < 16) Thread.yield();
+            else LockSupport.parkNanos(Math.min(MAX_BACKOFF_NANOS, 1_000L << Math.min(attempt - 16, 10)));
+        }
+        wakeWriter();
+    }
+
+    private void wakeWriter() {
+        if (writerParked) LockSupport.unpark(writer);
+    }
+
+    private void drainLoop() {
+        var buffer = new BatchBuffer(flushBytes);
+        var streaming = encoder instanceof StreamingEncoder<?>;
+        while (running || ring.size() > 0) {
+            int n = 0;
+            ILoggingEvent event;
+            while (n < batchSize && (event = ring.poll()) != null) {
+                n++;
+                try {
+                    if (streaming) {
+                        @SuppressWarnings("unchecked")
+                        var se = (StreamingEncoder<ILoggingEvent>) encoder;
+                        se.encode(event, buffer);
+                    } else {
+                        buffer.write(encoder.encode(event));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    addError("Failed to encode log event", e);
+                }
+                if (buffer.size() >= flushBytes) writeOut(buffer, false);
+            }
+            if (n > 0) {
+                written.add(n);
+                writeOut(buffer, ring.size() == 0);
+            } else {
+                writerParked = true;
+                if (running && ring.size() == 0) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                writerParked = false;
+            }
+        }
+        writeOut(buffer, true);
+    }
+
+    private void writeOut(BatchBuffer buffer, boolean flush) {
+        try {
+            if (buffer.size() > 0) outputStream.write(buffer.array(), 0, buffer.size());
+            if (flush) outputStream.flush();
+        } catch (IOException e) {
+            addError("Failed to write log batch", e);
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    /**
+     * Bounded multi-producer/single-consumer ring (per-slot sequence numbers, after D. Vyukov's bounded
+     * queue). Producers claim a slot with one CAS on {@code tail}; the writer thread owns {@code head}.
+     */
+    static final class Ring {
+        private final Object[] slots;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        Ring(int requestedCapacity) {
+            int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+            slots = new Object[capacity];
+            sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) sequences.set(i, i);
+            mask = capacity - 1;
+        }
+
+        boolean offer(Object e) {
+            long pos = tail.get();
+            while (true) {
+                int idx = (int) (pos & mask);
+                long diff = sequences.get(idx) - pos;
+                if (diff == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        slots[idx] = e;
+                        sequences.lazySet(idx, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (diff < 0) {
+                    return false;
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        /** Single consumer only. */
+        @SuppressWarnings("unchecked")
+        <T> T poll() {
+            long pos = head;
+            int idx = (int) (pos & mask);
+            if (sequences.get(idx) != pos + 1) return null;
+            var e = slots[idx];
+            slots[idx] = null;
+            sequences.lazySet(idx, pos + slots.length);
+            head = pos + 1;
+            return (T) e;
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head);
+        }
+
+        int remainingCapacity() {
+            return slots.length - size();
+        }
+
+        int capacity() {
+            return slots.length;
+        }
+    }
+
+    /** Unsynchronized, reusable byte sink; shrinks back after an unusually large batch. */
+    static final class BatchBuffer extends OutputStream {
+        private final int initialCapacity;
+        private byte[] buf;
+        private int count;
+
+        BatchBuffer(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+            this.buf = new byte[initialCapacity];
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private void ensureCapacity(int min) {
+            if (min > buf.length) buf = Arrays.copyOf(buf, Math.max(min, buf.length << 1));
+        }
+
+        byte[] array() { return buf; }
+
+        int size() { return count; }
+
+        void reset() {
+            count = 0;
+            if (buf.length > MAX_RETAINED_BUFFER) buf = new byte[initialCapacity];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Publishes {@code recipeforcode.slo.burn.rate{uri,method,objective,window}} for each {@link SloTracker}: one gauge
+ * per objective and window, e.g. six series for a route with both objectives over 5m, 1h and 6h. {@code method}
+ * is {@code *} for objectives covering every method.
+ */
+public class SloMetrics implements MeterBinder {
+
+    private final List<SloTracker> trackers;
+
+    public SloMetrics(List<SloTracker> trackers) {
+        this.trackers = trackers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (var tracker : trackers) {
+            var config = tracker.getConfig();
+            for (var objective : SloTracker.Objective.values()) {
+                if (objective == SloTracker.Objective.LATENCY && config.latency() == null) continue;
+                for (var window : config.windows()) {
+                    Gauge.builder("recipeforcode.slo.burn.rate", tracker, t -> t.burnRate(objective, window))
+                            .tag("uri", config.uri())
+                            .tag("method", config.method() == null ? "*" : config.method().toUpperCase(Locale.ROOT))
+                            .tag("objective", objective.name().toLowerCase(Locale.ROOT))
+                            .tag("window", format(window))
+                            .description("Error budget burn rate: bad fraction over the fraction the objective allows")
+                            .register(registry);
+                }
+            }
+        }
+    }
+
+    static String format(Duration window) {
+        long seconds = window.toSeconds();
+        if (seconds % 86_400 == 0) return seconds / 86_400 + "d";
+        if (seconds % 3_600 == 0) return seconds / 3_600 + "h";
+        if (seconds % 60 == 0) return seconds / 60 + "m";
+        return seconds + "s";
+    }
+}
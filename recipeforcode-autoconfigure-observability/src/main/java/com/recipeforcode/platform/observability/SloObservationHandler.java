@@ -0,0 +1,66 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds {@code http.server.requests} into the {@link SloTracker} of the matched route template and method. The
+ * start time is kept on the observation context; requests on routes without objectives only pay for that and a
+ * map lookup. A 5xx status or an error on the observation counts as failed.
+ */
+public class SloObservationHandler implements ObservationHandler<ServerRequestObservationContext> {
+
+    private static final String START = SloObservationHandler.class.getName() + ".start";
+
+    private final Clock clock;
+    private final List<SloTracker> trackers;
+    private final Map<String, SloTracker[]> byUri = new HashMap<>();
+
+    public SloObservationHandler(List<SloTracker> trackers, Clock clock) {
+        this.clock = clock;
+        this.trackers = List.copyOf(trackers);
+        for (var tracker : trackers) {
+            byUri.merge(tracker.getConfig().uri(), new SloTracker[] {tracker}, (a, b) -> {
+                var merged = Arrays.copyOf(a, a.length + 1);
+                merged[a.length] = b[0];
+                return merged;
+            });
+        }
+    }
+
+    public List<SloTracker> getTrackers() {
+        return trackers;
+    }
+
+    @Override
+    public void onStart(ServerRequestObservationContext context) {
+        context.put(START, clock.monotonicTime());
+    }
+
+    @Override
+    public void onStop(ServerRequestObservationContext context) {
+        var pattern = context.getPathPattern();
+        var trackers = pattern == null ? null : byUri.get(pattern);
+        if (trackers == null || !(context.get(START) instanceof Long start)) return;
+        long duration = clock.monotonicTime() - start;
+        var response = context.getResponse();
+        boolean failed = context.getError() != null || response != null && response.getStatus() >= 500;
+        var method = context.getCarrier().getMethod();
+        for (var tracker : trackers) {
+            var expected = tracker.getConfig().method();
+            if (expected == null || expected.equalsIgnoreCase(method)) tracker.record(duration, failed);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext;
+    }
+}
@@ -0,0 +1,148 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Clock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming error-budget burn rates for one route's latency and availability objectives.
+ * <p>
+ * Requests are counted (total, slower than {@code latency}, failed) into the current time slot of
+ * {@code resolution}; when the clock moves on, the slot's counts are folded into a ring holding the longest
+ * window. A window's burn rate is its bad fraction over the fraction the objective allows,
+ * {@code (bad / total) / (1 - target)}: 1 spends the budget exactly over the SLO period, 14.4 over a 1h window
+ * is the usual fast-burn page. The oldest slot of a window is only partly inside it and is weighted by
+ * that overlap, which is exact for evenly spread traffic and otherwise off by at most one slot's requests.
+ * <p>
+ * Memory is three {@code long}s per slot, fixed at construction: 721 slots for a 6h window at 30s. Recording is
+ * two or three {@link LongAdder} increments and does not allocate; the ring is only touched once per slot.
+ */
+public class SloTracker {
+
+    public enum Objective { LATENCY, AVAILABILITY }
+
+    private final Config config;
+    private final Clock clock;
+    private final long resolutionNanos;
+    private final long latencyNanos;
+    private final long[] totals;
+    private final long[] slow;
+    private final long[] errors;
+    private final LongAdder currentTotal = new LongAdder();
+    private final LongAdder currentSlow = new LongAdder();
+    private final LongAdder currentErrors = new LongAdder();
+    private volatile long currentSlot;
+
+    /**
+     * @param uri                route template the objectives apply to, as in the {@code uri} tag
+     * @param method             HTTP method, or {@code null} for all
+     * @param latency            requests slower than this spend the latency budget; {@code null} for none
+     * @param latencyTarget      fraction of requests expected within {@code latency}, e.g. {@code 0.99}
+     * @param availabilityTarget fraction of requests expected not to fail (5xx or exception), e.g. {@code 0.999}
+     * @param windows            burn-rate windows, e.g. 5m, 1h and 6h
+     * @param resolution         slot width
+     */
+    public record Config(String uri, String method, Duration latency, double latencyTarget, double availabilityTarget,
+                         List<Duration> windows, Duration resolution) {
+        public Config {
+            if (uri == null || uri.isBlank()) throw new IllegalArgumentException("uri is required");
+            if (!(latencyTarget > 0 && latencyTarget < 1) || !(availabilityTarget > 0 && availabilityTarget < 1)) {
+                throw new IllegalArgumentException("targets must be in (0, 1)");
+            }
+            if (windows == null || windows.isEmpty()) throw new IllegalArgumentException("at least one window is required");
+            if (resolution.isNegative() || resolution.isZero()) throw new IllegalArgumentException("resolution must be positive");
+            windows = List.copyOf(windows);
+        }
+    }
+
+    public SloTracker(Config config, Clock clock) {
+        this.config = config;
+        this.clock = clock;
+        this.resolutionNanos = config.resolution().toNanos();
+        this.latencyNanos = config.latency() == null ? Long.MAX_VALUE : config.latency().toNanos();
+        // one more than the longest window for the partly covered oldest slot
+        int size = config.windows().stream().mapToInt(this::slots).max().orElseThrow() + 1;
+        this.totals = new long[size];
+        this.slow = new long[size];
+        this.errors = new long[size];
+        this.currentSlot = slot(clock.monotonicTime());
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /** Counts one finished request. */
+    public void record(long durationNanos, boolean failed) {
+        long slot = slot(clock.monotonicTime());
+        if (slot != currentSlot) roll(slot);
+        currentTotal.increment();
+        if (durationNanos > latencyNanos) currentSlow.increment();
+        if (failed) currentErrors.increment();
+    }
+
+    /**
+     * Burn rate of {@code objective} over the trailing {@code window}, {@code 0} without requests or for a
+     * latency objective without a threshold.
+     */
+    public synchronized double burnRate(Objective objective, Duration window) {
+        long now = clock.monotonicTime();
+        roll(slot(now));
+        var bad = objective == Objective.LATENCY ? slow : errors;
+        double badCount = (objective == Objective.LATENCY ? currentSlow : currentErrors).sum();
+        double total = currentTotal.sum();
+        int slots = Math.min(slots(window), totals.length - 1);
+        // the current slot is partial and lives in the adders; the ring supplies the completed ones before it
+        for (int i = 1; i < slots; i++) {
+            int index = index(currentSlot - i);
+            total += totals[index];
+            badCount += bad[index];
+        }
+        // and the share of the oldest slot still inside the window, assuming requests were spread evenly over it
+        double overlap = 1 - (double) Math.floorMod(now, resolutionNanos) / resolutionNanos;
+        int oldest = index(currentSlot - slots);
+        total += totals[oldest] * overlap;
+        badCount += bad[oldest] * overlap;
+        if (total == 0) return 0;
+        double allowed = 1 - (objective == Objective.LATENCY ? config.latencyTarget() : config.availabilityTarget());
+        return badCount / total / allowed;
+    }
+
+    /** Slots held in the ring; fixed, whatever the traffic. */
+    int capacity() {
+        return totals.length;
+    }
+
+    private synchronized void roll(long slot) {
+        long previous = currentSlot;
+        if (slot <= previous) return;
+        int index = index(previous);
+        // requests racing with the roll may land in either slot
+        totals[index] = currentTotal.sumThenReset();
+        slow[index] = currentSlow.sumThenReset();
+        errors[index] = currentErrors.sumThenReset();
+        // slots nobody recorded into, including the one the new current slot will fold into
+        long skipped = Math.min(slot - previous, totals.length);
+        for (long s = slot - skipped + 1; s <= slot; s++) {
+            int i = index(s);
+            totals[i] = 0;
+            slow[i] = 0;
+            errors[i] = 0;
+        }
+        currentSlot = slot;
+    }
+
+    private int slots(Duration window) {
+        return (int) Math.max(1, -Math.floorDiv(-window.toNanos(), resolutionNanos));
+    }
+
+    private long slot(long nanos) {
+        return Math.floorDiv(nanos, resolutionNanos);
+    }
+
+    private int index(long slot) {
+        return (int) Math.floorMod(slot, (long) totals.length);
+    }
+}
@@ -0,0 +1,234 @@
+package com.recipeforcode.platform.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tail-based log sampling: a request's DEBUG and INFO events are held back and written only once the request
+ * turns out to be worth keeping.
+ * <p>
+ * {@link #begin(String)} opens a buffer for a request id; while it is open, enabled DEBUG/INFO events whose MDC
+ * {@code requestId} matches (on any thread the correlation context reached) are captured instead of appended.
+ * {@link #end} keeps them, through the original logger's appenders and in order, when the request was slow,
+ * failed, or falls in the random {@code sampleRate}; otherwise they are dropped. A WARN or ERROR during the
+ * request writes what was held so far ahead of it and lets the rest of the request through unbuffered.
+ * <p>
+ * Memory stays flat: each buffer keeps the last {@code maxEventsPerRequest} events, buffers are pooled, and at
+ * most {@code maxBufferedRequests} are open; requests beyond that are logged as usual. Installed as a logback
+ * {@link TurboFilter}, so it works with any appender configuration.
+ */
+public class TailSampler extends TurboFilter {
+
+    public enum Decision { SLOW, ERROR, SAMPLED, DROPPED }
+
+    private final Config config;
+    private final ConcurrentHashMap<String, Buffer> open = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Buffer> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder unbuffered = new LongAdder();
+    private final LongAdder[] decisions = new LongAdder[Decision.values().length];
+
+    /**
+     * @param slowThreshold       requests taking at least this long are kept
+     * @param sampleRate          fraction of the remaining requests kept, {@code [0, 1]}
+     * @param maxEventsPerRequest events held per request; older ones are dropped first
+     * @param maxBufferedRequests requests buffered at once
+     */
+    public record Config(Duration slowThreshold, double sampleRate, int maxEventsPerRequest, int maxBufferedRequests) {
+        public Config {
+            if (!(sampleRate >= 0 && sampleRate <= 1)) throw new IllegalArgumentException("sampleRate must be in [0, 1]");
+            if (maxEventsPerRequest < 1 || maxBufferedRequests < 1) {
+                throw new IllegalArgumentException("maxEventsPerRequest and maxBufferedRequests must be >= 1");
+            }
+        }
+    }
+
+    public TailSampler(Config config) {
+        this.config = config;
+        for (int i = 0; i < decisions.length; i++) decisions[i] = new LongAdder();
+        setName("tailSampler");
+    }
+
+    /** Adds this filter to the logback context behind SLF4J; a no-op when logback is not the binding. */
+    public void install() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            setContext(context);
+            start();
+            context.addTurboFilter(this);
+        }
+    }
+
+    /** Removes this filter and writes out whatever is still buffered. */
+    public void uninstall() {
+        if (getContext() instanceof LoggerContext context) context.getTurboFilterList().remove(this);
+        stop();
+        open.values().forEach(this::flush);
+        open.clear();
+    }
+
+    /**
+     * Opens the buffer for {@code requestId}; {@code null} when all buffers are in use or the id is already open
+     * (clients can send duplicate ids), in which case the request is logged as usual.
+     */
+    public Buffer begin(String requestId) {
+        var buffer = pool.poll();
+        if (buffer == null) {
+            if (allocated.incrementAndGet() > config.maxBufferedRequests()) {
+                allocated.decrementAndGet();
+                unbuffered.increment();
+                return null;
+            }
+            buffer = new Buffer(config.maxEventsPerRequest());
+        }
+        buffer.requestId = requestId;
+        if (open.putIfAbsent(requestId, buffer) != null) {
+            buffer.requestId = null;
+            pool.offer(buffer);
+            unbuffered.increment();
+            return null;
+        }
+        return buffer;
+    }
+
+    /** Closes the buffer, keeping or dropping its events, and returns it to the pool. */
+    public Decision end(Buffer buffer, boolean failed, long durationNanos) {
+        open.remove(buffer.requestId, buffer);
+        Decision decision;
+        synchronized (buffer) {
+            if (failed || buffer.escalated) decision = Decision.ERROR;
+            else if (durationNanos >= config.slowThreshold().toNanos()) decision = Decision.SLOW;
+            else if (ThreadLocalRandom.current().nextDouble() < config.sampleRate()) decision = Decision.SAMPLED;
+            else decision = Decision.DROPPED;
+            // events racing with the close see a foreign id and are appended directly
+            buffer.requestId = null;
+            buffer.escalated = false;
+            if (decision == Decision.DROPPED) {
+                dropped.add(buffer.size);
+                buffer.clear();
+            } else {
+                flush(buffer);
+            }
+        }
+        decisions[decision.ordinal()].increment();
+        pool.offer(buffer);
+        return decision;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isEnabledFor() probes pass a null format; only real events are captured
+        if (format == null || !isStarted() || open.isEmpty()) return FilterReply.NEUTRAL;
+        var requestId = MDC.get(RequestCorrelationFilter.REQUEST_ID_KEY);
+        if (requestId == null) return FilterReply.NEUTRAL;
+        var buffer = open.get(requestId);
+        if (buffer == null || buffer.escalated || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level.isGreaterOrEqual(Level.WARN)) {
+            synchronized (buffer) {
+                if (requestId.equals(buffer.requestId)) {
+                    buffer.escalated = true;
+                    flush(buffer);
+                }
+            }
+            return FilterReply.NEUTRAL;
+        }
+        var event = new LoggingEvent(Logger.FQCN, logger, level, format, t, params);
+        if (marker != null) event.addMarker(marker);
+        event.prepareForDeferredProcessing();
+        synchronized (buffer) {
+            // escalated or closed meanwhile: append directly
+            if (buffer.escalated || !requestId.equals(buffer.requestId)) return FilterReply.NEUTRAL;
+            if (buffer.add(logger, event)) dropped.increment();
+        }
+        return FilterReply.DENY;
+    }
+
+    private void flush(Buffer buffer) {
+        synchronized (buffer) {
+            for (int i = 0; i < buffer.size; i++) {
+                int slot = (buffer.head + i) % buffer.events.length;
+                buffer.loggers[slot].callAppenders(buffer.events[slot]);
+            }
+            emitted.add(buffer.size);
+            buffer.clear();
+        }
+    }
+
+    /** DEBUG/INFO events written because their request was kept. */
+    public long getEmittedCount() {
+        return emitted.sum();
+    }
+
+    /** DEBUG/INFO events discarded: their request was not kept, or its buffer was full. */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /** Requests logged without buffering because every buffer was in use or the id was already open. */
+    public long getUnbufferedCount() {
+        return unbuffered.sum();
+    }
+
+    public long getDecisionCount(Decision decision) {
+        return decisions[decision.ordinal()].sum();
+    }
+
+    /** Buffers currently held by requests. */
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    /** One request's held events: a ring that overwrites the oldest when full. */
+    public static final class Buffer {
+        private final Logger[] loggers;
+        private final ILoggingEvent[] events;
+        private int head;
+        private int size;
+        private volatile String requestId;
+        private volatile boolean escalated;
+
+        Buffer(int capacity) {
+            this.loggers = new Logger[capacity];
+            this.events = new ILoggingEvent[capacity];
+        }
+
+        /** @return whether the oldest event was overwritten */
+        private boolean add(Logger logger, ILoggingEvent event) {
+            int slot = (head + size) % events.length;
+            boolean full = size == events.length;
+            if (full) head = (head + 1) % events.length;
+            else size++;
+            loggers[slot] = logger;
+            events[slot] = event;
+            return full;
+        }
+
+        private void clear() {
+            for (int i = 0; i < size; i++) {
+                int slot = (head + i) % events.length;
+                loggers[slot] = null;
+                events[slot] = null;
+            }
+            head = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Locale;
+
+/**
+ * Publishes {@link TailSampler} outcomes: DEBUG/INFO events emitted and dropped (their ratio is the effective
+ * sampling rate), requests by decision, and open buffers.
+ */
+public class TailSamplerMetrics implements MeterBinder {
+
+    private final TailSampler sampler;
+
+    public TailSamplerMetrics(TailSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("recipeforcode.logging.sampling.events", sampler, TailSampler::getEmittedCount)
+                .tag("outcome", "emitted")
+                .description("Buffered DEBUG/INFO events by outcome")
+                .register(registry);
+        FunctionCounter.builder("recipeforcode.logging.sampling.events", sampler, TailSampler::getDroppedCount)
+                .tag("outcome", "dropped")
+                .description("Buffered DEBUG/INFO events by outcome")
+                .register(registry);
+        for (var decision : TailSampler.Decision.values()) {
+            FunctionCounter.builder("recipeforcode.logging.sampling.requests", sampler, s -> s.getDecisionCount(decision))
+                    .tag("decision", decision.name().toLowerCase(Locale.ROOT))
+                    .description("Sampled requests by decision")
+                    .register(registry);
+        }
+        FunctionCounter.builder("recipeforcode.logging.sampling.requests", sampler, TailSampler::getUnbufferedCount)
+                .tag("decision", "unbuffered")
+                .description("Sampled requests by decision")
+                .register(registry);
+        Gauge.builder("recipeforcode.logging.sampling.buffers.open", sampler, TailSampler::getOpenCount)
+                .description("Requests currently buffering log events")
+                .register(registry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.recipeforcode.platform.observability;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link TailSampler} buffer for each request under the {@code requestId} that
+ * {@link RequestCorrelationFilter} put into the MDC, and closes it when the response is complete: a 5xx status
+ * or an exception counts as failed. Async requests are closed by an {@link AsyncListener} once they complete.
+ * Registered right after the correlation filter.
+ */
+public class TailSamplingFilter extends OncePerRequestFilter {
+
+    private final TailSampler sampler;
+
+    public TailSamplingFilter(TailSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        var requestId = MDC.get(RequestCorrelationFilter.REQUEST_ID_KEY);
+        var buffer = requestId == null ? null : sampler.begin(requestId);
+        if (buffer == null) {
+            chain.doFilter(req, res);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(req, res);
+            failed = false;
+        } finally {
+            if (!failed && req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new Completion(buffer, start));
+            } else {
+                sampler.end(buffer, failed || res.getStatus() >= 500, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final class Completion implements AsyncListener {
+        private final TailSampler.Buffer buffer;
+        private final long start;
+        private boolean failed;
+
+        Completion(TailSampler.Buffer buffer, long start) {
+            this.buffer = buffer;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            boolean error = failed || event.getSuppliedResponse() instanceof HttpServletResponse r && r.getStatus() >= 500;
+            sampler.end(buffer, error, System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // a re-started async cycle drops its listeners; stay registered for it
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.cumulative.CumulativeTimer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchingMeterObservationHandlerTest {
+
+    private final MockClock clock = new MockClock();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+    private BatchingMeterObservationHandler handler;
+
+    @AfterEach
+    void close() {
+        if (handler != null) handler.close();
+    }
+
+    @Test
+    void shouldRecordTheSameMetersAsTheDefaultHandlerOnceFlushed() {
+        var observations = observations(new BatchingMeterObservationHandler.Config(Duration.ofMinutes(1), 128, 100));
+        var expected = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        var reference = ObservationRegistry.create();
+        reference.observationConfig().observationHandler(new DefaultMeterObservationHandler(expected));
+
+        for (var registry : new ObservationRegistry[] {observations, reference}) {
+            var ok = Observation.start("orders", registry).lowCardinalityKeyValue("uri", "/orders/{id}");
+            assertThat(this.registry.find("orders.active").longTaskTimer()).isNotNull();
+            ok.event(Observation.Event.of("retry"));
+            clock.add(Duration.ofMillis(40));
+            ok.stop();
+            var failed = Observation.start("orders", registry).lowCardinalityKeyValue("uri", "/orders/{id}");
+            failed.error(new IllegalStateException());
+            failed.stop();
+        }
+
+        assertThat(registry.get("orders").tag("error", "none").timer().count()).isZero();
+        handler.flush();
+        assertThat(registry.getMeters()).extracting(m -> m.getId().toString())
+                .containsExactlyInAnyOrderElementsOf(expected.getMeters().stream().map(m -> m.getId().toString()).toList());
+        var ok = registry.get("orders").tag("uri", "/orders/{id}").tag("error", "none").timer();
+        assertThat(ok.count()).isEqualTo(1);
+        assertThat(ok.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+        assertThat(registry.get("orders").tag("error", "IllegalStateException").timer().count()).isEqualTo(1);
+        assertThat(registry.get("orders.retry").counter().count()).isEqualTo(1);
+        assertThat(registry.get("orders.active").longTaskTimer().activeTasks()).isZero();
+    }
+
+    @Test
+    void shouldFoldEveryRecordingFromConcurrentThreads() throws Exception {
+        // small buffers, so full stripes are handed to the flush thread as well
+        var observations = observations(new BatchingMeterObservationHandler.Config(Duration.ofMillis(5), 16, 100));
+        int threads = 8;
+        int perThread = 10_000;
+        var done = new CountDownLatch(threads);
+        try (var pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                var uri = "/route/" + t % 4;
+                pool.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        Observation.start("http", observations).lowCardinalityKeyValue("uri", uri).stop();
+                    }
+                    done.countDown();
+                });
+            }
+            done.await();
+        }
+        handler.close();
+
+        long total = registry.get("http").timers().stream().mapToLong(t -> t.count()).sum();
+        assertThat(total).isEqualTo((long) threads * perThread);
+        assertThat(registry.get("http").timers()).hasSize(4);
+    }
+
+    @Test
+    void shouldFoldFullStripesOnTheFlushThreadOnly() {
+        var recordingThreads = ConcurrentHashMap.<String>newKeySet();
+        var registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock) {
+            @Override
+            protected Timer newTimer(Meter.Id id, DistributionStatisticConfig config, PauseDetector pauseDetector) {
+                return new CumulativeTimer(id, clock, config, pauseDetector, getBaseTimeUnit(), false) {
+                    @Override
+                    protected void recordNonNegative(long amount, TimeUnit unit) {
+                        recordingThreads.add(Thread.currentThread().getName());
+                        super.recordNonNegative(amount, unit);
+                    }
+                };
+            }
+        };
+        handler = new BatchingMeterObservationHandler(registry, false,
+                new BatchingMeterObservationHandler.Config(Duration.ofMinutes(1), 2, 100));
+        handler.start();
+        var observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(handler);
+
+        for (int i = 0; i < 9; i++) Observation.start("http", observations).stop();
+        handler.flush();
+
+        assertThat(registry.get("http").timer().count()).isEqualTo(9);
+        assertThat(recordingThreads).containsExactly("recipeforcode-metrics-flush");
+    }
+
+    @Test
+    void shouldKeepRecordingPastTheMeterCacheLimit() {
+        var observations = observations(new BatchingMeterObservationHandler.Config(Duration.ofMinutes(1), 128, 1));
+        for (int i = 0; i < 3; i++) {
+            for (var uri : new String[] {"/a", "/b", "/c"}) {
+                Observation.start("http", observations).lowCardinalityKeyValue("uri", uri).stop();
+            }
+        }
+        handler.flush();
+        assertThat(registry.get("http").timers()).hasSize(3).allSatisfy(t -> assertThat(t.count()).isEqualTo(3));
+    }
+
+    private ObservationRegistry observations(BatchingMeterObservationHandler.Config config) {
+        handler = new BatchingMeterObservationHandler(registry, true, config);
+        handler.start();
+        var observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(handler);
+        return observations;
+    }
+}
@@ -0,0 +1,70 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CardinalityLimitingMeterFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldCollapseValuesPastTheLimitIntoOverflowValue() {
+        guard(3, List.of("http.server"), List.of());
+        for (int i = 0; i < 10; i++) {
+            Counter.builder("http.server.requests").tag("uri", "/orders/" + i).tag("method", "GET").register(registry).increment();
+        }
+
+        var uris = registry.find("http.server.requests").counters().stream().map(c -> c.getId().getTag("uri")).toList();
+        assertThat(uris).containsExactlyInAnyOrder("/orders/0", "/orders/1", "/orders/2", "OTHER");
+        assertThat(registry.get("http.server.requests").tag("uri", "OTHER").counter().count()).isEqualTo(7);
+        assertThat(registry.get("recipeforcode.meter.cardinality.collapsed").functionCounter().count()).isEqualTo(7);
+        assertThat(registry.get("recipeforcode.meter.cardinality.limited").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldOnlyGuardConfiguredMetersAndTagKeys() {
+        guard(1, List.of("http.server"), List.of("uri"));
+        Counter.builder("http.server.requests").tag("uri", "/a").tag("status", "200").register(registry);
+        Counter.builder("http.server.requests").tag("uri", "/b").tag("status", "500").register(registry);
+        Counter.builder("jobs").tag("uri", "/a").register(registry);
+        Counter.builder("jobs").tag("uri", "/b").register(registry);
+
+        assertThat(registry.find("http.server.requests").tag("status", "500").counter().getId().getTag("uri")).isEqualTo("OTHER");
+        assertThat(registry.find("jobs").counters()).hasSize(2);
+    }
+
+    @Test
+    void shouldAdmitExactlyTheLimitUnderConcurrentRegistration() throws Exception {
+        guard(50, List.of(), List.of());
+        try (var pool = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 8).forEach(t -> pool.execute(() -> {
+                for (int i = 0; i < 1_000; i++) Counter.builder("c").tag("k", Integer.toString(i)).register(registry);
+            }));
+        }
+
+        assertThat(registry.find("c").counters()).hasSize(51);
+    }
+
+    @Test
+    void shouldEstimateTrueCardinalityOfLimitedTag() {
+        guard(10, List.of(), List.of());
+        for (int i = 0; i < 5_000; i++) Counter.builder("c").tag("user", "u-" + i).register(registry);
+
+        var estimate = registry.get("recipeforcode.meter.cardinality.estimate").tag("meter", "c").tag("tag", "user").gauge().value();
+        assertThat(estimate).isCloseTo(5_000, within(500.0));
+    }
+
+    private void guard(int max, List<String> prefixes, List<String> keys) {
+        var filter = new CardinalityLimitingMeterFilter(max, prefixes, keys, "OTHER");
+        registry.config().meterFilter(filter);
+        filter.bindTo(registry);
+    }
+}
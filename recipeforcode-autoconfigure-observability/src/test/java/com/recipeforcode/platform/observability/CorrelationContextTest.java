@@ -0,0 +1,134 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationContextTest {
+
+    private final RequestCorrelationFilter filter =
+            new RequestCorrelationFilter("svc", List.of("Tenant-Id"), () -> "generated-id");
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void shouldPropagateThroughTaskDecorator() throws Exception {
+        var decorator = new CorrelationTaskDecorator();
+        var seen = new AtomicReference<String>();
+        var leftover = new AtomicReference<String>();
+        var pool = Executors.newSingleThreadExecutor();
+        try {
+            inRequest(() -> pool.submit(decorator.decorate(() -> seen.set(MDC.get("hdr.tenant-id")))).get());
+            pool.submit(() -> leftover.set(MDC.get("requestId"))).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(seen.get()).isEqualTo("t1");
+        assertThat(leftover.get()).isNull();
+    }
+
+    @Test
+    void shouldPropagateIntoVirtualThreads() throws Exception {
+        var seen = new AtomicReference<String>();
+        try (var executor = CorrelationContext.newVirtualThreadPerTaskExecutor()) {
+            inRequest(() -> CompletableFuture.runAsync(() -> seen.set(MDC.get("requestId")), executor).join());
+        }
+
+        assertThat(seen.get()).isEqualTo("r1");
+    }
+
+    @Test
+    void shouldPropagateThroughContextSnapshot() throws Exception {
+        assertThat(ContextRegistry.getInstance().getThreadLocalAccessors())
+                .anyMatch(accessor -> CorrelationContextAccessor.KEY.equals(accessor.key()));
+        var factory = ContextSnapshotFactory.builder().build();
+        var seen = new AtomicReference<String>();
+        var pool = Executors.newSingleThreadExecutor();
+        try {
+            inRequest(() -> {
+                var task = factory.captureAll().wrap(() -> seen.set(MDC.get("service")));
+                pool.submit(task).get();
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(seen.get()).isEqualTo("svc");
+    }
+
+    @Test
+    void shouldKeepCallerMdcWhenTaskRunsOnSubmittingThread() throws Exception {
+        var after = new AtomicReference<String>();
+        inRequest(() -> {
+            CorrelationContext.wrap(() -> { }).run();
+            after.set(MDC.get("requestId"));
+        });
+
+        assertThat(after.get()).isEqualTo("r1");
+    }
+
+    @Test
+    void shouldRestoreContextOnAsyncDispatch() throws Exception {
+        var req = request();
+        req.setAsyncSupported(true);
+        filter.doFilter(req, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        assertThat(MDC.get("requestId")).isNull();
+
+        var dispatch = new MockHttpServletRequest();
+        dispatch.setDispatcherType(DispatcherType.ASYNC);
+        dispatch.setAttribute(CorrelationContext.class.getName(), req.getAttribute(CorrelationContext.class.getName()));
+        var seen = new AtomicReference<String>();
+        filter.doFilter(dispatch, new MockHttpServletResponse(), (request, response) -> seen.set(MDC.get("requestId")));
+
+        assertThat(seen.get()).isEqualTo("r1");
+        assertThat(MDC.get("requestId")).isNull();
+    }
+
+    @Test
+    void shouldExposeCurrentContextInsideRequestOnly() throws Exception {
+        var current = new AtomicReference<CorrelationContext>();
+        inRequest(() -> current.set(CorrelationContext.current()));
+
+        assertThat(current.get().requestId()).isEqualTo("r1");
+        assertThat(current.get().get("hdr.tenant-id")).isEqualTo("t1");
+        assertThat(CorrelationContext.current()).isNull();
+    }
+
+    private void inRequest(ThrowingRunnable body) throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), (request, response) -> {
+            try {
+                body.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static MockHttpServletRequest request() {
+        var req = new MockHttpServletRequest();
+        req.addHeader("X-Request-Id", "r1");
+        req.addHeader("Tenant-Id", "t1");
+        return req;
+    }
+
+    @FunctionalInterface
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,88 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExemplarTest {
+
+    private static final String OPENMETRICS = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT,
+            new PrometheusRegistry(), Clock.SYSTEM, new RequestIdSpanContext());
+
+    ExemplarTest() {
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+    }
+
+    @AfterEach
+    void clear() {
+        MDC.clear();
+    }
+
+    @Test
+    void shouldLabelBucketsWithTheCurrentRequestId() throws Exception {
+        var timer = Timer.builder("orders.lookup").register(registry);
+        var filter = new RequestCorrelationFilter("orders", List.of(), () -> "r-1");
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (req, res) -> timer.record(Duration.ofMillis(40)));
+
+        var scrape = registry.scrape(OPENMETRICS);
+        assertThat(scrape).containsPattern("orders_lookup_seconds_bucket\\{le=\"0.04\\d+\"} 1 # \\{span_id=\"r-1\",trace_id=\"r-1\"} 0\\.04 ");
+    }
+
+    @Test
+    void shouldPreferATraceIdFromTheMdc() {
+        MDC.put(RequestIdSpanContext.TRACE_ID_KEY, "4bf92f3577b34da6a3ce929d0e0e4736");
+        MDC.put(RequestIdSpanContext.SPAN_ID_KEY, "00f067aa0ba902b7");
+        Timer.builder("orders.lookup").register(registry).record(Duration.ofMillis(3));
+
+        assertThat(registry.scrape(OPENMETRICS))
+                .contains("span_id=\"00f067aa0ba902b7\",trace_id=\"4bf92f3577b34da6a3ce929d0e0e4736\"");
+    }
+
+    @Test
+    void shouldNameTheRequestOnServerObservationsStoppedAfterTheFilter() throws Exception {
+        var observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(
+                new ExemplarMeterObservationHandler(new DefaultMeterObservationHandler(registry)));
+        var request = new MockHttpServletRequest("GET", "/orders");
+        request.addHeader(RequestCorrelationFilter.REQUEST_ID_HEADER, "r-2");
+        var response = new MockHttpServletResponse();
+        var context = new ServerRequestObservationContext(request, response);
+        var observation = Observation.start("http.server.requests", () -> context, observations);
+
+        new RequestCorrelationFilter("orders", List.of(), () -> "generated", true)
+                .doFilter(request, response, (req, res) -> { });
+        assertThat(MDC.get(RequestCorrelationFilter.REQUEST_ID_KEY)).isNull();
+        observation.stop();
+
+        assertThat(registry.scrape(OPENMETRICS)).contains("trace_id=\"r-2\"");
+        assertThat(CorrelationContext.current()).isNull();
+        assertThat(MDC.get(RequestCorrelationFilter.REQUEST_ID_KEY)).isNull();
+    }
+}
@@ -0,0 +1,137 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HealthSnapshotsTest {
+
+    private static final long CHECK_MILLIS = 200;
+
+    private final List<HealthSnapshots> opened = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        opened.forEach(HealthSnapshots::close);
+    }
+
+    @Test
+    void shouldKeepProbeLatencyFlatAsSlowIndicatorsAreAdded() {
+        var probeNanos = new ArrayList<Long>();
+        for (int count : new int[] {1, 4, 16}) {
+            var snapshots = snapshots(Duration.ofMinutes(1), Duration.ofSeconds(5));
+            var calls = new AtomicInteger();
+            var indicators = new ArrayList<HealthIndicator>();
+            for (int i = 0; i < count; i++) indicators.add(snapshots.register("slow" + i, slow(calls)));
+
+            long start = System.nanoTime();
+            snapshots.start();
+            // concurrent checks: the first refresh takes one check's time, not the sum
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(CHECK_MILLIS * 4));
+
+            long probeStart = System.nanoTime();
+            for (int probe = 0; probe < 100; probe++) {
+                for (var indicator : indicators) assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+            }
+            probeNanos.add((System.nanoTime() - probeStart) / 100);
+            // probes never ran a check
+            assertThat(calls).hasValue(count);
+        }
+        // a probe over 16 slow indicators still costs microseconds, not 16 checks
+        assertThat(probeNanos).allSatisfy(nanos -> assertThat(nanos).isLessThan(TimeUnit.MILLISECONDS.toNanos(5)));
+    }
+
+    @Test
+    void shouldReportDownAfterTheTimeoutAndNotStartAStuckCheckAgain() throws Exception {
+        var snapshots = snapshots(Duration.ofMinutes(1), Duration.ofMillis(50));
+        var calls = new AtomicInteger();
+        var stuck = snapshots.register("broker", () -> {
+            calls.incrementAndGet();
+            sleep(1_000);
+            return Health.up().build();
+        });
+        var fast = snapshots.register("db", () -> Health.up().build());
+
+        long start = System.nanoTime();
+        snapshots.start();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(stuck.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(stuck.health().getDetails()).containsEntry("error", "Timed out after 50ms");
+        assertThat(fast.health().getStatus()).isEqualTo(Status.UP);
+
+        snapshots.refresh();
+        assertThat(calls).hasValue(1);
+
+        var registry = new SimpleMeterRegistry();
+        new HealthSnapshotMetrics(snapshots).bindTo(registry);
+        assertThat(registry.get("recipeforcode.health.indicator.timeouts").tag("indicator", "broker").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("recipeforcode.health.staleness").timeGauge().value(TimeUnit.SECONDS)).isLessThan(1);
+        assertThat(registry.get("recipeforcode.health.indicator.duration").timeGauges()).hasSize(2);
+    }
+
+    @Test
+    void shouldCheckOnTheProbingThreadBeforeTheFirstRefreshAndServeFailuresAsDown() {
+        var snapshots = snapshots(Duration.ofMinutes(1), Duration.ofSeconds(1));
+        var failing = snapshots.register("db", () -> {
+            throw new IllegalStateException("connection refused");
+        });
+        var excluded = snapshots.register("ping", () -> Health.up().build());
+
+        assertThat(failing.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(failing.health().getDetails()).containsEntry("error", "java.lang.IllegalStateException: connection refused");
+        assertThat(excluded).isNotInstanceOf(HealthSnapshots.Indicator.class);
+        assertThat(snapshots.getIndicators()).extracting(HealthSnapshots.Indicator::getName).containsExactly("db");
+    }
+
+    @Test
+    void shouldReportErrorsAsDownAndCheckAgainOnTheNextRefresh() {
+        var snapshots = snapshots(Duration.ofMinutes(1), Duration.ofSeconds(1));
+        var calls = new AtomicInteger();
+        var broken = snapshots.register("cache", () -> {
+            if (calls.incrementAndGet() == 1) throw new NoClassDefFoundError("com/example/CacheClient");
+            return Health.up().build();
+        });
+
+        snapshots.refresh();
+        assertThat(broken.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(broken.health().getDetails()).containsEntry("error", "java.lang.NoClassDefFoundError: com/example/CacheClient");
+
+        snapshots.refresh();
+        assertThat(calls).hasValue(2);
+        assertThat(broken.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private HealthSnapshots snapshots(Duration refreshInterval, Duration timeout) {
+        var snapshots = new HealthSnapshots(new HealthSnapshots.Config(refreshInterval, timeout, List.of("ping")));
+        opened.add(snapshots);
+        return snapshots;
+    }
+
+    private static HealthIndicator slow(AtomicInteger calls) {
+        return () -> {
+            calls.incrementAndGet();
+            sleep(CHECK_MILLIS);
+            return Health.up().build();
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
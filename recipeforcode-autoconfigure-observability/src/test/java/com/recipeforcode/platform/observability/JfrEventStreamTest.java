@@ -0,0 +1,117 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEventStreamTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JfrEventStream stream = new JfrEventStream(new JfrEventStream.Config(
+            "default", Duration.ofMinutes(1), 10_000_000, Duration.ofMillis(10), Duration.ofMillis(20)));
+
+    @AfterEach
+    void close() {
+        stream.close();
+    }
+
+    @Test
+    void shouldTurnEventsIntoMetersAndDumpTheRecording(@TempDir Path dir) throws Exception {
+        registry.config().commonTags("service", "orders");
+        stream.bindTo(registry);
+        stream.start();
+
+        var idle = Executors.newSingleThreadExecutor();
+        idle.submit(() -> { }).get();
+        System.gc();
+        contendMonitor();
+        contendLock();
+        idle.shutdown();
+
+        var pause = await(() -> registry.find("recipeforcode.jfr.gc.pause").tag("cause", "System.gc()").timer());
+        assertThat(pause.getId().getTag("service")).isEqualTo("orders");
+        var blocked = await(() -> registry.find("recipeforcode.jfr.monitor.blocked").tag("class", Object.class.getName()).timer());
+        assertThat(blocked.totalTime(java.util.concurrent.TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10);
+        assertThat(registry.get("recipeforcode.jfr.allocation").counter()).isNotNull();
+        // the lock's waiter is counted; the idle pool worker waiting on its queue meanwhile is not
+        await(() -> registry.find("recipeforcode.jfr.thread.park").tag("class", "java.util.concurrent.locks.ReentrantLock$NonfairSync").timer());
+        assertThat(registry.find("recipeforcode.jfr.thread.park").timers())
+                .allSatisfy(t -> assertThat(JfrEventStream.isIdleWait(t.getId().getTag("class"))).isFalse());
+
+        var file = dir.resolve("dump.jfr");
+        stream.dump(file);
+        assertThat(RecordingFile.readAllEvents(file))
+                .anyMatch(e -> e.getEventType().getName().equals("jdk.GarbageCollection"));
+    }
+
+    private static void contendMonitor() throws InterruptedException {
+        var lock = new Object();
+        var held = new CountDownLatch(1);
+        var owner = Thread.ofPlatform().start(() -> {
+            synchronized (lock) {
+                held.countDown();
+                sleep(100);
+            }
+        });
+        held.await();
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        owner.join();
+    }
+
+    private static void contendLock() throws InterruptedException {
+        var lock = new ReentrantLock();
+        var held = new CountDownLatch(1);
+        var owner = Thread.ofPlatform().start(() -> {
+            lock.lock();
+            try {
+                held.countDown();
+                sleep(100);
+            } finally {
+                lock.unlock();
+            }
+        });
+        held.await();
+        lock.lock();
+        lock.unlock();
+        owner.join();
+    }
+
+    @Test
+    void shouldTellIdleWorkersFromLockWaiters() {
+        assertThat(JfrEventStream.isIdleWait("java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject")).isTrue();
+        assertThat(JfrEventStream.isIdleWait("java.util.concurrent.ForkJoinPool")).isTrue();
+        assertThat(JfrEventStream.isIdleWait("java.util.concurrent.LinkedTransferQueue$DualNode")).isTrue();
+        assertThat(JfrEventStream.isIdleWait("java.util.concurrent.locks.ReentrantLock$NonfairSync")).isFalse();
+        assertThat(JfrEventStream.isIdleWait("java.util.concurrent.locks.ReentrantReadWriteLock$FairSync")).isFalse();
+    }
+
+    private static <T> T await(java.util.function.Supplier<T> meter) throws InterruptedException {
+        // the stream delivers events about once a second
+        for (int i = 0; i < 100; i++) {
+            var found = meter.get();
+            if (found != null) return found;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("meter not published");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
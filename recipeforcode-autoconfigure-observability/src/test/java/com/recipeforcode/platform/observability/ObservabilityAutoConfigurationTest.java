@@ -1,13 +1,23 @@
 package com.recipeforcode.platform.observability;
 
+import io.micrometer.context.ContextRegistry;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.FilteredClassLoader;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -186,6 +196,243 @@ class ObservabilityAutoConfigurationTest {
             assertThat(seenId[0]).isNotBlank();
         });
     }
+
+    @Test
+    void shouldRemoveOnlyOwnMdcKeysAfterRequest() {
+        runner.withPropertyValues(
+                "recipeforcode.observability.service=svc",
+                "recipeforcode.observability.mdc-headers=User-Id"
+        ).run(ctx -> {
+            var reg = ctx.getBean("mdcFilter", org.springframework.boot.web.servlet.FilterRegistrationBean.class);
+            var filter = (org.springframework.web.filter.OncePerRequestFilter) reg.getFilter();
+
+            var req = new org.springframework.mock.web.MockHttpServletRequest();
+            req.addHeader("User-Id", "u1");
+            org.slf4j.MDC.put("traceId", "outer");
+            try {
+                filter.doFilter(req, new org.springframework.mock.web.MockHttpServletResponse(), (request, response) ->
+                        assertThat(org.slf4j.MDC.get("hdr.user-id")).isEqualTo("u1"));
+
+                assertThat(org.slf4j.MDC.get("traceId")).isEqualTo("outer");
+                assertThat(org.slf4j.MDC.get("requestId")).isNull();
+                assertThat(org.slf4j.MDC.get("hdr.user-id")).isNull();
+            } finally {
+                org.slf4j.MDC.clear();
+            }
+        });
+    }
+
+    @Test
+    void shouldGenerateTimeOrderedRequestIdsByDefault() {
+        runner.run(ctx -> {
+            var ids = ctx.getBean(RequestIdGenerator.class);
+            var first = java.util.UUID.fromString(ids.generate());
+            Thread.sleep(2);
+            var second = java.util.UUID.fromString(ids.generate());
+            assertThat(first.version()).isEqualTo(7);
+            assertThat(first.variant()).isEqualTo(2);
+            assertThat(Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits())).isNegative();
+        });
+    }
+
+    @Test
+    void shouldSelectRequestIdGeneratorFromProperty() {
+        runner.withPropertyValues("recipeforcode.observability.request-id-generator=random-uuid")
+                .run(ctx -> assertThat(java.util.UUID.fromString(ctx.getBean(RequestIdGenerator.class).generate()).version())
+                        .isEqualTo(4));
+    }
+
+    @Test
+    void shouldUseUserProvidedRequestIdGenerator() {
+        runner.withBean(RequestIdGenerator.class, () -> () -> "fixed-id-0000000000000")
+                .run(ctx -> {
+                    var reg = ctx.getBean("mdcFilter", org.springframework.boot.web.servlet.FilterRegistrationBean.class);
+                    var filter = (org.springframework.web.filter.OncePerRequestFilter) reg.getFilter();
+                    filter.doFilter(new org.springframework.mock.web.MockHttpServletRequest(),
+                            new org.springframework.mock.web.MockHttpServletResponse(),
+                            (request, response) -> assertThat(org.slf4j.MDC.get("requestId")).isEqualTo("fixed-id-0000000000000"));
+                });
+    }
+
+    @Test
+    void shouldPreferHistogramModeOverPercentilesWhenEnabled() {
+        runner.withPropertyValues(
+                "recipeforcode.observability.http-percentiles=0.5,0.99",
+                "recipeforcode.observability.http-server-histogram=true",
+                "recipeforcode.observability.histogram.relative-accuracy=0.05",
+                "recipeforcode.observability.add-request-id-mdc=false"
+        ).run(ctx -> {
+            MeterRegistry registry = new SimpleMeterRegistry();
+            ctx.getBeansOfType(io.micrometer.core.instrument.config.MeterFilter.class).values()
+                    .forEach(registry.config()::meterFilter);
+            var timer = io.micrometer.core.instrument.Timer.builder("http.server.requests").tag("uri", "/a").register(registry);
+            timer.record(java.time.Duration.ofMillis(20));
+
+            var snapshot = timer.takeSnapshot();
+            assertThat(snapshot.percentileValues()).isEmpty();
+            assertThat(snapshot.histogramCounts()).hasSizeGreaterThan(100);
+        });
+    }
+
+    @Test
+    void shouldRegisterCardinalityGuardOnlyWhenEnabled() {
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean(CardinalityLimitingMeterFilter.class));
+        runner.withPropertyValues(
+                "recipeforcode.observability.cardinality.enabled=true",
+                "recipeforcode.observability.cardinality.max-tag-values=2",
+                "recipeforcode.observability.cardinality.overflow-value=CAPPED"
+        ).run(ctx -> {
+            var filter = ctx.getBean(CardinalityLimitingMeterFilter.class);
+            MeterRegistry registry = new SimpleMeterRegistry();
+            registry.config().meterFilter(filter);
+            for (var uri : new String[]{"/a", "/b", "/c"}) Counter.builder("demo").tag("uri", uri).register(registry);
+            assertThat(registry.find("demo").tag("uri", "CAPPED").counter()).isNotNull();
+        });
+    }
+
+    @Test
+    void shouldInstallTailSamplerOnlyWhenEnabled() {
+        var logback = (ch.qos.logback.classic.LoggerContext) org.slf4j.LoggerFactory.getILoggerFactory();
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean(TailSampler.class));
+        runner.withPropertyValues(
+                "recipeforcode.observability.tail-sampling.enabled=true",
+                "recipeforcode.observability.add-request-id-mdc=false"
+        ).run(ctx -> assertThat(ctx).doesNotHaveBean(TailSampler.class));
+
+        var installed = new TailSampler[1];
+        runner.withPropertyValues(
+                "recipeforcode.observability.tail-sampling.enabled=true",
+                "recipeforcode.observability.tail-sampling.sample-rate=0.05"
+        ).run(ctx -> {
+            installed[0] = ctx.getBean(TailSampler.class);
+            assertThat(ctx).hasBean("tailSamplingFilter").hasSingleBean(TailSamplerMetrics.class);
+            assertThat(logback.getTurboFilterList()).contains(installed[0]);
+        });
+        assertThat(logback.getTurboFilterList()).doesNotContain(installed[0]);
+    }
+
+    @Test
+    void shouldStreamJfrOnlyWhenEnabledAndExposeDumpEndpointOnRequest() {
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean(JfrEventStream.class));
+        runner.withPropertyValues(
+                "recipeforcode.observability.jfr.enabled=true",
+                "recipeforcode.observability.jfr.lock-threshold=5ms"
+        ).run(ctx -> {
+            assertThat(ctx.getBean(JfrEventStream.class).getConfig().lockThreshold()).hasMillis(5);
+            assertThat(ctx).doesNotHaveBean(JfrEndpoint.class);
+        });
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ObservabilityAutoConfiguration.class))
+                .withPropertyValues(
+                        "recipeforcode.observability.jfr.enabled=true",
+                        "management.endpoints.web.exposure.include=jfr")
+                .run(ctx -> assertThat(ctx).hasSingleBean(JfrEndpoint.class));
+    }
+
+    @Test
+    void shouldSupplyExemplarsFromRequestIdsOnlyWhenEnabled() {
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean(RequestIdSpanContext.class));
+        runner.withBean(SimpleMeterRegistry.class)
+                .withPropertyValues("recipeforcode.observability.exemplars.enabled=true")
+                .run(ctx -> {
+                    assertThat(ctx).hasSingleBean(RequestIdSpanContext.class).hasSingleBean(ExemplarMeterObservationHandler.class);
+                    var filter = ctx.getBean("exemplarHistogram", MeterFilter.class);
+                    var id = new Meter.Id("http.server.requests", Tags.empty(), null, null, Meter.Type.TIMER);
+                    var config = filter.configure(id, DistributionStatisticConfig.NONE);
+                    assertThat(config.isPercentileHistogram()).isTrue();
+                });
+        runner.withPropertyValues("recipeforcode.observability.exemplars.enabled=true")
+                .withClassLoader(new FilteredClassLoader("io.prometheus.metrics.tracer"))
+                .run(ctx -> assertThat(ctx).hasNotFailed().doesNotHaveBean(ExemplarMeterObservationHandler.class));
+    }
+
+    @Test
+    void shouldTrackConfiguredSloRoutesOnlyWhenEnabled() {
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean(SloObservationHandler.class));
+        runner.withPropertyValues(
+                        "recipeforcode.observability.slo.enabled=true",
+                        "recipeforcode.observability.slo.routes[0].uri=/orders/{id}",
+                        "recipeforcode.observability.slo.routes[0].latency=300ms",
+                        "recipeforcode.observability.slo.routes[1].uri=/orders",
+                        "recipeforcode.observability.slo.routes[1].method=POST",
+                        "recipeforcode.observability.slo.routes[1].availability-target=0.9995")
+                .run(ctx -> {
+                    var trackers = ctx.getBean(SloObservationHandler.class).getTrackers();
+                    assertThat(trackers).extracting(t -> t.getConfig().uri()).containsExactly("/orders/{id}", "/orders");
+                    var orders = trackers.get(1).getConfig();
+                    assertThat(orders.latency()).isNull();
+                    assertThat(orders.latencyTarget()).isEqualTo(0.99);
+                    assertThat(orders.availabilityTarget()).isEqualTo(0.9995);
+                    assertThat(orders.windows()).containsExactly(Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofHours(6));
+
+                    var registry = new SimpleMeterRegistry();
+                    ctx.getBean(SloMetrics.class).bindTo(registry);
+                    // 2 objectives x 3 windows for the first route, availability only for the second
+                    assertThat(registry.get("recipeforcode.slo.burn.rate").gauges()).hasSize(9);
+                });
+    }
+
+    @Test
+    void shouldBatchObservationMetersOnlyWhenEnabledAndLeaveThemToExemplars() {
+        runner.withBean(SimpleMeterRegistry.class)
+                .run(ctx -> assertThat(ctx).doesNotHaveBean(BatchingMeterObservationHandler.class));
+        runner.withBean(SimpleMeterRegistry.class)
+                .withPropertyValues("recipeforcode.observability.batched-recording.enabled=true")
+                .run(ctx -> assertThat(ctx).hasSingleBean(BatchingMeterObservationHandler.class));
+        runner.withBean(SimpleMeterRegistry.class)
+                .withPropertyValues(
+                        "recipeforcode.observability.batched-recording.enabled=true",
+                        "recipeforcode.observability.exemplars.enabled=true")
+                .run(ctx -> assertThat(ctx).hasSingleBean(ExemplarMeterObservationHandler.class)
+                        .doesNotHaveBean(BatchingMeterObservationHandler.class));
+    }
+
+    @Test
+    void shouldServeHealthIndicatorsFromSnapshotsOnlyWhenEnabled() {
+        var db = new java.util.concurrent.atomic.AtomicInteger();
+        var withIndicators = runner
+                .withBean("dbHealthIndicator", org.springframework.boot.actuate.health.HealthIndicator.class,
+                        () -> () -> {
+                            db.incrementAndGet();
+                            return org.springframework.boot.actuate.health.Health.up().build();
+                        })
+                .withBean("livenessStateHealthIndicator", org.springframework.boot.actuate.availability.LivenessStateHealthIndicator.class,
+                        () -> new org.springframework.boot.actuate.availability.LivenessStateHealthIndicator(
+                                new org.springframework.boot.availability.ApplicationAvailabilityBean()));
+        withIndicators.run(ctx -> assertThat(ctx).doesNotHaveBean(HealthSnapshots.class));
+        withIndicators.withPropertyValues("recipeforcode.observability.health.enabled=true")
+                .run(ctx -> {
+                    var snapshots = ctx.getBean(HealthSnapshots.class);
+                    assertThat(snapshots.getIndicators()).extracting(HealthSnapshots.Indicator::getName).containsExactly("db");
+                    assertThat(ctx.getBean("dbHealthIndicator")).isInstanceOf(HealthSnapshots.Indicator.class);
+                    assertThat(ctx.getBean("livenessStateHealthIndicator"))
+                            .isInstanceOf(org.springframework.boot.actuate.availability.LivenessStateHealthIndicator.class);
+                    // checked once when the context started; probes read the snapshot
+                    var indicator = ctx.getBean("dbHealthIndicator", org.springframework.boot.actuate.health.HealthIndicator.class);
+                    for (int i = 0; i < 10; i++) indicator.health();
+                    assertThat(db).hasValue(1);
+                    assertThat(ctx).hasSingleBean(HealthSnapshotMetrics.class);
+                });
+    }
+
+    @Test
+    void shouldLeaveContextPropagationToTheServiceLoaderUnderLazyInitialization() {
+        runner.withInitializer(ctx -> ctx.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor()))
+                .run(ctx -> {
+                    assertThat(ctx).doesNotHaveBean(CorrelationContextAccessor.class);
+                    assertThat(ContextRegistry.getInstance().getThreadLocalAccessors())
+                            .anyMatch(accessor -> CorrelationContextAccessor.KEY.equals(accessor.key()));
+                });
+    }
+
+    @Test
+    void shouldRegisterHintsForReflectivelyCreatedAppender() {
+        var hints = new RuntimeHints();
+        new ObservabilityRuntimeHints().registerHints(hints, getClass().getClassLoader());
+        assertThat(RuntimeHintsPredicates.reflection().onType(RingBufferConsoleAppender.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("logback-spring.xml")).accepts(hints);
+    }
+
     @org.springframework.context.annotation.Configuration
     static class UserProvidedCustomizerConfig {
         @org.springframework.context.annotation.Bean(name = "observabilityCommonTagsCustomizer")
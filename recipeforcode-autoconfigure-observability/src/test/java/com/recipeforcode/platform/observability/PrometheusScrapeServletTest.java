@@ -0,0 +1,139 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.prometheus.metrics.expositionformats.ExpositionFormats;
+import io.prometheus.metrics.model.registry.MultiCollector;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.prometheus.PrometheusMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrometheusScrapeServletTest {
+
+    private final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    @Test
+    void shouldStreamTextFormatLargerThanTheChunkBuffer() throws Exception {
+        for (int i = 0; i < 500; i++) Counter.builder("orders").tag("uri", "/orders/" + i).register(registry).increment();
+        var servlet = servlet(Duration.ZERO);
+
+        var res = scrape(servlet, null, null);
+
+        assertThat(res.getContentType()).startsWith("text/plain");
+        assertThat(res.getContentAsString()).contains("orders_total{uri=\"/orders/499\"} 1.0");
+    }
+
+    @Test
+    void shouldNegotiateOpenMetricsAndGzip() throws Exception {
+        Counter.builder("orders").register(registry).increment();
+        var servlet = servlet(Duration.ZERO);
+
+        var res = scrape(servlet, "application/openmetrics-text; version=1.0.0; charset=utf-8", "gzip, deflate");
+
+        assertThat(res.getContentType()).startsWith("application/openmetrics-text");
+        assertThat(res.getHeader("Content-Encoding")).isEqualTo("gzip");
+        var body = new String(new GZIPInputStream(new ByteArrayInputStream(res.getContentAsByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(body).contains("orders_total 1.0").endsWith("# EOF\n");
+    }
+
+    @Test
+    void shouldFilterByName() throws Exception {
+        Counter.builder("orders").register(registry);
+        Counter.builder("payments").register(registry);
+        var req = new MockHttpServletRequest("GET", "/metrics");
+        req.addParameter("name[]", "payments_total");
+        var res = new MockHttpServletResponse();
+
+        servlet(Duration.ZERO).service(req, res);
+
+        assertThat(res.getContentAsString()).contains("payments_total").doesNotContain("orders_total");
+    }
+
+    @Test
+    void shouldShareOneRenderWithinCacheTtl() throws Exception {
+        var renders = new AtomicInteger();
+        registry.getPrometheusRegistry().register((MultiCollector) () -> {
+            renders.incrementAndGet();
+            return MetricSnapshots.of();
+        });
+        var servlet = servlet(Duration.ofMinutes(1));
+
+        var first = scrape(servlet, null, null).getContentAsString();
+        var second = scrape(servlet, null, null).getContentAsString();
+        scrape(servlet, null, "gzip");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void shouldHonourZeroQualityForGzip() {
+        assertThat(PrometheusScrapeServlet.acceptsGzip("gzip;q=0, identity")).isFalse();
+        assertThat(PrometheusScrapeServlet.acceptsGzip("br, GZIP;q=0.5")).isTrue();
+        assertThat(PrometheusScrapeServlet.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void shouldReadWildcardAndIdentityQualities() {
+        assertThat(PrometheusScrapeServlet.acceptsGzip("*")).isTrue();
+        assertThat(PrometheusScrapeServlet.acceptsGzip("br, *;q=0")).isFalse();
+        assertThat(PrometheusScrapeServlet.acceptsGzip("gzip;q=0.5, identity")).isFalse();
+        assertThat(PrometheusScrapeServlet.acceptsGzip("gzip;q=0.5, identity;q=0")).isTrue();
+        assertThat(PrometheusScrapeServlet.acceptsGzip("identity;q=0, *")).isTrue();
+        assertThat(PrometheusScrapeServlet.acceptsGzip("gzip; Q=0.0")).isFalse();
+        assertThat(PrometheusScrapeServlet.acceptsGzip("x-gzip")).isTrue();
+    }
+
+    @Test
+    void shouldRegisterServletOnlyWhenEnabled() {
+        var runner = new WebApplicationContextRunner().withConfiguration(AutoConfigurations.of(
+                MetricsAutoConfiguration.class, PrometheusMetricsExportAutoConfiguration.class, PrometheusScrapeAutoConfiguration.class));
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean("prometheusScrapeServlet"));
+        runner.withPropertyValues("recipeforcode.observability.scrape.enabled=true", "recipeforcode.observability.scrape.path=/scrape")
+                .run(ctx -> assertThat(ctx.getBean("prometheusScrapeServlet", ServletRegistrationBean.class).getUrlMappings())
+                        .containsExactly("/scrape"));
+    }
+
+    @Test
+    void shouldWriteWithTheExporterPropertiesOfTheActuatorEndpoint() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(MetricsAutoConfiguration.class,
+                        PrometheusMetricsExportAutoConfiguration.class, PrometheusScrapeAutoConfiguration.class))
+                .withPropertyValues("recipeforcode.observability.scrape.enabled=true",
+                        "management.prometheus.metrics.export.properties.io.prometheus.exporter.includeCreatedTimestamps=true")
+                .run(ctx -> {
+                    Counter.builder("orders").register(ctx.getBean(PrometheusMeterRegistry.class)).increment();
+                    var servlet = (PrometheusScrapeServlet) ctx.getBean("prometheusScrapeServlet", ServletRegistrationBean.class).getServlet();
+
+                    assertThat(scrape(servlet, null, null).getContentAsString()).contains("orders_created ");
+                });
+    }
+
+    private PrometheusScrapeServlet servlet(Duration ttl) {
+        return new PrometheusScrapeServlet(registry.getPrometheusRegistry(), ExpositionFormats.init(), ttl, 1024);
+    }
+
+    private static MockHttpServletResponse scrape(PrometheusScrapeServlet servlet, String accept, String encoding) throws Exception {
+        var req = new MockHttpServletRequest("GET", "/metrics");
+        if (accept != null) req.addHeader("Accept", accept);
+        if (encoding != null) req.addHeader("Accept-Encoding", encoding);
+        var res = new MockHttpServletResponse();
+        servlet.service(req, res);
+        return res;
+    }
+}
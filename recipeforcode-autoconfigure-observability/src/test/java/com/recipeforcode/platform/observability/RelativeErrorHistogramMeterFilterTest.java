@@ -0,0 +1,55 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RelativeErrorHistogramMeterFilterTest {
+
+    @Test
+    void shouldBoundRelativeErrorAcrossTheExpectedRange() {
+        double alpha = 0.02;
+        double[] bounds = RelativeErrorHistogramMeterFilter.boundaries(1e6, 30e9, alpha);
+
+        assertThat(bounds[0]).isLessThanOrEqualTo(1e6 * (1 + 2 * alpha));
+        assertThat(bounds[bounds.length - 1]).isGreaterThanOrEqualTo(30e9);
+        for (int i = 1; i < bounds.length; i++) {
+            // a value in (lower, upper] estimated at the bucket's midpoint 2*lower*upper/(lower+upper) is within alpha
+            double lower = bounds[i - 1], upper = bounds[i];
+            double estimate = 2 * lower * upper / (lower + upper);
+            assertThat((upper - estimate) / upper).isLessThanOrEqualTo(alpha + 1e-6);
+            assertThat((estimate - lower) / lower).isLessThanOrEqualTo(alpha + 1e-6);
+        }
+    }
+
+    @Test
+    void shouldReplacePercentilesWithBucketsOnlyForMatchingTimers() {
+        var filter = new RelativeErrorHistogramMeterFilter(List.of("http.server"), 0.1, Duration.ofMillis(1), Duration.ofSeconds(30));
+        var percentiles = DistributionStatisticConfig.builder().percentiles(0.5, 0.99).percentilesHistogram(true).build();
+
+        var cfg = filter.configure(id("http.server.requests", Meter.Type.TIMER), percentiles);
+        assertThat(cfg.getPercentiles()).isEmpty();
+        assertThat(cfg.isPercentileHistogram()).isFalse();
+        assertThat(cfg.getServiceLevelObjectiveBoundaries()).hasSize(filter.bucketCount());
+        assertThat(filter.bucketCount()).isBetween(50, 55);
+
+        assertThat(filter.configure(id("http.client.requests", Meter.Type.TIMER), percentiles)).isSameAs(percentiles);
+        assertThat(filter.configure(id("http.server.payload", Meter.Type.DISTRIBUTION_SUMMARY), percentiles)).isSameAs(percentiles);
+    }
+
+    @Test
+    void shouldRejectInvalidAccuracy() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RelativeErrorHistogramMeterFilter.boundaries(1, 10, 1.0));
+    }
+
+    private static Meter.Id id(String name, Meter.Type type) {
+        return new Meter.Id(name, Tags.of("uri", "/x"), null, null, type);
+    }
+}
@@ -0,0 +1,146 @@
+package com.recipeforcode.platform.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RingBufferConsoleAppenderTest {
+
+    private final LoggerContext context = (LoggerContext) org.slf4j.LoggerFactory.getILoggerFactory();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private RingBufferConsoleAppender appender;
+
+    @AfterEach
+    void stop() {
+        if (appender != null) appender.stop();
+    }
+
+    @Test
+    void shouldWriteEveryEventFromConcurrentProducersWhenBlocking() throws Exception {
+        appender = appender(out, 64, "block");
+        int threads = 8, perThread = 2_000;
+        var done = new CountDownLatch(threads);
+        try (var pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                pool.execute(() -> {
+                    for (int i = 0; i < perThread; i++) appender.doAppend(event(Level.INFO, "m"));
+                    done.countDown();
+                });
+            }
+            done.await();
+        }
+        appender.stop();
+
+        var lines = out.toString(StandardCharsets.UTF_8).lines().count();
+        assertThat(lines).isEqualTo((long) threads * perThread);
+        assertThat(appender.getDroppedCount()).isZero();
+        assertThat(appender.getWrittenCount()).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void shouldDropInfoButKeepErrorsWhenWriterIsStalled() throws Exception {
+        var gate = new CountDownLatch(1);
+        appender = appender(new GatedStream(out, gate), 16, "drop-below-warn");
+        for (int i = 0; i < 100; i++) appender.doAppend(event(Level.INFO, "info"));
+        var errorWriter = Thread.ofVirtual().start(() -> appender.doAppend(event(Level.ERROR, "error")));
+        gate.countDown();
+        errorWriter.join();
+        appender.stop();
+
+        assertThat(appender.getDroppedCount()).isPositive();
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("ERROR error");
+    }
+
+    @Test
+    void shouldEncodeWithLogstashEncoderIntoJsonLines() {
+        var encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        appender = new RingBufferConsoleAppender();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(out);
+        appender.start();
+
+        appender.doAppend(event(Level.INFO, "hello"));
+        appender.stop();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).startsWith("{").contains("\"message\":\"hello\"");
+    }
+
+    @Test
+    void shouldExposeQueueMetrics() {
+        appender = appender(out, 16, "block");
+        var registry = new SimpleMeterRegistry();
+        // the binder inspects the SLF4J-bound logger context
+        var root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        try {
+            new RingBufferAppenderMetrics().bindTo(registry);
+        } finally {
+            root.detachAppender(appender);
+        }
+
+        assertThat(registry.get("recipeforcode.logging.queue.capacity").tag("appender", "test").gauge().value()).isEqualTo(16);
+        assertThat(registry.get("recipeforcode.logging.events.dropped").functionCounter().count()).isZero();
+    }
+
+    private RingBufferConsoleAppender appender(OutputStream target, int queueSize, String policy) {
+        var encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%level %msg%n");
+        var a = new RingBufferConsoleAppender();
+        a.setName("test");
+        a.setContext(context);
+        a.setEncoder(encoder);
+        a.setQueueSize(queueSize);
+        a.setBatchSize(8);
+        a.setOverflowPolicy(policy);
+        a.setOutputStream(target);
+        a.start();
+        return a;
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        var logger = context.getLogger("test");
+        return new LoggingEvent(getClass().getName(), logger, level, message, null, null);
+    }
+
+    /** Holds the writer thread on its first write until released, so the ring fills up. */
+    private static final class GatedStream extends OutputStream {
+        private final OutputStream delegate;
+        private final CountDownLatch gate;
+
+        GatedStream(OutputStream delegate, CountDownLatch gate) {
+            this.delegate = delegate;
+            this.gate = gate;
+        }
+
+        @Override
+        public void write(int b) throws java.io.IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws java.io.IOException {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delegate.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SloTrackerTest {
+
+    private static final List<Duration> WINDOWS = List.of(Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofHours(6));
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(300);
+
+    private final MockClock clock = new MockClock();
+    private final SloTracker tracker = new SloTracker(config("/orders/{id}", null), clock);
+
+    @Test
+    void shouldMatchExactBurnRatesOverEachWindow() {
+        var reference = new ArrayList<long[]>();
+        var random = new Random(42);
+        var checked = 0;
+        // 7h at one second per step; error and slow rates change every 20 minutes
+        for (int second = 1; second <= 7 * 3600; second++) {
+            clock.add(1, TimeUnit.SECONDS);
+            int phase = second / 1200;
+            double slowRate = 0.002 + 0.01 * (phase % 4);
+            double errorRate = 0.0005 * (phase % 3);
+            for (int i = 0; i < 5; i++) {
+                long duration = random.nextDouble() < slowRate ? LATENCY + 1 : LATENCY / 2;
+                boolean failed = random.nextDouble() < errorRate;
+                tracker.record(duration, failed);
+                reference.add(new long[] {clock.monotonicTime(), duration, failed ? 1 : 0});
+            }
+            if (second % 600 == 0 && second >= 3600) {
+                for (var window : WINDOWS) {
+                    assertClose(tracker.burnRate(SloTracker.Objective.LATENCY, window),
+                            exact(reference, window, e -> e[1] > LATENCY) / 0.01);
+                    assertClose(tracker.burnRate(SloTracker.Objective.AVAILABILITY, window),
+                            exact(reference, window, e -> e[2] == 1) / 0.001);
+                }
+                checked++;
+            }
+        }
+        assertThat(checked).isEqualTo(37);
+    }
+
+    @Test
+    void shouldKeepMemoryFixedAndRecordWithoutAllocating() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 10_000; i++) tracker.record(LATENCY, false);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 1_000_000; i++) {
+            if (i % 1000 == 0) clock.add(10, TimeUnit.SECONDS);
+            tracker.record(i % 100 == 0 ? LATENCY * 2 : LATENCY, i % 1000 == 0);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // a million requests over ~2.8h against 721 slots of three longs; an exact reference holds every request
+        assertThat(allocated).isLessThan(64 * 1024);
+        assertThat(tracker.capacity()).isEqualTo(721);
+        assertThat(tracker.burnRate(SloTracker.Objective.LATENCY, Duration.ofHours(1))).isCloseTo(1.0, within(0.01));
+        assertThat(tracker.burnRate(SloTracker.Objective.AVAILABILITY, Duration.ofHours(1))).isCloseTo(1.0, within(0.05));
+    }
+
+    @Test
+    void shouldForgetRequestsOlderThanTheWindow() {
+        tracker.record(LATENCY * 2, true);
+        assertThat(tracker.burnRate(SloTracker.Objective.LATENCY, Duration.ofMinutes(5))).isCloseTo(100.0, within(1e-9));
+
+        clock.add(Duration.ofMinutes(6));
+        tracker.record(LATENCY, false);
+        assertThat(tracker.burnRate(SloTracker.Objective.LATENCY, Duration.ofMinutes(5))).isZero();
+        assertThat(tracker.burnRate(SloTracker.Objective.AVAILABILITY, Duration.ofHours(1))).isCloseTo(500.0, within(1e-9));
+
+        clock.add(Duration.ofHours(7));
+        assertThat(tracker.burnRate(SloTracker.Objective.AVAILABILITY, Duration.ofHours(6))).isZero();
+    }
+
+    @Test
+    void shouldTrackServerObservationsByRouteTemplateAndMethod() {
+        var post = new SloTracker(config("/orders/{id}", "POST"), clock);
+        var handler = new SloObservationHandler(List.of(tracker, post), clock);
+        var observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(handler);
+
+        request(observations, "GET", "/orders/{id}", 200, Duration.ofMillis(500));
+        request(observations, "GET", "/orders/{id}", 503, Duration.ofMillis(10));
+        request(observations, "GET", "/health", 500, Duration.ofSeconds(1));
+
+        assertThat(tracker.burnRate(SloTracker.Objective.LATENCY, Duration.ofMinutes(5))).isCloseTo(50.0, within(1e-9));
+        assertThat(tracker.burnRate(SloTracker.Objective.AVAILABILITY, Duration.ofMinutes(5))).isCloseTo(500.0, within(1e-9));
+        assertThat(post.burnRate(SloTracker.Objective.AVAILABILITY, Duration.ofMinutes(5))).isZero();
+
+        var registry = new SimpleMeterRegistry();
+        new SloMetrics(handler.getTrackers()).bindTo(registry);
+        assertThat(registry.get("recipeforcode.slo.burn.rate").gauges()).hasSize(12);
+        assertThat(registry.get("recipeforcode.slo.burn.rate")
+                .tags("uri", "/orders/{id}", "method", "*", "objective", "availability", "window", "5m").gauge().value())
+                .isCloseTo(500.0, within(1e-9));
+    }
+
+    private void request(ObservationRegistry observations, String method, String pattern, int status, Duration took) {
+        var response = new MockHttpServletResponse();
+        var context = new ServerRequestObservationContext(new MockHttpServletRequest(method, pattern), response);
+        var observation = Observation.start("http.server.requests", () -> context, observations);
+        context.setPathPattern(pattern);
+        response.setStatus(status);
+        clock.add(took);
+        observation.stop();
+    }
+
+    private void assertClose(double actual, double expected) {
+        // the oldest slot of a window is pro-rated, which is exact only for evenly spread requests
+        assertThat(actual).isCloseTo(expected, within(0.02 + expected * 0.05));
+    }
+
+    private double exact(List<long[]> events, Duration window, Predicate<long[]> bad) {
+        long from = clock.monotonicTime() - window.toNanos();
+        long total = 0;
+        long badCount = 0;
+        for (var e : events) {
+            if (e[0] <= from) continue;
+            total++;
+            if (bad.test(e)) badCount++;
+        }
+        return total == 0 ? 0 : (double) badCount / total;
+    }
+
+    private static SloTracker.Config config(String uri, String method) {
+        return new SloTracker.Config(uri, method, Duration.ofNanos(LATENCY), 0.99, 0.999, WINDOWS, Duration.ofSeconds(30));
+    }
+}
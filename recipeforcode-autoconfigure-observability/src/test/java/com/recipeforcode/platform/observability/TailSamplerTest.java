@@ -0,0 +1,161 @@
+package com.recipeforcode.platform.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailSamplerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private final LoggerContext context = new LoggerContext();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger logger;
+    private TailSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        appender.setContext(context);
+        appender.start();
+        logger = context.getLogger("test");
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+        sampler = sampler(0, 16, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        context.stop();
+    }
+
+    @Test
+    void shouldDropEventsOfFastSuccessfulRequests() {
+        var buffer = sampler.begin("r1");
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "r1");
+        logger.info("one");
+        logger.info("two");
+        logger.debug("disabled, never buffered");
+        assertThat(appender.list).isEmpty();
+
+        assertThat(sampler.end(buffer, false, FAST)).isEqualTo(TailSampler.Decision.DROPPED);
+        assertThat(appender.list).isEmpty();
+        assertThat(sampler.getDroppedCount()).isEqualTo(2);
+        assertThat(sampler.getOpenCount()).isZero();
+    }
+
+    @Test
+    void shouldEmitHeldEventsInOrderForSlowOrFailedRequests() {
+        var slow = sampler.begin("r1");
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "r1");
+        logger.info("order {} accepted", 42);
+        logger.info("order {} shipped", 42);
+        assertThat(sampler.end(slow, false, SLOW)).isEqualTo(TailSampler.Decision.SLOW);
+
+        var failed = sampler.begin("r2");
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "r2");
+        logger.info("payment declined");
+        assertThat(sampler.end(failed, true, FAST)).isEqualTo(TailSampler.Decision.ERROR);
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("order 42 accepted", "order 42 shipped", "payment declined");
+        assertThat(appender.list.get(0).getMDCPropertyMap()).containsEntry("requestId", "r1");
+        assertThat(sampler.getEmittedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldWriteHeldEventsAheadOfAWarning() {
+        var buffer = sampler.begin("r1");
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "r1");
+        logger.info("a");
+        logger.info("b");
+        logger.warn("c");
+        logger.info("d");
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("a", "b", "c", "d");
+        assertThat(sampler.end(buffer, false, FAST)).isEqualTo(TailSampler.Decision.ERROR);
+        assertThat(appender.list).hasSize(4);
+    }
+
+    @Test
+    void shouldPassThroughEventsOutsideBufferedRequests() {
+        var buffer = sampler.begin("r1");
+        logger.info("no request id");
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "other");
+        logger.info("another request");
+
+        assertThat(appender.list).hasSize(2);
+        sampler.end(buffer, false, FAST);
+    }
+
+    @Test
+    void shouldBoundEventsPerRequestAndOpenBuffers() {
+        sampler = sampler(0, 2, 1);
+        var buffer = sampler.begin("r1");
+        assertThat(sampler.begin("r2")).isNull();
+        assertThat(sampler.getUnbufferedCount()).isEqualTo(1);
+
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "r1");
+        logger.info("1");
+        logger.info("2");
+        logger.info("3");
+        sampler.end(buffer, true, FAST);
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("2", "3");
+        assertThat(sampler.getDroppedCount()).isEqualTo(1);
+        // the buffer went back to the pool
+        assertThat(sampler.begin("r2")).isSameAs(buffer);
+    }
+
+    @Test
+    void shouldKeepEveryRequestAtFullSampleRate() {
+        sampler = sampler(1, 16, 4);
+        var buffer = sampler.begin("r1");
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "r1");
+        logger.info("kept");
+
+        assertThat(sampler.end(buffer, false, FAST)).isEqualTo(TailSampler.Decision.SAMPLED);
+        assertThat(appender.list).hasSize(1);
+    }
+
+    @Test
+    void shouldTreatServerErrorsAsFailedInFilter() throws Exception {
+        var filter = new TailSamplingFilter(sampler);
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "r1");
+        var ok = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), ok, (req, res) -> logger.info("fine"));
+        var failed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), failed, (req, res) -> {
+            logger.info("about to fail");
+            ((MockHttpServletResponse) res).setStatus(503);
+        });
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("about to fail");
+        assertThat(sampler.getDecisionCount(TailSampler.Decision.DROPPED)).isEqualTo(1);
+        assertThat(sampler.getDecisionCount(TailSampler.Decision.ERROR)).isEqualTo(1);
+    }
+
+    private TailSampler sampler(double sampleRate, int maxEvents, int maxBuffers) {
+        if (sampler != null) context.getTurboFilterList().remove(sampler);
+        var s = new TailSampler(new TailSampler.Config(Duration.ofSeconds(1), sampleRate, maxEvents, maxBuffers));
+        s.setContext(context);
+        s.start();
+        context.addTurboFilter(s);
+        return s;
+    }
+}
@@ -1,22 +1,37 @@
 package com.recipeforcode.platform.openapi;
 
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.security.SecurityScheme;
+import io.swagger.v3.oas.models.servers.Server;
+import org.springdoc.core.models.GroupedOpenApi;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
 
 @AutoConfiguration
 @EnableConfigurationProperties(OpenApiProps.class)
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @ConditionalOnClass(OpenAPI.class)
 @ConditionalOnProperty(prefix = "recipeforcode.openapi", name = "enabled", havingValue = "true", matchIfMissing = true)
+@ImportRuntimeHints(OpenApiRuntimeHints.class)
 public class OpenApiAutoConfiguration {
 
     /**
@@ -34,7 +49,8 @@ public class OpenApiAutoConfiguration {
         var info = new Info()
                 .title(props.title())
                 .description(props.description())
-                .version(props.version());
+                .version(props.version())
+                .termsOfService(props.termsOfService());
 
         if (props.contactName() != null || props.contactEmail() != null || props.contactUrl() != null) {
             var contact = new Contact()
@@ -50,6 +66,103 @@ public class OpenApiAutoConfiguration {
                     .url(props.licenseUrl()));
         }
 
-        return new OpenAPI().info(info);
+        var openApi = new OpenAPI().info(info);
+        props.serverUrls().stream().filter(StringUtils::hasText).forEach(url -> openApi.addServersItem(new Server().url(url)));
+
+        if (Boolean.TRUE.equals(props.securityEnabled())) {
+            openApi.components(new Components().addSecuritySchemes(props.securitySchemeName(), new SecurityScheme()
+                            .type(SecurityScheme.Type.HTTP).scheme("bearer").bearerFormat("JWT")))
+                    .addSecurityItem(new SecurityRequirement().addList(props.securitySchemeName()));
+        }
+        return openApi;
+    }
+
+    /**
+     * Partitions the document into groups so each is built from its own handlers, on its first request:
+     * {@code groupName} covers {@code packagesToScan} (all packages when empty) without the actuator, and with
+     * {@code includeActuator} the actuator endpoints get their own {@code actuator} group. Backs off when the
+     * application declares its own {@link GroupedOpenApi} beans, and when the prebuilt document is served: Swagger
+     * UI would otherwise load the group paths, which only Springdoc answers, by scanning controllers.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(GroupedOpenApi.class)
+    @ConditionalOnMissingBean(GroupedOpenApi.class)
+    @ConditionalOnProperty(prefix = "recipeforcode.openapi.prebuilt", name = "enabled", havingValue = "false", matchIfMissing = true)
+    static class GroupConfiguration {
+
+        @Bean
+        GroupedOpenApi platformGroupedOpenApi(OpenApiProps props, Environment env) {
+            var group = GroupedOpenApi.builder().group(props.groupName()).pathsToExclude(actuatorPaths(env));
+            var packages = props.packagesToScan().stream().filter(StringUtils::hasText).toArray(String[]::new);
+            return (packages.length > 0 ? group.packagesToScan(packages) : group.pathsToMatch("/**")).build();
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "recipeforcode.openapi", name = "include-actuator", havingValue = "true")
+        GroupedOpenApi actuatorGroupedOpenApi(Environment env) {
+            return GroupedOpenApi.builder().group("actuator").pathsToMatch(actuatorPaths(env)).build();
+        }
+
+        private static String actuatorPaths(Environment env) {
+            return env.getProperty("management.endpoints.web.base-path", "/actuator") + "/**";
+        }
+    }
+
+    /**
+     * Replays rendered documents until the next context refresh (see {@link OpenApiDocumentCacheFilter}); off
+     * with {@code recipeforcode.openapi.cache-documents=false} and when the prebuilt document is served.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "jakarta.servlet.Filter")
+    @ConditionalOnProperty(prefix = "recipeforcode.openapi", name = "cache-documents", havingValue = "true", matchIfMissing = true)
+    @ConditionalOnProperty(prefix = "recipeforcode.openapi.prebuilt", name = "enabled", havingValue = "false", matchIfMissing = true)
+    static class DocumentCacheConfiguration {
+
+        private static final int MAX_DOCUMENTS = 64;
+
+        @Bean
+        OpenApiDocumentCacheFilter openApiDocumentCacheFilter() {
+            return new OpenApiDocumentCacheFilter(MAX_DOCUMENTS);
+        }
+
+        @Bean
+        FilterRegistrationBean<OpenApiDocumentCacheFilter> openApiDocumentCacheFilterRegistration(
+                OpenApiDocumentCacheFilter filter, Environment env) {
+            var path = env.getProperty("springdoc.api-docs.path", "/v3/api-docs");
+            var reg = new FilterRegistrationBean<>(filter);
+            reg.addUrlPatterns(path + "/*", path + ".yaml/*");
+            return reg;
+        }
+    }
+
+    /**
+     * Serves the build-time document at Springdoc's path when {@code recipeforcode.openapi.prebuilt.enabled=true}.
+     * The exact servlet mapping takes precedence over the {@code DispatcherServlet}, so Springdoc never builds the
+     * document; Swagger UI keeps working against the prebuilt one. A missing document fails startup.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "jakarta.servlet.http.HttpServlet")
+    @ConditionalOnProperty(prefix = "recipeforcode.openapi.prebuilt", name = "enabled", havingValue = "true")
+    static class PrebuiltConfiguration {
+
+        @Bean
+        ServletRegistrationBean<PrebuiltOpenApiServlet> prebuiltOpenApiServlet(OpenApiProps props, ResourceLoader loader) {
+            var p = props.prebuilt();
+            var json = loader.getResource(p.location());
+            if (!json.exists()) {
+                throw new IllegalStateException("No prebuilt OpenAPI document at " + p.location()
+                        + "; build with -Popenapi or set recipeforcode.openapi.prebuilt.enabled=false");
+            }
+            var documents = new LinkedHashMap<String, PrebuiltOpenApiServlet.Document>();
+            documents.put(p.path(), PrebuiltOpenApiServlet.Document.load(json, "application/json"));
+            var yaml = loader.getResource(p.yamlLocation());
+            if (yaml.exists()) {
+                documents.put(p.path() + ".yaml", PrebuiltOpenApiServlet.Document.load(yaml, "application/vnd.oai.openapi"));
+            }
+            var reg = new ServletRegistrationBean<>(new PrebuiltOpenApiServlet(documents), documents.keySet().toArray(String[]::new));
+            reg.setName("prebuiltOpenApiServlet");
+            reg.setLoadOnStartup(1);
+            return reg;
+        }
     }
-}
\ No newline at end of file
+}
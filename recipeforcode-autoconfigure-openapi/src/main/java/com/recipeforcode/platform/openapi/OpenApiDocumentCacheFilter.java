@@ -0,0 +1,113 @@
+package com.recipeforcode.platform.openapi;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caches the rendered OpenAPI documents (every group and format) until the next context refresh.
+ * <p>
+ * Springdoc builds a group's model once, but serializes the whole document again on every request, which for
+ * large services costs tens of milliseconds and megabytes per hit. Here the first successful response per group,
+ * format, base URL and language is kept as bytes and replayed. Groups render independently and concurrently;
+ * concurrent first requests for the same document wait for one render instead of each building it. At most
+ * {@code maxEntries} documents are kept, so arbitrary {@code Host} headers cannot grow the cache.
+ */
+public class OpenApiDocumentCacheFilter extends OncePerRequestFilter implements ApplicationListener<ContextRefreshedEvent> {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, CompletableFuture<Document>> documents = new ConcurrentHashMap<>();
+
+    public OpenApiDocumentCacheFilter(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+            throws ServletException, IOException {
+        var key = key(req);
+        var cached = documents.get(key);
+        if (cached == null) {
+            if (documents.size() >= maxEntries) {
+                chain.doFilter(req, resp);
+                return;
+            }
+            var render = new CompletableFuture<Document>();
+            cached = documents.putIfAbsent(key, render);
+            if (cached == null) {
+                render(req, resp, chain, key, render);
+                return;
+            }
+        }
+        var document = await(cached);
+        if (document == null) {
+            // the concurrent render did not succeed; render this request's own response
+            chain.doFilter(req, resp);
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(document.contentType());
+        resp.setContentLength(document.body().length);
+        resp.getOutputStream().write(document.body());
+    }
+
+    private void render(HttpServletRequest req, HttpServletResponse resp, FilterChain chain, String key,
+                        CompletableFuture<Document> render) throws ServletException, IOException {
+        var wrapper = new ContentCachingResponseWrapper(resp);
+        Document document = null;
+        try {
+            chain.doFilter(req, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null) {
+                document = new Document(wrapper.getContentType(), wrapper.getContentAsByteArray());
+            }
+        } finally {
+            if (document == null) documents.remove(key, render);
+            render.complete(document);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static String key(HttpServletRequest req) {
+        var query = req.getQueryString();
+        return req.getScheme() + "://" + req.getServerName() + ':' + req.getServerPort() + req.getRequestURI()
+                + (query == null ? "" : '?' + query) + '|' + req.getHeader("Accept-Language");
+    }
+
+    private static Document await(CompletableFuture<Document> render) throws IOException {
+        try {
+            return render.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a concurrent OpenAPI render", e);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        documents.clear();
+    }
+
+    /** Documents currently cached. */
+    public int size() {
+        return documents.size();
+    }
+
+    private record Document(String contentType, byte[] body) {}
+}
@@ -22,5 +22,17 @@ public record OpenApiProps(
         @DefaultValue("") List<String> packagesToScan,
         @DefaultValue("false") Boolean includeActuator,
         @DefaultValue("false") Boolean securityEnabled,
-        @DefaultValue("bearer-jwt") String securitySchemeName
-) {}
\ No newline at end of file
+        @DefaultValue("bearer-jwt") String securitySchemeName,
+        @DefaultValue("true") boolean cacheDocuments,
+        @DefaultValue Prebuilt prebuilt
+) {
+
+    /**
+     * Serves a document generated at build time (see the parent's {@code openapi} profile) instead of letting
+     * Springdoc scan controllers on the first request. {@code yamlLocation} is optional.
+     */
+    public record Prebuilt(@DefaultValue("false") boolean enabled,
+                           @DefaultValue("/v3/api-docs") String path,
+                           @DefaultValue("classpath:META-INF/openapi/openapi.json") String location,
+                           @DefaultValue("classpath:META-INF/openapi/openapi.yaml") String yamlLocation) {}
+}
\ No newline at end of file
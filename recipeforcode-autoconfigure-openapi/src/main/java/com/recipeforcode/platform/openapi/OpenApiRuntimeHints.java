@@ -0,0 +1,13 @@
+package com.recipeforcode.platform.openapi;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/** AOT hints for the build-time documents served by {@link PrebuiltOpenApiServlet}. */
+class OpenApiRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("META-INF/openapi/*");
+    }
+}
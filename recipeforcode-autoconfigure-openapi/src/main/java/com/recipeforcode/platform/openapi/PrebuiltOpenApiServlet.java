@@ -0,0 +1,146 @@
+package com.recipeforcode.platform.openapi;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves OpenAPI documents generated at build time.
+ * <p>
+ * Each document is read once at startup and kept as identity and gzip bytes with a content-hash ETag, so a request
+ * is a header check and a single write: no controller scanning, no serialization, no per-request allocation of the
+ * body. Clients that send a matching {@code If-None-Match} get {@code 304 Not Modified}.
+ */
+public class PrebuiltOpenApiServlet extends HttpServlet {
+
+    private final transient Map<String, Document> documents;
+
+    /** @param documents documents by servlet path, e.g. {@code /v3/api-docs} */
+    public PrebuiltOpenApiServlet(Map<String, Document> documents) {
+        this.documents = Map.copyOf(documents);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        var document = documents.get(req.getServletPath());
+        if (document == null) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        var gzip = acceptsGzip(req.getHeader("Accept-Encoding"));
+        resp.setHeader("Vary", "Accept-Encoding");
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.setHeader("ETag", gzip ? document.gzipEtag : document.etag);
+        if (document.matches(req.getHeader("If-None-Match"))) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] body = gzip ? document.gzip : document.identity;
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(document.contentType);
+        if (gzip) resp.setHeader("Content-Encoding", "gzip");
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+
+    /**
+     * Whether to answer in gzip, from {@code Accept-Encoding} as RFC 9110 reads it: codings not listed take the
+     * {@code *} quality, and gzip is chosen when acceptable and not less preferred than {@code identity}, which is
+     * acceptable unless excluded but only preferred when listed. Kept identical to the Prometheus scrape servlet.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        double gzip = -1, identity = -1, any = -1;
+        for (var part : acceptEncoding.split(",")) {
+            var coding = part.trim();
+            int semi = coding.indexOf(';');
+            var name = semi < 0 ? coding : coding.substring(0, semi).trim();
+            double q = semi < 0 ? 1 : quality(coding.substring(semi + 1));
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) gzip = q;
+            else if (name.equalsIgnoreCase("identity")) identity = q;
+            else if (name.equals("*")) any = q;
+        }
+        if (gzip < 0) gzip = Math.max(any, 0);
+        if (identity < 0) identity = Math.max(any, 0);
+        return gzip > 0 && gzip >= identity;
+    }
+
+    private static double quality(String params) {
+        for (var param : params.split(";")) {
+            var p = param.trim();
+            if (p.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Math.min(1, Math.max(0, Double.parseDouble(p.substring(2).trim())));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /** One pre-encoded document. */
+    public static final class Document {
+        final String contentType;
+        final byte[] identity;
+        final byte[] gzip;
+        final String etag;
+        final String gzipEtag;
+
+        Document(String contentType, byte[] identity) {
+            this.contentType = contentType;
+            this.identity = identity;
+            this.gzip = gzip(identity);
+            var hash = HexFormat.of().formatHex(sha256(identity), 0, 16);
+            this.etag = '"' + hash + '"';
+            this.gzipEtag = "\"" + hash + "-gzip\"";
+        }
+
+        public static Document load(Resource resource, String contentType) {
+            try (var in = resource.getInputStream()) {
+                return new Document(contentType, in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read OpenAPI document " + resource, e);
+            }
+        }
+
+        /** Both encodings carry the same content, so either tag revalidates. */
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) return false;
+            for (var tag : ifNoneMatch.split(",")) {
+                var t = tag.trim();
+                if (t.startsWith("W/")) t = t.substring(2);
+                if (t.equals("*") || t.equals(etag) || t.equals(gzipEtag)) return true;
+            }
+            return false;
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            var out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (var zipped = new GZIPOutputStream(out)) {
+                zipped.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        private static byte[] sha256(byte[] bytes) {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(bytes);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.recipeforcode.platform.openapi;
 
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.servers.Server;
+import org.springdoc.core.models.GroupedOpenApi;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.FilteredClassLoader;
 import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -60,4 +63,71 @@ class OpenApiAutoConfigurationTest {
             assertThat(info.getLicense().getUrl()).isEqualTo("https://www.apache.org/licenses/LICENSE-2.0");
         });
     }
+
+    @Test
+    void shouldRegisterPrebuiltDocumentServletOnlyWhenEnabled() {
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean("prebuiltOpenApiServlet"));
+        runner.withPropertyValues("recipeforcode.openapi.prebuilt.enabled=true")
+                .run(ctx -> {
+                    assertThat(ctx.getBean("prebuiltOpenApiServlet", ServletRegistrationBean.class).getUrlMappings())
+                            .containsExactly("/v3/api-docs");
+                    // no group paths for Swagger UI to load from Springdoc
+                    assertThat(ctx).doesNotHaveBean(GroupedOpenApi.class);
+                });
+    }
+
+    @Test
+    void shouldFailStartupWhenPrebuiltDocumentIsMissing() {
+        runner.withPropertyValues("recipeforcode.openapi.prebuilt.enabled=true",
+                        "recipeforcode.openapi.prebuilt.location=classpath:missing.json")
+                .run(ctx -> assertThat(ctx).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("classpath:missing.json"));
+    }
+
+    @Test
+    void shouldApplyServersAndBearerSecurity() {
+        runner.withPropertyValues(
+                "recipeforcode.openapi.server-urls=https://api.example.com,https://api.example.org",
+                "recipeforcode.openapi.security-enabled=true",
+                "recipeforcode.openapi.terms-of-service=https://example.com/terms"
+        ).run(ctx -> {
+            var oas = ctx.getBean(OpenAPI.class);
+            assertThat(oas.getServers()).extracting(Server::getUrl).containsExactly("https://api.example.com", "https://api.example.org");
+            assertThat(oas.getInfo().getTermsOfService()).isEqualTo("https://example.com/terms");
+            assertThat(oas.getComponents().getSecuritySchemes().get("bearer-jwt").getBearerFormat()).isEqualTo("JWT");
+            assertThat(oas.getSecurity()).singleElement().satisfies(req -> assertThat(req).containsKey("bearer-jwt"));
+        });
+    }
+
+    @Test
+    void shouldPartitionGroupsFromProperties() {
+        runner.withPropertyValues(
+                "recipeforcode.openapi.group-name=orders",
+                "recipeforcode.openapi.packages-to-scan=com.example.orders",
+                "recipeforcode.openapi.include-actuator=true"
+        ).run(ctx -> {
+            var groups = ctx.getBeansOfType(GroupedOpenApi.class).values();
+            assertThat(groups).extracting(GroupedOpenApi::getGroup).containsExactlyInAnyOrder("orders", "actuator");
+            var orders = ctx.getBean("platformGroupedOpenApi", GroupedOpenApi.class);
+            assertThat(orders.getPackagesToScan()).containsExactly("com.example.orders");
+            assertThat(orders.getPathsToExclude()).containsExactly("/actuator/**");
+            assertThat(ctx.getBean("actuatorGroupedOpenApi", GroupedOpenApi.class).getPathsToMatch()).containsExactly("/actuator/**");
+        });
+    }
+
+    @Test
+    void shouldMatchAllPathsWithoutPackagesAndBackOffForUserGroups() {
+        runner.run(ctx -> assertThat(ctx.getBean(GroupedOpenApi.class).getPathsToMatch()).containsExactly("/**"));
+        runner.withBean("mine", GroupedOpenApi.class, () -> GroupedOpenApi.builder().group("mine").pathsToMatch("/mine/**").build())
+                .run(ctx -> assertThat(ctx.getBeansOfType(GroupedOpenApi.class)).containsOnlyKeys("mine"));
+    }
+
+    @Test
+    void shouldCacheDocumentsUnlessDisabledOrPrebuilt() {
+        runner.run(ctx -> assertThat(ctx).hasSingleBean(OpenApiDocumentCacheFilter.class));
+        runner.withPropertyValues("recipeforcode.openapi.cache-documents=false")
+                .run(ctx -> assertThat(ctx).doesNotHaveBean(OpenApiDocumentCacheFilter.class));
+        runner.withPropertyValues("recipeforcode.openapi.prebuilt.enabled=true")
+                .run(ctx -> assertThat(ctx).doesNotHaveBean(OpenApiDocumentCacheFilter.class));
+    }
 }
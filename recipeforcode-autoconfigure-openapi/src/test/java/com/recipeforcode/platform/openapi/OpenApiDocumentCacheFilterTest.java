@@ -0,0 +1,92 @@
+package com.recipeforcode.platform.openapi;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenApiDocumentCacheFilterTest {
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile CountDownLatch slow = new CountDownLatch(0);
+
+    private final HttpServlet springdoc = new HttpServlet() {
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            try {
+                slow.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            resp.setStatus(status);
+            resp.setContentType("application/json");
+            resp.getWriter().write("{\"render\":" + renders.incrementAndGet() + ",\"path\":\"" + req.getRequestURI() + "\"}");
+        }
+    };
+
+    private final OpenApiDocumentCacheFilter filter = new OpenApiDocumentCacheFilter(2);
+
+    @Test
+    void shouldReplayEachDocumentUntilContextRefresh() throws Exception {
+        assertThat(get("/v3/api-docs/orders").getContentAsString()).isEqualTo("{\"render\":1,\"path\":\"/v3/api-docs/orders\"}");
+        assertThat(get("/v3/api-docs/orders").getContentAsString()).contains("\"render\":1");
+        assertThat(get("/v3/api-docs/payments").getContentAsString()).contains("\"render\":2");
+
+        filter.onApplicationEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+
+        var res = get("/v3/api-docs/orders");
+        assertThat(res.getContentType()).isEqualTo("application/json");
+        assertThat(res.getContentAsString()).contains("\"render\":3");
+    }
+
+    @Test
+    void shouldNotCacheFailuresOrGrowPastMaxEntries() throws Exception {
+        status = 500;
+        get("/v3/api-docs/orders");
+        status = 200;
+        assertThat(get("/v3/api-docs/orders").getContentAsString()).contains("\"render\":2");
+        assertThat(filter.size()).isEqualTo(1);
+
+        get("/v3/api-docs/payments");
+        get("/v3/api-docs/shipping");
+        get("/v3/api-docs/shipping");
+        assertThat(filter.size()).isEqualTo(2);
+        assertThat(renders).hasValue(5);
+    }
+
+    @Test
+    void shouldRenderOnceForConcurrentFirstRequests() throws Exception {
+        slow = new CountDownLatch(1);
+        try (var pool = Executors.newFixedThreadPool(8)) {
+            var bodies = new ArrayList<Future<String>>();
+            for (int i = 0; i < 8; i++) bodies.add(pool.submit(() -> get("/v3/api-docs/orders").getContentAsString()));
+            Thread.sleep(100);
+            slow.countDown();
+            for (var body : bodies) assertThat(body.get()).contains("\"render\":1");
+        }
+        assertThat(renders).hasValue(1);
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        var req = new MockHttpServletRequest("GET", path);
+        var res = new MockHttpServletResponse();
+        filter.doFilter(req, res, new MockFilterChain(springdoc));
+        return res;
+    }
+}
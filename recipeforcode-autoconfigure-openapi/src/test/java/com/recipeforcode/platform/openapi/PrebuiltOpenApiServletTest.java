@@ -0,0 +1,72 @@
+package com.recipeforcode.platform.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrebuiltOpenApiServletTest {
+
+    private final PrebuiltOpenApiServlet servlet = new PrebuiltOpenApiServlet(Map.of("/v3/api-docs",
+            PrebuiltOpenApiServlet.Document.load(new ClassPathResource("META-INF/openapi/openapi.json"), "application/json")));
+
+    @Test
+    void shouldServeDocumentWithStrongEtag() throws Exception {
+        var res = get("/v3/api-docs", null, null);
+
+        assertThat(res.getStatus()).isEqualTo(200);
+        assertThat(res.getContentType()).startsWith("application/json");
+        assertThat(res.getHeader("ETag")).matches("\"[0-9a-f]{32}\"");
+        assertThat(res.getContentAsString()).contains("\"title\":\"Orders API\"");
+    }
+
+    @Test
+    void shouldServeGzipAndRevalidateEitherEncoding() throws Exception {
+        var zipped = get("/v3/api-docs", "gzip", null);
+        var plain = get("/v3/api-docs", null, null);
+
+        assertThat(zipped.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(zipped.getHeader("ETag")).isNotEqualTo(plain.getHeader("ETag"));
+        var body = new GZIPInputStream(new ByteArrayInputStream(zipped.getContentAsByteArray())).readAllBytes();
+        assertThat(new String(body, StandardCharsets.UTF_8)).isEqualTo(plain.getContentAsString());
+
+        var notModified = get("/v3/api-docs", null, "\"other\", W/" + zipped.getHeader("ETag"));
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void shouldHonourZeroQualityForGzip() {
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("gzip;q=0, identity")).isFalse();
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("br, GZIP;q=0.5")).isTrue();
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void shouldReadWildcardAndIdentityQualities() {
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("*")).isTrue();
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("br, *;q=0")).isFalse();
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("gzip;q=0.5, identity")).isFalse();
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("gzip;q=0.5, identity;q=0")).isTrue();
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("identity;q=0, *")).isTrue();
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("gzip; Q=0.0")).isFalse();
+        assertThat(PrebuiltOpenApiServlet.acceptsGzip("x-gzip")).isTrue();
+    }
+
+    private MockHttpServletResponse get(String path, String encoding, String ifNoneMatch) throws Exception {
+        var req = new MockHttpServletRequest("GET", path);
+        req.setServletPath(path);
+        if (encoding != null) req.addHeader("Accept-Encoding", encoding);
+        if (ifNoneMatch != null) req.addHeader("If-None-Match", ifNoneMatch);
+        var res = new MockHttpServletResponse();
+        servlet.service(req, res);
+        return res;
+    }
+}
@@ -0,0 +1,82 @@
+package com.recipeforcode.platform.resilience;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Sheds requests with {@code 503} and {@code Retry-After} once in-flight requests reach the
+ * {@link AdaptiveConcurrencyLimiter}'s limit, before any application code runs; a shed request gets a status line
+ * only, with no error page dispatch. Admitted requests feed their latency back into the limit; async requests hold
+ * their slot until the async cycle completes.
+ * <p>
+ * Requests for one of {@code criticalPaths} (health checks) or a path below one, compared within the application
+ * and normalized, bypass the limit, so probes keep answering while the service is saturated.
+ */
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String[] criticalPaths;
+
+    public AdaptiveConcurrencyFilter(AdaptiveConcurrencyLimiter limiter, List<String> criticalPaths) {
+        this.limiter = limiter;
+        this.criticalPaths = criticalPaths.toArray(String[]::new);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        if (criticalPaths.length > 0 && RequestPaths.isUnder(RequestPaths.pathWithinApplication(req), criticalPaths)) {
+            chain.doFilter(req, res);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            res.setHeader("Retry-After", "1");
+            res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(req, res);
+            if (req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new Release(start));
+                async = true;
+            }
+        } finally {
+            if (!async) limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private final class Release implements AsyncListener {
+        private final long start;
+
+        Release(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {}
+
+        @Override
+        public void onError(AsyncEvent event) {}
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // re-dispatched async cycles keep the same slot
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.event.BulkheadEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.github.resilience4j.core.EventConsumer;
+import io.github.resilience4j.core.EventProcessor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows observed latency, after the Gradient2 algorithm from Netflix concurrency-limits.
+ * <p>
+ * Round-trip times are averaged over windows of about one limit's worth of completions and compared with a
+ * baseline: the lowest window average since the baseline was last re-measured. While latency stays within
+ * {@code rttTolerance} of the baseline the limit grows by a queue allowance of {@code sqrt(limit)}; once queueing
+ * pushes it further the gradient {@code tolerance * baseline / shortRtt} drops below one and the limit shrinks
+ * proportionally. Gradient2 proper uses a long exponential average as the baseline, which drifts upwards with
+ * sustained queueing until the limit reaches its maximum. Here, every {@code baselineWindow} completions the limit
+ * is halved for a moment (a probe, as in Vegas) so the baseline is re-measured without a queue in front of the
+ * downstream, and in-flight work settles just above what the downstream serves without queueing.
+ * <p>
+ * Admission is a CAS on the in-flight count; completions add to lock-free window accumulators and the thread that
+ * closes a window is the only writer of the limit, so no locks are taken on the request path. Rejections never wait: the caller is expected to shed the request.
+ * <p>
+ * Implements Resilience4j's {@link Bulkhead}, so it composes with {@code Decorators.withBulkhead(..)} and rejects
+ * with {@link BulkheadFullException}. The Bulkhead contract hands out no permit to carry a start time, and
+ * {@code decorateCompletionStage} completes on another thread, so calls through it share the limit but release
+ * without a latency sample. Code that owns the timing, like {@link AdaptiveConcurrencyFilter}, feeds the limit
+ * through {@link #tryAcquire()} and {@link #release(long)}. {@link #changeConfig} moves the limit's ceiling to
+ * {@code maxConcurrentCalls}.
+ */
+public class AdaptiveConcurrencyLimiter implements Bulkhead {
+
+    private final String name;
+    private volatile Config config;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final LongAdder windowSum = new LongAdder();
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong samplesSinceProbe = new AtomicLong();
+    // written only by the thread closing a window; closers overlapping is rare and costs at most one stale update
+    private volatile double baseline = Double.MAX_VALUE;
+    private volatile int probeWindows;
+    private final LongAdder rejected = new LongAdder();
+    private volatile BulkheadConfig bulkheadConfig;
+    private final LimiterEventProcessor events = new LimiterEventProcessor();
+
+    /**
+     * @param initialLimit starting limit before any samples arrive
+     * @param minLimit     floor the limit never drops below
+     * @param maxLimit     ceiling the limit never grows past
+     * @param smoothing    weight of each new limit estimate, {@code (0, 1]}
+     * @param sampleWindow   minimum completions averaged per limit update
+     * @param baselineWindow completions after which the baseline RTT is re-measured
+     * @param rttTolerance   how far the windowed RTT may exceed the baseline before the limit shrinks, {@code >= 1}
+     */
+    public record Config(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                         int sampleWindow, int baselineWindow, double rttTolerance) {
+        public Config {
+            if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("limits must satisfy 1 <= min <= initial <= max");
+            }
+            if (!(smoothing > 0 && smoothing <= 1)) throw new IllegalArgumentException("smoothing must be in (0, 1]");
+            if (sampleWindow < 1 || baselineWindow < sampleWindow) {
+                throw new IllegalArgumentException("windows must satisfy 1 <= sampleWindow <= baselineWindow");
+            }
+            if (rttTolerance < 1) throw new IllegalArgumentException("rttTolerance must be >= 1");
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter(String name, Config config) {
+        this.name = name;
+        this.config = config;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(config.initialLimit()));
+        this.bulkheadConfig = bulkheadConfig(BulkheadConfig.custom().writableStackTraceEnabled(false), config);
+    }
+
+    private static BulkheadConfig bulkheadConfig(BulkheadConfig.Builder builder, Config config) {
+        return builder.maxConcurrentCalls(config.maxLimit()).maxWaitDuration(Duration.ZERO).build();
+    }
+
+    /** Takes a slot if in-flight work is below the current limit. Pair with {@link #release(long)}. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /**
+     * Frees a slot taken by {@link #tryAcquire()} and feeds the call's round-trip time into the limit.
+     * A negative {@code rttNanos} releases without a sample (e.g. the call never ran).
+     */
+    public void release(long rttNanos) {
+        int inflightAtCompletion = inFlight.getAndDecrement();
+        if (rttNanos >= 0) sample(rttNanos, inflightAtCompletion);
+    }
+
+    private void sample(long rttNanos, int inflightAtCompletion) {
+        windowSum.add(rttNanos);
+        windowMaxInFlight.accumulateAndGet(inflightAtCompletion, Math::max);
+        int n = windowCount.incrementAndGet();
+        // one update per window of about one limit's worth of completions, i.e. roughly once per round trip;
+        // exactly one thread closes the window, the others only record
+        if (n < Math.max(config.sampleWindow(), getLimit()) || !windowCount.compareAndSet(n, 0)) return;
+        double shortRtt = Math.max(1.0, (double) windowSum.sumThenReset() / n);
+        int maxInFlight = windowMaxInFlight.getAndSet(0);
+        double limit = Double.longBitsToDouble(limitBits.get());
+
+        boolean saturated = maxInFlight >= limit / 2;
+        if (samplesSinceProbe.addAndGet(n) >= config.baselineWindow() && saturated) {
+            // probe: drain the queue so the next windows measure the downstream's unqueued latency again
+            samplesSinceProbe.set(0);
+            probeWindows = 2;
+            setLimit(limit / 2);
+            return;
+        }
+        if (probeWindows > 0) {
+            // the first window after a probe still carries calls admitted into the old queue
+            if (--probeWindows == 0) baseline = shortRtt;
+            return;
+        }
+        baseline = Math.min(baseline, shortRtt);
+
+        double gradient = Math.max(0.5, Math.min(1.0, config.rttTolerance() * baseline / shortRtt));
+        // an underused limit says nothing about capacity; don't let it grow on light traffic
+        double queue = saturated ? Math.sqrt(limit) : 0;
+        double estimate = limit * gradient + queue;
+        setLimit(limit * (1 - config.smoothing()) + estimate * config.smoothing());
+    }
+
+    private void setLimit(double next) {
+        var c = config;
+        limitBits.set(Double.doubleToRawLongBits(Math.max(c.minLimit(), Math.min(c.maxLimit(), next))));
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    // --- Resilience4j Bulkhead ---
+
+    @Override
+    public boolean tryAcquirePermission() {
+        if (!tryAcquire()) {
+            if (events.hasConsumers()) events.consumeEvent(new BulkheadOnCallRejectedEvent(name));
+            return false;
+        }
+        if (events.hasConsumers()) events.consumeEvent(new BulkheadOnCallPermittedEvent(name));
+        return true;
+    }
+
+    @Override
+    public void acquirePermission() {
+        if (!tryAcquirePermission()) throw BulkheadFullException.createBulkheadFullException(this);
+    }
+
+    @Override
+    public void releasePermission() {
+        release(-1);
+    }
+
+    @Override
+    public void onComplete() {
+        release(-1);
+        if (events.hasConsumers()) events.consumeEvent(new BulkheadOnCallFinishedEvent(name));
+    }
+
+    /**
+     * Moves the limit's ceiling to {@code maxConcurrentCalls}, lowering the floor and the current limit with it
+     * when they are above. The limiter never queues, so {@code maxWaitDuration} is always zero.
+     */
+    @Override
+    public synchronized void changeConfig(BulkheadConfig newConfig) {
+        var c = config;
+        int max = newConfig.getMaxConcurrentCalls();
+        if (max < 1) throw new IllegalArgumentException("maxConcurrentCalls must be >= 1");
+        int min = Math.min(c.minLimit(), max);
+        config = new Config(Math.max(min, Math.min(c.initialLimit(), max)), min, max, c.smoothing(),
+                c.sampleWindow(), c.baselineWindow(), c.rttTolerance());
+        bulkheadConfig = bulkheadConfig(BulkheadConfig.from(newConfig), config);
+        setLimit(Double.longBitsToDouble(limitBits.get()));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BulkheadConfig getBulkheadConfig() {
+        return bulkheadConfig;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return new Metrics() {
+            @Override
+            public int getAvailableConcurrentCalls() {
+                return Math.max(0, getLimit() - getInFlight());
+            }
+
+            @Override
+            public int getMaxAllowedConcurrentCalls() {
+                return getLimit();
+            }
+        };
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return Map.of();
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return events;
+    }
+
+    private static final class LimiterEventProcessor extends EventProcessor<BulkheadEvent>
+            implements EventConsumer<BulkheadEvent>, EventPublisher {
+
+        @Override
+        public EventPublisher onCallRejected(EventConsumer<BulkheadOnCallRejectedEvent> consumer) {
+            registerConsumer(BulkheadOnCallRejectedEvent.class.getName(), consumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onCallPermitted(EventConsumer<BulkheadOnCallPermittedEvent> consumer) {
+            registerConsumer(BulkheadOnCallPermittedEvent.class.getName(), consumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onCallFinished(EventConsumer<BulkheadOnCallFinishedEvent> consumer) {
+            registerConsumer(BulkheadOnCallFinishedEvent.class.getName(), consumer);
+            return this;
+        }
+
+        @Override
+        public void consumeEvent(BulkheadEvent event) {
+            super.processEvent(event);
+        }
+    }
+}
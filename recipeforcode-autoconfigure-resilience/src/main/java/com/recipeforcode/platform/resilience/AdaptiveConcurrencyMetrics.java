@@ -0,0 +1,33 @@
+package com.recipeforcode.platform.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes an {@link AdaptiveConcurrencyLimiter}'s limit, in-flight count and rejections, tagged with its name.
+ */
+public class AdaptiveConcurrencyMetrics implements MeterBinder {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public AdaptiveConcurrencyMetrics(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("recipeforcode.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", limiter.getName())
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("recipeforcode.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("name", limiter.getName())
+                .register(registry);
+        FunctionCounter.builder("recipeforcode.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .tag("name", limiter.getName())
+                .description("Calls rejected because the limit was reached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.core.IntervalFunction;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with decorrelated jitter: each wait is drawn uniformly from {@code [initial, upper]}, where
+ * the upper bound triples with every attempt up to {@code max}.
+ * <p>
+ * The classic formulation draws from {@code [initial, 3 * previousWait]}; Resilience4j hands interval functions
+ * only the attempt number, so the previous wait is replaced by its own upper bound. Clients that failed together
+ * spread their retries over the whole range instead of arriving again in lockstep, as they would with a fixed
+ * wait.
+ */
+public class DecorrelatedJitterBackoff implements IntervalFunction {
+
+    private final long initialMillis;
+    private final long maxMillis;
+
+    public DecorrelatedJitterBackoff(Duration initial, Duration max) {
+        if (initial.toMillis() < 1) throw new IllegalArgumentException("initial interval must be at least 1ms");
+        if (max.compareTo(initial) < 0) throw new IllegalArgumentException("max interval must be >= initial interval");
+        this.initialMillis = initial.toMillis();
+        this.maxMillis = max.toMillis();
+    }
+
+    @Override
+    public Long apply(Integer attempt) {
+        long upper = initialMillis;
+        for (int i = 0; i < attempt && upper < maxMillis; i++) upper *= 3;
+        upper = Math.min(upper, maxMillis);
+        return upper == initialMillis ? initialMillis : ThreadLocalRandom.current().nextLong(initialMillis, upper + 1);
+    }
+}
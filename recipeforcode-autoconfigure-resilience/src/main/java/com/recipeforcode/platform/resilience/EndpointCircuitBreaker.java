@@ -0,0 +1,264 @@
+package com.recipeforcode.platform.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lightweight circuit breaker for one downstream endpoint, with a time-based failure rate.
+ * <p>
+ * Outcomes are counted in a ring of one-second buckets, each a single {@code long} packing the bucket's second
+ * (24 bits), calls and failures (20 bits each) that is updated by CAS. The ring is striped by thread, each stripe
+ * on its own cache lines, so concurrent callers rarely retry a CAS and never share a lock. Permission checks in the
+ * closed state are one volatile read; neither checks nor outcomes allocate. The failure rate is evaluated on
+ * failures only, since a success cannot open the breaker.
+ * <p>
+ * States follow Resilience4j: {@code CLOSED} until at least {@code minimumCalls} calls in the window fail at
+ * {@code failureRateThreshold} percent or more, then {@code OPEN} for {@code waitInOpen}, then {@code HALF_OPEN}
+ * for {@code permittedInHalfOpen} trial calls that decide between the two. Trials that have not all reported
+ * within {@code maxWaitInHalfOpen} open the breaker again, so a permit whose outcome is never recorded cannot
+ * leave it half-open for good.
+ */
+public class EndpointCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MAX = (1L << COUNT_BITS) - 1;
+    private static final int SECOND_SHIFT = 2 * COUNT_BITS;
+    private static final long SECOND_MASK = (1L << (64 - SECOND_SHIFT)) - 1;
+    private static final int LONGS_PER_LINE = 8;
+    private static final int STRIPES = stripes();
+
+    private final String name;
+    private final String profile;
+    private final Config config;
+    private final Counters counters;
+    private final LongSupplier nanoClock;
+    private final int slots;
+    private final int stride;
+    private final AtomicLongArray buckets;
+    private final AtomicReference<Phase> phase;
+    private final Phase closed;
+    private volatile long lastUsedSecond;
+
+    /**
+     * @param failureRateThreshold failure percentage that opens the breaker, {@code (0, 100]}
+     * @param minimumCalls         calls in the window before the failure rate counts
+     * @param window               sliding window, whole seconds
+     * @param waitInOpen           how long the breaker stays open before trial calls
+     * @param permittedInHalfOpen  trial calls in the half-open state
+     * @param maxWaitInHalfOpen    how long trial outcomes are awaited before the breaker opens again; zero waits
+     *                             for all of them
+     * @param idleTimeout          how long an unused closed breaker is kept by {@link EndpointCircuitBreakers}
+     */
+    public record Config(float failureRateThreshold, int minimumCalls, Duration window, Duration waitInOpen,
+                         int permittedInHalfOpen, Duration maxWaitInHalfOpen, Duration idleTimeout) {
+        public Config {
+            if (!(failureRateThreshold > 0 && failureRateThreshold <= 100)) {
+                throw new IllegalArgumentException("failureRateThreshold must be in (0, 100]");
+            }
+            if (minimumCalls < 1 || permittedInHalfOpen < 1) {
+                throw new IllegalArgumentException("minimumCalls and permittedInHalfOpen must be >= 1");
+            }
+            if (window.toSeconds() < 1) throw new IllegalArgumentException("window must be at least one second");
+            if (maxWaitInHalfOpen.isNegative()) throw new IllegalArgumentException("maxWaitInHalfOpen must be >= 0");
+        }
+    }
+
+    /** Transition and rejection counts, shared by the breakers of one profile so they outlive eviction. */
+    public static final class Counters {
+        final LongAdder opened = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+
+        public long getOpenedCount() {
+            return opened.sum();
+        }
+
+        public long getRejectedCount() {
+            return rejected.sum();
+        }
+    }
+
+    public EndpointCircuitBreaker(String name, String profile, Config config, Counters counters) {
+        this(name, profile, config, counters, System::nanoTime);
+    }
+
+    EndpointCircuitBreaker(String name, String profile, Config config, Counters counters, LongSupplier nanoClock) {
+        this.name = name;
+        this.profile = profile;
+        this.config = config;
+        this.counters = counters;
+        this.nanoClock = nanoClock;
+        this.slots = (int) config.window().toSeconds();
+        this.stride = (slots + LONGS_PER_LINE - 1) / LONGS_PER_LINE * LONGS_PER_LINE;
+        // one spare line in front keeps the first stripe off the array header's line
+        this.buckets = new AtomicLongArray(LONGS_PER_LINE + STRIPES * stride);
+        this.closed = new Phase(State.CLOSED, 0, 0);
+        this.phase = new AtomicReference<>(closed);
+        this.lastUsedSecond = second();
+    }
+
+    /** Whether a call may proceed; pair with {@link #onSuccess()} or {@link #onError()} if it does. */
+    public boolean tryAcquirePermission() {
+        var p = phase.get();
+        if (p == closed) return true;
+        if (p.state == State.OPEN) {
+            if (nanoClock.getAsLong() - p.until < 0) {
+                counters.rejected.increment();
+                return false;
+            }
+            var halfOpen = new Phase(State.HALF_OPEN,
+                    nanoClock.getAsLong() + config.maxWaitInHalfOpen().toNanos(), config.permittedInHalfOpen());
+            phase.compareAndSet(p, halfOpen);
+            p = phase.get();
+            if (p.state != State.HALF_OPEN) return p == closed;
+        } else if (!config.maxWaitInHalfOpen().isZero() && nanoClock.getAsLong() - p.until >= 0) {
+            open(p);
+            counters.rejected.increment();
+            return false;
+        }
+        while (true) {
+            int left = p.permits.get();
+            if (left <= 0) {
+                counters.rejected.increment();
+                return false;
+            }
+            if (p.permits.compareAndSet(left, left - 1)) return true;
+        }
+    }
+
+    public void onSuccess() {
+        record(false);
+    }
+
+    public void onError() {
+        record(true);
+    }
+
+    /** Runs {@code call} if permitted, recording anything it throws, errors included, as a failure. */
+    public <T> T execute(Callable<T> call) throws Exception {
+        if (!tryAcquirePermission()) throw new EndpointCircuitOpenException(name);
+        boolean succeeded = false;
+        try {
+            T value = call.call();
+            succeeded = true;
+            return value;
+        } finally {
+            record(!succeeded);
+        }
+    }
+
+    private void record(boolean failure) {
+        var p = phase.get();
+        if (p.state == State.HALF_OPEN) {
+            recordTrial(p, failure);
+            return;
+        }
+        if (p.state == State.OPEN) return;
+        long second = second();
+        if (lastUsedSecond != second) lastUsedSecond = second;
+        int index = LONGS_PER_LINE + stripe() * stride + (int) Math.floorMod(second, (long) slots);
+        long stamp = second & SECOND_MASK;
+        while (true) {
+            long word = buckets.get(index);
+            long next;
+            if (word >>> SECOND_SHIFT == stamp) {
+                long calls = Math.min(COUNT_MAX, (word >>> COUNT_BITS & COUNT_MAX) + 1);
+                long failures = Math.min(calls, (word & COUNT_MAX) + (failure ? 1 : 0));
+                next = stamp << SECOND_SHIFT | calls << COUNT_BITS | failures;
+            } else {
+                next = stamp << SECOND_SHIFT | 1L << COUNT_BITS | (failure ? 1 : 0);
+            }
+            if (buckets.compareAndSet(index, word, next)) break;
+        }
+        if (failure) evaluate(p, second);
+    }
+
+    private void evaluate(Phase p, long second) {
+        long calls = 0, failures = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int base = LONGS_PER_LINE + stripe * stride;
+            for (int slot = 0; slot < slots; slot++) {
+                long word = buckets.get(base + slot);
+                if (((second - (word >>> SECOND_SHIFT)) & SECOND_MASK) < slots && word != 0) {
+                    calls += word >>> COUNT_BITS & COUNT_MAX;
+                    failures += word & COUNT_MAX;
+                }
+            }
+        }
+        if (calls >= config.minimumCalls() && failures * 100 >= config.failureRateThreshold() * calls) {
+            open(p);
+        }
+    }
+
+    private void recordTrial(Phase p, boolean failure) {
+        if (failure) p.failures.incrementAndGet();
+        int done = p.calls.incrementAndGet();
+        if (done != config.permittedInHalfOpen()) return;
+        if (p.failures.get() * 100 >= config.failureRateThreshold() * done) {
+            open(p);
+        } else if (phase.compareAndSet(p, closed)) {
+            for (int i = 0; i < buckets.length(); i++) buckets.set(i, 0);
+        }
+    }
+
+    private void open(Phase from) {
+        if (phase.compareAndSet(from, new Phase(State.OPEN, nanoClock.getAsLong() + config.waitInOpen().toNanos(), 0))) {
+            counters.opened.increment();
+        }
+    }
+
+    public State getState() {
+        return phase.get().state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Name of the profile that configured this breaker. */
+    public String getProfile() {
+        return profile;
+    }
+
+    /** Whether this breaker is closed and has recorded no outcome for its idle timeout. */
+    boolean isIdle() {
+        return phase.get() == closed && second() - lastUsedSecond >= config.idleTimeout().toSeconds();
+    }
+
+    private long second() {
+        return TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong());
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+    }
+
+    private static int stripes() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Math.min(16, Integer.highestOneBit(Math.max(1, cpus - 1)) << 1);
+    }
+
+    /** Current state; the trial counters are only used while half-open. */
+    private static final class Phase {
+        final State state;
+        // end of the open wait, or of the half-open wait for trial outcomes
+        final long until;
+        final AtomicInteger permits;
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+
+        Phase(State state, long until, int permits) {
+            this.state = state;
+            this.until = until;
+            this.permits = new AtomicInteger(permits);
+        }
+    }
+}
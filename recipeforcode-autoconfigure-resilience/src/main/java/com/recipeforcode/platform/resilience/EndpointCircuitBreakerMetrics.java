@@ -0,0 +1,47 @@
+package com.recipeforcode.platform.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes endpoint breakers by state, and openings and rejected calls per profile. Tagged by profile rather
+ * than endpoint so hundreds of endpoints don't become hundreds of series.
+ */
+public class EndpointCircuitBreakerMetrics implements MeterBinder {
+
+    private final EndpointCircuitBreakers breakers;
+
+    public EndpointCircuitBreakerMetrics(EndpointCircuitBreakers breakers) {
+        this.breakers = breakers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (var state : EndpointCircuitBreaker.State.values()) {
+            Gauge.builder("recipeforcode.circuit.endpoints", breakers, b -> count(b, state))
+                    .tag("state", state.name().toLowerCase())
+                    .description("Endpoint circuit breakers currently held, by state")
+                    .register(registry);
+        }
+        for (var profile : breakers.getProfiles()) {
+            FunctionCounter.builder("recipeforcode.circuit.opened", profile.counters(), EndpointCircuitBreaker.Counters::getOpenedCount)
+                    .tag("profile", profile.name())
+                    .description("Transitions of endpoint breakers to open")
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.circuit.rejected", profile.counters(), EndpointCircuitBreaker.Counters::getRejectedCount)
+                    .tag("profile", profile.name())
+                    .description("Calls rejected by open or half-open endpoint breakers")
+                    .register(registry);
+        }
+    }
+
+    private static long count(EndpointCircuitBreakers breakers, EndpointCircuitBreaker.State state) {
+        long n = 0;
+        for (var breaker : breakers.getBreakers()) {
+            if (breaker.getState() == state) n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,100 @@
+package com.recipeforcode.platform.resilience;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * {@link EndpointCircuitBreaker}s by endpoint name (e.g. {@code host} or {@code host/route}), created on first use
+ * and dropped once closed and idle for their profile's idle timeout.
+ * <p>
+ * An endpoint takes the first profile, in declaration order, with a glob pattern ({@code *} matches any run of
+ * characters) matching its name; endpoints matching none use the fallback profile. Idle breakers are swept while
+ * breakers are looked up, at most once per second.
+ */
+public class EndpointCircuitBreakers {
+
+    public static final String FALLBACK = "default";
+
+    private final List<Profile> profiles;
+    private final Profile fallback;
+    private final LongSupplier nanoClock;
+    private final Map<String, EndpointCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepSecond = new AtomicLong();
+
+    /** A named configuration and the endpoint-name globs it applies to. */
+    public record Profile(String name, List<String> match, EndpointCircuitBreaker.Config config,
+                          EndpointCircuitBreaker.Counters counters, List<Pattern> patterns) {
+
+        public Profile(String name, List<String> match, EndpointCircuitBreaker.Config config) {
+            this(name, List.copyOf(match), config, new EndpointCircuitBreaker.Counters(),
+                    match.stream().map(EndpointCircuitBreakers::glob).toList());
+        }
+
+        boolean matches(String endpoint) {
+            for (var pattern : patterns) {
+                if (pattern.matcher(endpoint).matches()) return true;
+            }
+            return false;
+        }
+    }
+
+    public EndpointCircuitBreakers(List<Profile> profiles, EndpointCircuitBreaker.Config fallback) {
+        this(profiles, fallback, System::nanoTime);
+    }
+
+    EndpointCircuitBreakers(List<Profile> profiles, EndpointCircuitBreaker.Config fallback, LongSupplier nanoClock) {
+        this.profiles = List.copyOf(profiles);
+        this.fallback = new Profile(FALLBACK, List.of(), fallback);
+        this.nanoClock = nanoClock;
+    }
+
+    public EndpointCircuitBreaker breaker(String endpoint) {
+        sweep();
+        var breaker = breakers.get(endpoint);
+        if (breaker != null) return breaker;
+        return breakers.computeIfAbsent(endpoint, e -> {
+            var profile = profile(e);
+            return new EndpointCircuitBreaker(e, profile.name(), profile.config(), profile.counters(), nanoClock);
+        });
+    }
+
+    /** The profile an endpoint's breaker is configured from. */
+    public Profile profile(String endpoint) {
+        for (var profile : profiles) {
+            if (profile.matches(endpoint)) return profile;
+        }
+        return fallback;
+    }
+
+    /** Configured profiles followed by the fallback. */
+    public List<Profile> getProfiles() {
+        var all = new ArrayList<>(profiles);
+        all.add(fallback);
+        return all;
+    }
+
+    public Collection<EndpointCircuitBreaker> getBreakers() {
+        return breakers.values();
+    }
+
+    private void sweep() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong());
+        long last = lastSweepSecond.get();
+        if (second == last || !lastSweepSecond.compareAndSet(last, second)) return;
+        breakers.values().removeIf(EndpointCircuitBreaker::isIdle);
+    }
+
+    static Pattern glob(String glob) {
+        var parts = glob.split("\\*", -1);
+        var regex = new StringBuilder(Pattern.quote(parts[0]));
+        for (int i = 1; i < parts.length; i++) regex.append(".*").append(Pattern.quote(parts[i]));
+        return Pattern.compile(regex.toString());
+    }
+}
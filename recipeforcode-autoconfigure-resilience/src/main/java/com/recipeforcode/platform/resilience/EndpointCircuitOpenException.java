@@ -0,0 +1,12 @@
+package com.recipeforcode.platform.resilience;
+
+/**
+ * Thrown by {@link EndpointCircuitBreaker#execute} when the breaker does not permit the call. Carries no stack
+ * trace: it is expected control flow while a backend is down.
+ */
+public class EndpointCircuitOpenException extends RuntimeException {
+
+    public EndpointCircuitOpenException(String endpoint) {
+        super("Circuit breaker for '" + endpoint + "' does not permit further calls", null, false, false);
+    }
+}
@@ -0,0 +1,21 @@
+package com.recipeforcode.platform.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Hedges calls to the annotated method (or every public method of the annotated class) through the {@link Hedger}
+ * of the given name; see {@link Hedgers}. Only for idempotent, blocking methods: the method may run twice
+ * concurrently and the slower invocation is interrupted.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Hedged {
+
+    /** Name of the hedged target; latencies and hedge budgets are tracked per name. */
+    String value();
+}
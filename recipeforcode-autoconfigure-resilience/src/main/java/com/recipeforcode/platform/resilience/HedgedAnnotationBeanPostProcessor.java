@@ -0,0 +1,56 @@
+package com.recipeforcode.platform.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Proxies beans with {@link Hedged} methods (or classes) so their calls run through {@link Hedgers}. Works without
+ * AspectJ or an auto-proxy creator, like Spring's own {@code @Async} processing.
+ */
+public class HedgedAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public HedgedAnnotationBeanPostProcessor(ObjectProvider<Hedgers> hedgers) {
+        var pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Hedged.class, true))
+                .union(new AnnotationMatchingPointcut(null, Hedged.class, true));
+        this.advisor = new DefaultPointcutAdvisor(pointcut, new HedgingInterceptor(hedgers));
+        setBeforeExistingAdvisors(true);
+    }
+
+    static final class HedgingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<Hedgers> hedgers;
+
+        HedgingInterceptor(ObjectProvider<Hedgers> hedgers) {
+            this.hedgers = hedgers;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            var hedged = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), Hedged.class);
+            if (hedged == null && invocation.getThis() != null) {
+                hedged = AnnotatedElementUtils.findMergedAnnotation(invocation.getThis().getClass(), Hedged.class);
+            }
+            if (hedged == null || !(invocation instanceof ProxyMethodInvocation proxied)) return invocation.proceed();
+            return hedgers.getObject().hedger(hedged.value()).execute(() -> proceed(proxied.invocableClone()));
+        }
+
+        private static Object proceed(MethodInvocation invocation) throws Exception {
+            try {
+                return invocation.proceed();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
+}
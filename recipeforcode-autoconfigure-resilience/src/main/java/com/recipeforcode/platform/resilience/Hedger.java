@@ -0,0 +1,181 @@
+package com.recipeforcode.platform.resilience;
+
+import org.slf4j.MDC;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedged calls, as in "The Tail at Scale": when a call has not completed after the target's recent
+ * {@code percentile} latency, a second identical call is sent and whichever completes first wins; the other is
+ * cancelled (its thread interrupted).
+ * <p>
+ * The delay follows a {@link LatencyPercentileTracker} of this target's successful calls, clamped to
+ * {@code [minDelay, maxDelay]}; until {@code minSamples} latencies are known, {@code maxDelay} is used. Hedging at
+ * the p95 sends about 5% extra calls and cuts the tail caused by an occasional slow replica to roughly the p95 plus
+ * one typical call. At most {@code maxInFlightHedges} hedges run at once, so a target that is slow everywhere
+ * is not sent twice the load. Only hedge idempotent calls.
+ * <p>
+ * A call that fails is not hedged; a failure is reported only once every attempt has failed. Attempts run with
+ * the caller's MDC, so their logs keep its request id.
+ */
+public class Hedger {
+
+    // reading the percentile scans the whole histogram; once per interval is plenty
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final String name;
+    private final Config config;
+    private final ExecutorService executor;
+    private final LatencyPercentileTracker latencies;
+    private final AtomicInteger inFlightHedges = new AtomicInteger();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile long delayNanos;
+    private volatile long delayComputedAt;
+
+    /**
+     * @param percentile        latency quantile after which a hedge is sent, e.g. {@code 0.95}
+     * @param minSamples        latencies required before the percentile is trusted
+     * @param window            how long latencies count towards the percentile
+     * @param maxInFlightHedges hedges allowed to run concurrently
+     */
+    public record Config(double percentile, Duration minDelay, Duration maxDelay, int minSamples,
+                         Duration window, int maxInFlightHedges) {
+        public Config {
+            if (!(percentile > 0 && percentile < 1)) throw new IllegalArgumentException("percentile must be in (0, 1)");
+            if (minDelay.isNegative() || maxDelay.compareTo(minDelay) < 0) {
+                throw new IllegalArgumentException("delays must satisfy 0 <= minDelay <= maxDelay");
+            }
+            if (maxInFlightHedges < 0) throw new IllegalArgumentException("maxInFlightHedges must be >= 0");
+        }
+    }
+
+    public Hedger(String name, Config config, ExecutorService executor) {
+        this.name = name;
+        this.config = config;
+        this.executor = executor;
+        this.latencies = new LatencyPercentileTracker(config.window());
+        this.delayNanos = config.maxDelay().toNanos();
+        this.delayComputedAt = System.nanoTime() - DELAY_REFRESH_NANOS;
+    }
+
+    /**
+     * Runs {@code call}, hedging it if it is slow. The calling thread waits for the winner; attempts run on the
+     * executor.
+     */
+    public <T> T execute(Callable<T> call) throws Exception {
+        calls.increment();
+        long start = System.nanoTime();
+        var result = new CompletableFuture<T>();
+        var winner = new AtomicBoolean();
+        var pending = new AtomicInteger(1);
+        var mdc = MDC.getCopyOfContextMap();
+        Future<?> primary = executor.submit(() -> attempt(call, mdc, result, winner, pending, start, false));
+        Future<?> hedge = null;
+        boolean permit = false;
+        try {
+            try {
+                return result.get(getDelayNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException slow) {
+                if (result.isDone()) return result.get();
+                if (inFlightHedges.incrementAndGet() <= config.maxInFlightHedges()) {
+                    permit = true;
+                    pending.incrementAndGet();
+                    hedges.increment();
+                    hedge = executor.submit(() -> attempt(call, mdc, result, winner, pending, start, true));
+                } else {
+                    inFlightHedges.decrementAndGet();
+                    rejected.increment();
+                }
+                return result.get();
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) hedge.cancel(true);
+            if (permit) inFlightHedges.decrementAndGet();
+        }
+    }
+
+    private <T> void attempt(Callable<T> call, Map<String, String> mdc, CompletableFuture<T> result,
+                             AtomicBoolean winner, AtomicInteger pending, long start, boolean isHedge) {
+        var previous = MDC.getCopyOfContextMap();
+        if (mdc != null) MDC.setContextMap(mdc);
+        try {
+            T value = call.call();
+            boolean first = winner.compareAndSet(false, true);
+            // one sample per call, of the original attempt: when the hedge wins, the original has been running at
+            // least this long. Sampling the hedges would hide exactly the slow calls the percentile must see.
+            // Counted before completing, so the caller sees its own call in the statistics.
+            if (!isHedge) {
+                latencies.record(System.nanoTime() - start);
+            } else if (first) {
+                wins.increment();
+                latencies.record(System.nanoTime() - start);
+            }
+            result.complete(value);
+        } catch (Throwable t) {
+            if (pending.decrementAndGet() == 0) result.completeExceptionally(t);
+        } finally {
+            // pooled executors run other work next
+            if (previous != null) MDC.setContextMap(previous);
+            else MDC.clear();
+        }
+    }
+
+    private static Exception unwrap(Throwable cause) {
+        if (cause instanceof Error error) throw error;
+        return cause instanceof Exception e ? e : new UndeclaredThrowableException(cause);
+    }
+
+    /** Current hedge delay: the tracked percentile clamped to the configured range. */
+    public long getDelayNanos() {
+        long now = System.nanoTime();
+        if (now - delayComputedAt < DELAY_REFRESH_NANOS) return delayNanos;
+        long max = config.maxDelay().toNanos();
+        long delay = latencies.count() < config.minSamples()
+                ? max
+                : Math.max(config.minDelay().toNanos(), Math.min(max, latencies.percentile(config.percentile())));
+        // racy refresh: concurrent callers may both recompute, and may briefly see the previous delay
+        delayNanos = delay;
+        delayComputedAt = now;
+        return delay;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /** Hedges that completed before the original call. */
+    public long getWinCount() {
+        return wins.sum();
+    }
+
+    /** Hedges not sent because {@code maxInFlightHedges} were already running. */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,49 @@
+package com.recipeforcode.platform.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes calls, hedges sent, hedges won and hedges refused per {@link Hedger}, plus the current hedge delay,
+ * tagged with its name. The hedge rate is {@code hedges / calls}. Hedgers created after binding are registered as
+ * they appear.
+ */
+public class HedgerMetrics implements MeterBinder {
+
+    private final Hedgers hedgers;
+
+    public HedgerMetrics(Hedgers hedgers) {
+        this.hedgers = hedgers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hedgers.forEachHedger(hedger -> {
+            FunctionCounter.builder("recipeforcode.hedge.calls", hedger, Hedger::getCallCount)
+                    .tag("name", hedger.getName())
+                    .description("Calls made through the hedger")
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.hedge.sent", hedger, Hedger::getHedgeCount)
+                    .tag("name", hedger.getName())
+                    .description("Hedges sent because the original call was slower than the hedge delay")
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.hedge.wins", hedger, Hedger::getWinCount)
+                    .tag("name", hedger.getName())
+                    .description("Hedges that completed before the original call")
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.hedge.rejected", hedger, Hedger::getRejectedCount)
+                    .tag("name", hedger.getName())
+                    .description("Hedges not sent because the in-flight hedge budget was used up")
+                    .register(registry);
+            Gauge.builder("recipeforcode.hedge.delay", hedger, h -> (double) h.getDelayNanos() / TimeUnit.SECONDS.toNanos(1))
+                    .tag("name", hedger.getName())
+                    .description("Current delay before a hedge is sent")
+                    .baseUnit("seconds")
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.recipeforcode.platform.resilience;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * {@link Hedger}s by target name, created on first use with a shared configuration and executor (virtual threads
+ * unless one is supplied).
+ */
+public class Hedgers implements AutoCloseable {
+
+    private final Hedger.Config config;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Map<String, Hedger> hedgers = new ConcurrentHashMap<>();
+    private final List<Consumer<Hedger>> listeners = new CopyOnWriteArrayList<>();
+
+    public Hedgers(Hedger.Config config) {
+        this(config, Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    public Hedgers(Hedger.Config config, ExecutorService executor) {
+        this(config, executor, false);
+    }
+
+    private Hedgers(Hedger.Config config, ExecutorService executor, boolean ownsExecutor) {
+        this.config = config;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    public Hedger hedger(String name) {
+        var hedger = hedgers.get(name);
+        if (hedger != null) return hedger;
+        var created = new Hedger(name, config, executor);
+        hedger = hedgers.putIfAbsent(name, created);
+        if (hedger != null) return hedger;
+        listeners.forEach(l -> l.accept(created));
+        return created;
+    }
+
+    public Collection<Hedger> getHedgers() {
+        return hedgers.values();
+    }
+
+    /** Calls {@code listener} for every hedger, now and as new ones are created. */
+    void forEachHedger(Consumer<Hedger> listener) {
+        listeners.add(listener);
+        hedgers.values().forEach(listener);
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) executor.shutdownNow();
+    }
+}
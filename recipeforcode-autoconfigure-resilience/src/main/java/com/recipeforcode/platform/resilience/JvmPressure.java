@@ -0,0 +1,58 @@
+package com.recipeforcode.platform.resilience;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+/**
+ * JVM memory pressure read from the platform MXBeans: the share of wall time spent in GC pauses since the
+ * previous sample, and how full the heap stays after collection. Not thread-safe; {@link LoadShedder} samples
+ * it from one thread at a time.
+ */
+class JvmPressure {
+
+    private final List<GarbageCollectorMXBean> pauseCollectors;
+    private final List<MemoryPoolMXBean> heapPools;
+    private long lastCollectionMillis;
+    private long lastSampleNanos;
+
+    JvmPressure() {
+        // concurrent collectors (G1 Concurrent GC, ZGC Cycles) report cycle time that does not stop the application
+        this.pauseCollectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(gc -> !gc.getName().contains("Concurrent") && !gc.getName().contains("Cycles"))
+                .toList();
+        this.heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+                .toList();
+        this.lastCollectionMillis = collectionMillis();
+        this.lastSampleNanos = System.nanoTime();
+    }
+
+    /** Fraction of wall time spent in GC since the previous call, {@code [0, 1]}. */
+    double gcTimeFraction(long nowNanos) {
+        long collection = collectionMillis();
+        long elapsed = nowNanos - lastSampleNanos;
+        double fraction = elapsed <= 0 ? 0 : (collection - lastCollectionMillis) * 1_000_000.0 / elapsed;
+        lastCollectionMillis = collection;
+        lastSampleNanos = nowNanos;
+        return Math.min(1, Math.max(0, fraction));
+    }
+
+    /** Highest used/max ratio of a heap pool right after its last collection, {@code [0, 1]}. */
+    double heapAfterGc() {
+        double max = 0;
+        for (var pool : heapPools) {
+            var usage = pool.getCollectionUsage();
+            if (usage != null && usage.getMax() > 0) max = Math.max(max, (double) usage.getUsed() / usage.getMax());
+        }
+        return max;
+    }
+
+    private long collectionMillis() {
+        long total = 0;
+        for (var gc : pauseCollectors) total += Math.max(0, gc.getCollectionTime());
+        return total;
+    }
+}
@@ -0,0 +1,206 @@
+package com.recipeforcode.platform.resilience;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limit per client key (tenant, API key, address), e.g. for one route.
+ * <p>
+ * Each key's bucket is a single {@code long}, the time at which it will next be full (GCRA's theoretical arrival
+ * time), moved forward one emission interval per permit by CAS: no locks, no refill task, and no allocation once a
+ * key has a bucket. A bucket admits {@code burst} requests at once and {@code permitsPerSecond} sustained; a
+ * rejected request learns how long until a permit is free.
+ * <p>
+ * Keys are chosen by clients, so a client rotating its key would get a fresh full bucket per request. A key new to
+ * the limiter therefore only gets a bucket of its own while the remote address sending it has introduced fewer
+ * than {@code newKeysPerAddress} keys over the last minute (tracked by a bucket per address, refilling at that rate);
+ * past that, its requests are charged to the address's bucket, as requests without a key are.
+ * <p>
+ * Buckets are dropped by {@link #sweep()} once full and unused for {@code idleTimeout}, which loses nothing since
+ * a new bucket starts full. At most {@code maxKeys} buckets are held: keys beyond that share one bucket, reported as
+ * {@value #OVERFLOW_KEY}, until idle ones are swept.
+ */
+public class KeyedRateLimiter {
+
+    public static final String OVERFLOW_KEY = "OTHER";
+
+    private final String name;
+    private final Config config;
+    private final LongSupplier nanoClock;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long idleNanos;
+    private final long introductionIntervalNanos;
+    private final long introductionBurstNanos;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // keys introduced per remote address
+    private final ConcurrentHashMap<String, Bucket> introductions = new ConcurrentHashMap<>();
+    private final Bucket overflow;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param permitsPerSecond  sustained rate per key
+     * @param burst             requests a full bucket admits at once, at least 1
+     * @param maxKeys           buckets held at once
+     * @param idleTimeout       how long a full bucket is kept after its last use
+     * @param newKeysPerAddress keys one remote address may introduce per minute, at once or spread out
+     */
+    public record Config(double permitsPerSecond, int burst, int maxKeys, Duration idleTimeout, int newKeysPerAddress) {
+        public Config {
+            if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("permitsPerSecond must be positive");
+            if (burst < 1 || maxKeys < 1 || newKeysPerAddress < 1) {
+                throw new IllegalArgumentException("burst, maxKeys and newKeysPerAddress must be >= 1");
+            }
+        }
+    }
+
+    /** A key and the requests it had rejected while its bucket was held. */
+    public record KeyCount(String key, long rejected) {}
+
+    public KeyedRateLimiter(String name, Config config) {
+        this(name, config, System::nanoTime);
+    }
+
+    KeyedRateLimiter(String name, Config config, LongSupplier nanoClock) {
+        this.name = name;
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / config.permitsPerSecond()));
+        this.burstNanos = intervalNanos * config.burst();
+        this.idleNanos = config.idleTimeout().toNanos();
+        this.introductionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / config.newKeysPerAddress();
+        this.introductionBurstNanos = introductionIntervalNanos * config.newKeysPerAddress();
+        this.overflow = new Bucket(OVERFLOW_KEY, nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes a permit for a request identified by its remote address only.
+     *
+     * @return {@code 0} if admitted, otherwise nanoseconds until a permit is free
+     */
+    public long tryAcquire(String address) {
+        return tryAcquire(address, address);
+    }
+
+    /**
+     * Takes a permit for {@code key}, sent from {@code address}.
+     *
+     * @return {@code 0} if admitted, otherwise nanoseconds until a permit is free
+     */
+    public long tryAcquire(String key, String address) {
+        long now = nanoClock.getAsLong();
+        var bucket = bucket(key, address, now);
+        long wait = take(bucket, now, intervalNanos, burstNanos);
+        if (wait > 0) {
+            bucket.rejected.incrementAndGet();
+            rejected.increment();
+            return wait;
+        }
+        admitted.increment();
+        return 0;
+    }
+
+    /** Drops buckets that are full and have been unused for {@code idleTimeout}; not meant for request threads. */
+    public void sweep() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(b -> now - b.get() >= idleNanos);
+        introductions.values().removeIf(b -> now - b.get() >= idleNanos);
+        if (now - overflow.get() >= idleNanos) overflow.rejected.set(0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /** Buckets currently held, excluding the overflow bucket. */
+    public int getKeyCount() {
+        return buckets.size();
+    }
+
+    /** Up to {@code n} held keys with the most rejected requests, most first; keys without rejections are left out. */
+    public List<KeyCount> topRejected(int n) {
+        var top = new PriorityQueue<KeyCount>(Comparator.comparingLong(KeyCount::rejected));
+        offer(top, overflow, n);
+        for (var bucket : buckets.values()) offer(top, bucket, n);
+        var sorted = new ArrayList<>(top);
+        sorted.sort(Comparator.comparingLong(KeyCount::rejected).reversed());
+        return sorted;
+    }
+
+    private static void offer(PriorityQueue<KeyCount> top, Bucket bucket, int n) {
+        long count = bucket.rejected.get();
+        if (count == 0 || n < 1) return;
+        if (top.size() < n) {
+            top.add(new KeyCount(bucket.key, count));
+        } else if (top.peek().rejected() < count) {
+            top.poll();
+            top.add(new KeyCount(bucket.key, count));
+        }
+    }
+
+    private Bucket bucket(String key, String address, long now) {
+        var bucket = buckets.get(key);
+        if (bucket != null) return bucket;
+        if (!key.equals(address) && !introduce(address, now)) {
+            key = address;
+            bucket = buckets.get(key);
+            if (bucket != null) return bucket;
+        }
+        if (buckets.size() >= config.maxKeys()) return overflow;
+        // the bucket starts full
+        return buckets.computeIfAbsent(key, k -> new Bucket(k, now));
+    }
+
+    /** Whether {@code address} may introduce another key now, counting it if so. */
+    private boolean introduce(String address, long now) {
+        var bucket = introductions.get(address);
+        if (bucket == null) {
+            if (introductions.size() >= config.maxKeys()) return false;
+            bucket = introductions.computeIfAbsent(address, a -> new Bucket(a, now));
+        }
+        return take(bucket, now, introductionIntervalNanos, introductionBurstNanos) == 0;
+    }
+
+    /** Moves {@code bucket} one interval forward if that stays within the burst, else returns the wait (GCRA). */
+    private static long take(Bucket bucket, long now, long intervalNanos, long burstNanos) {
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(tat, next)) return 0;
+        }
+    }
+
+    /** The time the bucket is next full; {@link #rejected} counts since it was created. */
+    private static final class Bucket extends AtomicLong {
+        final String key;
+        final AtomicLong rejected = new AtomicLong();
+
+        Bucket(String key, long full) {
+            super(full);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.recipeforcode.platform.resilience;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * {@link KeyedRateLimiter}s by route. A request path takes the first route, in declaration order, with a glob
+ * pattern ({@code *} matches any run of characters) matching it; paths matching none are not limited. Each route
+ * reads the client key from its own header.
+ */
+public class KeyedRateLimiters {
+
+    private final List<Route> routes;
+
+    /** A route's path globs, the header carrying its client key, and its limiter. */
+    public record Route(List<String> match, String keyHeader, KeyedRateLimiter limiter, List<Pattern> patterns) {
+
+        public Route(List<String> match, String keyHeader, KeyedRateLimiter limiter) {
+            this(List.copyOf(match), keyHeader, limiter, match.stream().map(EndpointCircuitBreakers::glob).toList());
+        }
+
+        boolean matches(String path) {
+            for (var pattern : patterns) {
+                if (pattern.matcher(path).matches()) return true;
+            }
+            return false;
+        }
+    }
+
+    public KeyedRateLimiters(List<Route> routes) {
+        this.routes = List.copyOf(routes);
+    }
+
+    /** The route limiting {@code path}, or {@code null} if none does. */
+    public Route route(String path) {
+        for (var route : routes) {
+            if (route.matches(path)) return route;
+        }
+        return null;
+    }
+
+    /** Drops the idle buckets of every route (see {@link KeyedRateLimiter#sweep()}). */
+    public void sweep() {
+        for (var route : routes) route.limiter().sweep();
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+}
@@ -0,0 +1,97 @@
+package com.recipeforcode.platform.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency percentiles over a sliding window, lock-free.
+ * <p>
+ * Latencies are counted in log-linear buckets (eight per power of two, so a reported percentile is at most 12.5%
+ * above the true value) in two generations: every half window the current generation becomes the previous one and
+ * the oldest is dropped. Percentiles read both, so they always cover between half a window and a full window of
+ * samples.
+ */
+public class LatencyPercentileTracker {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    private final long halfWindowNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Generations> generations;
+
+    public LatencyPercentileTracker(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    LatencyPercentileTracker(Duration window, LongSupplier nanoClock) {
+        this.halfWindowNanos = Math.max(1, window.toNanos() / 2);
+        this.nanoClock = nanoClock;
+        this.generations = new AtomicReference<>(new Generations(new AtomicLongArray(BUCKETS), new AtomicLongArray(BUCKETS), nanoClock.getAsLong()));
+    }
+
+    public void record(long nanos) {
+        current().current.incrementAndGet(index(Math.max(0, nanos)));
+    }
+
+    /** Samples in the window. */
+    public long count() {
+        var g = current();
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += g.current.get(i) + g.previous.get(i);
+        return n;
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code quantile}, in nanoseconds, or {@code -1} without samples.
+     */
+    public long percentile(double quantile) {
+        var g = current();
+        var counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = g.current.get(i) + g.previous.get(i);
+            total += counts[i];
+        }
+        if (total == 0) return -1;
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) return upperBound(i);
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private Generations current() {
+        while (true) {
+            var g = generations.get();
+            long now = nanoClock.getAsLong();
+            if (now - g.startedAt < halfWindowNanos) return g;
+            // more than a whole window idle: both generations are stale
+            var previous = now - g.startedAt < 2 * halfWindowNanos ? g.current : new AtomicLongArray(BUCKETS);
+            var next = new Generations(new AtomicLongArray(BUCKETS), previous, now);
+            if (generations.compareAndSet(g, next)) return next;
+        }
+    }
+
+    static int index(long value) {
+        if (value < SUB) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return (exponent - SUB_BITS + 1) * SUB + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB) return index;
+        int exponent = index / SUB + SUB_BITS - 1;
+        long sub = index % SUB;
+        return ((SUB + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+    private record Generations(AtomicLongArray current, AtomicLongArray previous, long startedAt) {
+    }
+}
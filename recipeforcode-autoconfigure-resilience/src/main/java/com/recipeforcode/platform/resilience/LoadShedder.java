@@ -0,0 +1,204 @@
+package com.recipeforcode.platform.resilience;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for inbound requests driven by how loaded the JVM is, rather than by how many calls are in
+ * flight against one downstream.
+ * <p>
+ * Each {@link Signal} is turned into a ratio of its threshold, and the pressure is the largest ratio:
+ * <ul>
+ *   <li>{@code GC}: share of wall time spent in GC over the last sample interval, against {@code maxGcTimeFraction}</li>
+ *   <li>{@code HEAP}: heap occupancy after the last collection, against {@code maxHeapAfterGc}</li>
+ *   <li>{@code QUEUE}: requests in flight plus those waiting for a worker (e.g. Tomcat's executor queue), against
+ *   {@code maxQueueDepth}; read on every request</li>
+ *   <li>{@code LATENCY}: p99 of admitted requests over {@code latencyWindow}, against {@code maxLatency}, if set</li>
+ * </ul>
+ * Once the pressure reaches {@code lowPriorityWatermark}, {@link Priority#LOW} requests are rejected. From 1 (a
+ * threshold reached) {@link Priority#NORMAL} requests are rejected with a probability rising to 1 at 1.5, so
+ * admissions shrink smoothly instead of flapping. {@link Priority#CRITICAL} requests are always admitted.
+ * <p>
+ * The MXBean signals are sampled at most once per {@code sampleInterval}, by whichever request finds the sample
+ * stale; other requests read the cached pressure. Admission itself is a counter increment and a few volatile
+ * reads.
+ */
+public class LoadShedder {
+
+    public enum Priority {
+        CRITICAL, NORMAL, LOW;
+
+        /** Parses a header value case-insensitively, or returns {@code fallback} when absent or unknown. */
+        public static Priority parse(String value, Priority fallback) {
+            if (value == null) return fallback;
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "critical" -> CRITICAL;
+                case "normal" -> NORMAL;
+                case "low" -> LOW;
+                default -> fallback;
+            };
+        }
+    }
+
+    public enum Signal { GC, HEAP, QUEUE, LATENCY }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    // NORMAL requests are all rejected at this pressure
+    private static final double FULL_SHEDDING = 1.5;
+    // fewer admitted requests than this in the latency window say nothing about latency
+    private static final long MIN_LATENCY_SAMPLES = 20;
+
+    private final Config config;
+    private final JvmPressure jvm;
+    private final IntSupplier waiting;
+    private final LongSupplier nanoClock;
+    private final long sampleIntervalNanos;
+    private final LatencyPercentileTracker latency;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean sampling = new AtomicBoolean();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder[] rejected = new LongAdder[PRIORITIES.length];
+    // written by the sampling thread only; QUEUE is computed on read
+    private final double[] signals = new double[Signal.values().length];
+    private volatile long nextSample;
+    private volatile double sampledPressure;
+
+    /**
+     * @param maxGcTimeFraction    GC time share of wall time at which GC counts as overloaded, {@code (0, 1]}
+     * @param maxHeapAfterGc       heap occupancy after collection at which memory counts as overloaded, {@code (0, 1]}
+     * @param maxQueueDepth        in-flight plus waiting requests at which the server counts as overloaded
+     * @param maxLatency           p99 of admitted requests at which latency counts as overloaded; {@code null} to ignore
+     * @param latencyWindow        window the p99 is taken over
+     * @param sampleInterval       how often GC, heap and latency are re-read
+     * @param lowPriorityWatermark pressure from which {@link Priority#LOW} requests are rejected, {@code (0, 1]}
+     */
+    public record Config(double maxGcTimeFraction, double maxHeapAfterGc, int maxQueueDepth, Duration maxLatency,
+                         Duration latencyWindow, Duration sampleInterval, double lowPriorityWatermark) {
+        public Config {
+            if (!(maxGcTimeFraction > 0 && maxGcTimeFraction <= 1) || !(maxHeapAfterGc > 0 && maxHeapAfterGc <= 1)) {
+                throw new IllegalArgumentException("maxGcTimeFraction and maxHeapAfterGc must be in (0, 1]");
+            }
+            if (maxQueueDepth < 1) throw new IllegalArgumentException("maxQueueDepth must be >= 1");
+            if (!(lowPriorityWatermark > 0 && lowPriorityWatermark <= 1)) {
+                throw new IllegalArgumentException("lowPriorityWatermark must be in (0, 1]");
+            }
+        }
+    }
+
+    /**
+     * @param waiting requests accepted by the server but not yet handed to a worker; {@code () -> 0} if unknown
+     */
+    public LoadShedder(Config config, IntSupplier waiting) {
+        this(config, new JvmPressure(), waiting, System::nanoTime);
+    }
+
+    LoadShedder(Config config, JvmPressure jvm, IntSupplier waiting, LongSupplier nanoClock) {
+        this.config = config;
+        this.jvm = jvm;
+        this.waiting = waiting;
+        this.nanoClock = nanoClock;
+        this.sampleIntervalNanos = config.sampleInterval().toNanos();
+        this.latency = new LatencyPercentileTracker(config.latencyWindow(), nanoClock);
+        for (int i = 0; i < rejected.length; i++) rejected[i] = new LongAdder();
+        this.nextSample = nanoClock.getAsLong();
+    }
+
+    /**
+     * Current pressure: the largest signal as a ratio of its threshold. Below {@code lowPriorityWatermark} every
+     * request is admitted, so callers can skip working out a priority.
+     */
+    public double pressure() {
+        long now = nanoClock.getAsLong();
+        if (now - nextSample >= 0 && sampling.compareAndSet(false, true)) {
+            try {
+                sample(now);
+            } finally {
+                sampling.set(false);
+            }
+        }
+        return Math.max(sampledPressure, queue());
+    }
+
+    /**
+     * Admits a request of the given priority, counting it in flight until {@link #release(long)}, or returns
+     * {@code false} if it should be shed.
+     */
+    public boolean tryAcquire(Priority priority) {
+        return tryAcquire(priority, pressure());
+    }
+
+    /** {@link #tryAcquire(Priority)} at a {@link #pressure()} the caller has just read. */
+    boolean tryAcquire(Priority priority, double pressure) {
+        if (priority != Priority.CRITICAL && shed(priority, pressure)) {
+            rejected[priority.ordinal()].increment();
+            return false;
+        }
+        inFlight.incrementAndGet();
+        admitted.increment();
+        return true;
+    }
+
+    /** Ends an admitted request that took {@code latencyNanos}. */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        latency.record(latencyNanos);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /** {@code signal} as a ratio of its threshold: current for {@code QUEUE}, as of the last sample otherwise. */
+    public double getSignal(Signal signal) {
+        return signal == Signal.QUEUE ? queue() : signals[signal.ordinal()];
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getRejectedCount(Priority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /** Whether a request of any priority may be shed at {@code pressure}. */
+    boolean isShedding(double pressure) {
+        return pressure >= config.lowPriorityWatermark();
+    }
+
+    private boolean shed(Priority priority, double pressure) {
+        if (!isShedding(pressure)) return false;
+        if (priority == Priority.LOW) return true;
+        if (pressure < 1) return false;
+        double probability = (pressure - 1) / (FULL_SHEDDING - 1);
+        return probability >= 1 || ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    private double queue() {
+        return (double) (inFlight.get() + waiting.getAsInt()) / config.maxQueueDepth();
+    }
+
+    private void sample(long now) {
+        double gc = jvm.gcTimeFraction(now) / config.maxGcTimeFraction();
+        double heap = jvm.heapAfterGc() / config.maxHeapAfterGc();
+        double slow = 0;
+        if (config.maxLatency() != null && latency.count() >= MIN_LATENCY_SAMPLES) {
+            slow = (double) latency.percentile(0.99) / config.maxLatency().toNanos();
+        }
+        signals[Signal.GC.ordinal()] = gc;
+        signals[Signal.HEAP.ordinal()] = heap;
+        signals[Signal.LATENCY.ordinal()] = slow;
+        sampledPressure = Math.max(gc, Math.max(heap, slow));
+        nextSample = now + sampleIntervalNanos;
+    }
+}
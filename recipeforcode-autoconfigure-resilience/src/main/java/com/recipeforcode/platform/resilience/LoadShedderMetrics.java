@@ -0,0 +1,43 @@
+package com.recipeforcode.platform.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Locale;
+
+/**
+ * Publishes a {@link LoadShedder}'s admitted and rejected requests (by priority), in-flight count, and each
+ * pressure signal as a ratio of its threshold (1 is overloaded).
+ */
+public class LoadShedderMetrics implements MeterBinder {
+
+    private final LoadShedder shedder;
+
+    public LoadShedderMetrics(LoadShedder shedder) {
+        this.shedder = shedder;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("recipeforcode.load.shedding.admitted", shedder, LoadShedder::getAdmittedCount)
+                .description("Requests admitted by the load shedder")
+                .register(registry);
+        for (var priority : LoadShedder.Priority.values()) {
+            if (priority == LoadShedder.Priority.CRITICAL) continue;
+            FunctionCounter.builder("recipeforcode.load.shedding.rejected", shedder, s -> s.getRejectedCount(priority))
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .description("Requests rejected by the load shedder, by priority")
+                    .register(registry);
+        }
+        Gauge.builder("recipeforcode.load.shedding.in.flight", shedder, LoadShedder::getInFlight)
+                .register(registry);
+        for (var signal : LoadShedder.Signal.values()) {
+            Gauge.builder("recipeforcode.load.shedding.pressure", shedder, s -> s.getSignal(signal))
+                    .tag("signal", signal.name().toLowerCase(Locale.ROOT))
+                    .description("Pressure signal as a ratio of its threshold")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.recipeforcode.platform.resilience;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Rejects requests with {@code 503} and {@code Retry-After} while the {@link LoadShedder} reports overload, first
+ * of all filters, so a shed request costs a status line and nothing else (no error page dispatch, no observation,
+ * no MDC).
+ * <p>
+ * The priority is only worked out under pressure: requests for one of {@code criticalPaths} (health checks) or a
+ * path below one, compared within the application and normalized, are {@code CRITICAL}; otherwise the
+ * {@code priorityHeader} value ({@code normal}, {@code low}) decides, falling back to {@code NORMAL}. Any client can
+ * send the header, so {@code critical} in it is read as {@code NORMAL} unless {@code trustCriticalHeader} is set,
+ * e.g. behind a gateway that strips it from external requests. Admitted requests, async ones until they complete,
+ * count as in flight and feed the latency signal.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final LoadShedder shedder;
+    private final String priorityHeader;
+    private final String[] criticalPaths;
+    private final boolean trustCriticalHeader;
+
+    public LoadSheddingFilter(LoadShedder shedder, String priorityHeader, List<String> criticalPaths,
+                              boolean trustCriticalHeader) {
+        this.shedder = shedder;
+        this.priorityHeader = priorityHeader;
+        this.criticalPaths = criticalPaths.toArray(String[]::new);
+        this.trustCriticalHeader = trustCriticalHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        double pressure = shedder.pressure();
+        var priority = shedder.isShedding(pressure) ? priority(req) : LoadShedder.Priority.NORMAL;
+        if (!shedder.tryAcquire(priority, pressure)) {
+            res.setHeader("Retry-After", "1");
+            res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(req, res);
+            if (req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new Release(start));
+                async = true;
+            }
+        } finally {
+            if (!async) shedder.release(System.nanoTime() - start);
+        }
+    }
+
+    private LoadShedder.Priority priority(HttpServletRequest req) {
+        if (RequestPaths.isUnder(RequestPaths.pathWithinApplication(req), criticalPaths)) {
+            return LoadShedder.Priority.CRITICAL;
+        }
+        var priority = LoadShedder.Priority.parse(req.getHeader(priorityHeader), LoadShedder.Priority.NORMAL);
+        return priority == LoadShedder.Priority.CRITICAL && !trustCriticalHeader ? LoadShedder.Priority.NORMAL : priority;
+    }
+
+    private final class Release implements AsyncListener {
+        private final long start;
+
+        Release(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            shedder.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {}
+
+        @Override
+        public void onError(AsyncEvent event) {}
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // re-dispatched async cycles stay in flight
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
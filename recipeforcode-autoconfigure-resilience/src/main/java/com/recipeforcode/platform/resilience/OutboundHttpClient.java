@@ -0,0 +1,314 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.retry.Retry;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Shared outbound HTTP client: a request factory on one JDK {@link HttpClient} on virtual threads that bounds,
+ * correlates and protects every exchange made through it.
+ * <p>
+ * The JDK client keeps connections alive and, with {@code HTTP_2}, multiplexes requests to a host over one
+ * connection (falling back to HTTP/1.1 where the server does not speak it). At most
+ * {@code maxConcurrentRequests} exchanges are in flight across all hosts, which also bounds HTTP/1.1 connections;
+ * a caller waits up to {@code acquireTimeout} for a slot and then gets {@link OutboundPoolExhaustedException}. A slot
+ * is held until the response is closed.
+ * <p>
+ * Each exchange:
+ * <ul>
+ *   <li>carries the caller's request id, copied from the MDC unless the request already has the header</li>
+ *   <li>goes through the {@link EndpointCircuitBreaker} of its endpoint ({@code host} or {@code host:port});
+ *   I/O errors and 5xx responses count as failures</li>
+ *   <li>for idempotent methods, is retried on I/O errors by the endpoint's Resilience4j {@link Retry}</li>
+ * </ul>
+ * Requests buffer their body and do all of this when executed, below any {@code RestClient} interceptors, so
+ * interceptors run once per call and every attempt carries the headers they set.
+ */
+public class OutboundHttpClient implements ClientHttpRequestFactory, AutoCloseable {
+
+    public enum Outcome { SUCCESS, CLIENT_ERROR, SERVER_ERROR, IO_ERROR, REJECTED }
+
+    /** Notified once per attempt with its endpoint, outcome and time to response headers. */
+    @FunctionalInterface
+    public interface ExchangeListener {
+        void onExchange(String endpoint, Outcome outcome, long nanos);
+    }
+
+    /**
+     * @param maxConcurrentRequests exchanges in flight across all endpoints
+     * @param acquireTimeout        how long a caller waits for a free slot
+     * @param version               preferred protocol; {@code HTTP_2} falls back to HTTP/1.1 per server
+     * @param requestIdHeader       header carrying the request id, or {@code null} to not propagate it
+     * @param requestIdMdcKey       MDC key the request id is read from
+     */
+    public record Config(int maxConcurrentRequests, Duration acquireTimeout, Duration connectTimeout,
+                         Duration readTimeout, HttpClient.Version version, String requestIdHeader, String requestIdMdcKey) {
+        public Config {
+            if (maxConcurrentRequests < 1) throw new IllegalArgumentException("maxConcurrentRequests must be >= 1");
+        }
+    }
+
+    private static final List<HttpMethod> IDEMPOTENT = List.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+    private final Config config;
+    private final EndpointCircuitBreakers breakers;
+    private final Function<String, Retry> retries;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final JdkClientHttpRequestFactory requestFactory;
+    private final Semaphore slots;
+    private final LongAdder rejected = new LongAdder();
+    private final List<ExchangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param retries the retry of an endpoint, or {@code null} to not retry
+     */
+    public OutboundHttpClient(Config config, EndpointCircuitBreakers breakers, Function<String, Retry> retries) {
+        this.config = config;
+        this.breakers = breakers;
+        this.retries = retries;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .version(config.version())
+                .connectTimeout(config.connectTimeout())
+                .build();
+        this.requestFactory = new JdkClientHttpRequestFactory(httpClient, executor);
+        this.requestFactory.setReadTimeout(config.readTimeout());
+        this.slots = new Semaphore(config.maxConcurrentRequests());
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod method) {
+        return new ProtectedRequest(uri, method);
+    }
+
+    private ClientHttpResponse exchange(URI uri, HttpMethod method, HttpHeaders headers, Map<String, Object> attributes,
+                                        byte[] body) throws IOException {
+        var header = config.requestIdHeader();
+        if (header != null && !headers.containsKey(header)) {
+            var requestId = MDC.get(config.requestIdMdcKey());
+            if (requestId != null) headers.set(header, requestId);
+        }
+        var endpoint = endpoint(uri);
+        var breaker = breakers.breaker(endpoint);
+        var retry = retries != null && IDEMPOTENT.contains(method) ? retries.apply(endpoint) : null;
+        if (retry == null) return attempt(endpoint, breaker, uri, method, headers, attributes, body);
+        var context = retry.context();
+        while (true) {
+            try {
+                var response = attempt(endpoint, breaker, uri, method, headers, attributes, body);
+                context.onComplete();
+                return response;
+            } catch (IOException e) {
+                retryOrThrow(context, e);
+            }
+        }
+    }
+
+    private ClientHttpResponse attempt(String endpoint, EndpointCircuitBreaker breaker, URI uri, HttpMethod method,
+                                       HttpHeaders headers, Map<String, Object> attributes, byte[] body) throws IOException {
+        acquireSlot(endpoint);
+        if (!breaker.tryAcquirePermission()) {
+            slots.release();
+            notify(endpoint, Outcome.REJECTED, 0);
+            throw new EndpointCircuitOpenException(endpoint);
+        }
+        long start = System.nanoTime();
+        ClientHttpResponse response = null;
+        var outcome = Outcome.IO_ERROR;
+        try {
+            response = send(uri, method, headers, attributes, body);
+            outcome = outcome(response.getStatusCode());
+        } finally {
+            // anything thrown, errors included, is a failure that must not keep the permit or the slot
+            if (outcome == Outcome.SERVER_ERROR || outcome == Outcome.IO_ERROR) breaker.onError(); else breaker.onSuccess();
+            notify(endpoint, outcome, System.nanoTime() - start);
+            if (outcome == Outcome.IO_ERROR) {
+                if (response != null) response.close();
+                slots.release();
+            }
+        }
+        return new SlotReleasingResponse(response);
+    }
+
+    private ClientHttpResponse send(URI uri, HttpMethod method, HttpHeaders headers, Map<String, Object> attributes,
+                                    byte[] body) throws IOException {
+        var request = requestFactory.createRequest(uri, method);
+        request.getHeaders().putAll(headers);
+        request.getAttributes().putAll(attributes);
+        if (body.length > 0) {
+            if (request instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(out -> out.write(body));
+            } else {
+                request.getBody().write(body);
+            }
+        }
+        return request.execute();
+    }
+
+    private void acquireSlot(String endpoint) {
+        boolean acquired = slots.tryAcquire();
+        if (!acquired) {
+            try {
+                acquired = slots.tryAcquire(config.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!acquired) {
+            rejected.increment();
+            notify(endpoint, Outcome.REJECTED, 0);
+            throw new OutboundPoolExhaustedException(config.maxConcurrentRequests());
+        }
+    }
+
+    private static void retryOrThrow(Retry.Context<?> context, IOException failure) throws IOException {
+        try {
+            // waits out the backoff, or rethrows once attempts or the retry budget are used up
+            context.onError(failure);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void notify(String endpoint, Outcome outcome, long nanos) {
+        for (var listener : listeners) listener.onExchange(endpoint, outcome, nanos);
+    }
+
+    void addListener(ExchangeListener listener) {
+        listeners.add(listener);
+    }
+
+    static String endpoint(URI uri) {
+        return uri.getPort() < 0 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static Outcome outcome(HttpStatusCode status) {
+        if (status.is5xxServerError()) return Outcome.SERVER_ERROR;
+        if (status.is4xxClientError()) return Outcome.CLIENT_ERROR;
+        return Outcome.SUCCESS;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public int getActiveCount() {
+        return config.maxConcurrentRequests() - slots.availablePermits();
+    }
+
+    /** Callers waiting for a slot (an estimate). */
+    public int getPendingCount() {
+        return slots.getQueueLength();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /** Buffers the body so that each attempt can send it again. */
+    private final class ProtectedRequest extends AbstractClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(0);
+
+        ProtectedRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            return exchange(uri, method, headers, getAttributes(), body.toByteArray());
+        }
+    }
+
+    private final class SlotReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SlotReleasingResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) slots.release();
+            }
+        }
+    }
+}
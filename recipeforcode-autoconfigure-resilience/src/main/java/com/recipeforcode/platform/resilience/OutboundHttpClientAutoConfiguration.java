@@ -0,0 +1,75 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Points every auto-configured {@code RestClient.Builder} at the shared {@link OutboundHttpClient}, protected by
+ * the platform's endpoint circuit breakers and, when Resilience4j's retry registry is present, retries built from
+ * the {@code default} retry customizers (backoff and retry budget) plus any customizer named after the endpoint.
+ */
+@AutoConfiguration(after = ResilienceAutoConfiguration.class)
+@EnableConfigurationProperties(ResilienceProps.class)
+@ConditionalOnClass(RestClient.class)
+@ConditionalOnBean(EndpointCircuitBreakers.class)
+@ConditionalOnProperty(prefix = "recipeforcode.resilience.http-client", name = "enabled", havingValue = "true")
+public class OutboundHttpClientAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public OutboundHttpClient outboundHttpClient(ResilienceProps p, EndpointCircuitBreakers breakers,
+                                                 ObjectProvider<RetryRegistry> retryRegistry,
+                                                 ObjectProvider<RetryConfigCustomizer> retryCustomizers) {
+        var registry = p.httpClient().retry() ? retryRegistry.getIfAvailable() : null;
+        var retries = registry == null ? null : retries(registry, retryCustomizers.orderedStream().toList());
+        return new OutboundHttpClient(p.httpClient().toConfig(), breakers, retries);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "outboundHttpClientRestClientCustomizer")
+    public RestClientCustomizer outboundHttpClientRestClientCustomizer(OutboundHttpClient client) {
+        return builder -> builder.requestFactory(client);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        OutboundHttpClientMetrics outboundHttpClientMetrics(OutboundHttpClient client) {
+            return new OutboundHttpClientMetrics(client);
+        }
+    }
+
+    // Retries created at runtime only get the registry's default config, so apply the customizers here as
+    // Resilience4j does for instances declared in properties; declared instances are used as they are.
+    private static Function<String, Retry> retries(RetryRegistry registry, List<RetryConfigCustomizer> customizers) {
+        return endpoint -> registry.retry(endpoint, () -> {
+            var builder = RetryConfig.from(registry.getDefaultConfig());
+            for (var customizer : customizers) {
+                if (customizer.name().equals(RetryBudgets.DEFAULT)) customizer.customize(builder);
+            }
+            for (var customizer : customizers) {
+                if (customizer.name().equals(endpoint)) customizer.customize(builder);
+            }
+            return builder.build();
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.recipeforcode.platform.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link OutboundHttpClient} slot usage (active, pending, max, rejected) and the latency of each
+ * attempt to response headers, tagged by {@code endpoint} and {@code outcome}. Rejected attempts are counted in
+ * the timer with zero duration.
+ */
+public class OutboundHttpClientMetrics implements MeterBinder {
+
+    private static final OutboundHttpClient.Outcome[] OUTCOMES = OutboundHttpClient.Outcome.values();
+
+    private final OutboundHttpClient client;
+
+    public OutboundHttpClientMetrics(OutboundHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("recipeforcode.http.client.pool.active", client, OutboundHttpClient::getActiveCount)
+                .description("Outbound exchanges holding a slot")
+                .register(registry);
+        Gauge.builder("recipeforcode.http.client.pool.pending", client, OutboundHttpClient::getPendingCount)
+                .description("Callers waiting for an outbound slot")
+                .register(registry);
+        Gauge.builder("recipeforcode.http.client.pool.max", client, c -> c.getConfig().maxConcurrentRequests())
+                .description("Maximum concurrent outbound exchanges")
+                .register(registry);
+        FunctionCounter.builder("recipeforcode.http.client.pool.rejected", client, OutboundHttpClient::getRejectedCount)
+                .description("Outbound calls rejected because no slot freed up in time")
+                .register(registry);
+        Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+        client.addListener((endpoint, outcome, nanos) -> {
+            var byOutcome = timers.computeIfAbsent(endpoint, e -> new Timer[OUTCOMES.length]);
+            var timer = byOutcome[outcome.ordinal()];
+            if (timer == null) {
+                // racing threads get the same meter back from the registry
+                timer = Timer.builder("recipeforcode.http.client.requests")
+                        .tag("endpoint", endpoint)
+                        .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                        .description("Outbound HTTP attempts, to response headers")
+                        .register(registry);
+                byOutcome[outcome.ordinal()] = timer;
+            }
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.recipeforcode.platform.resilience;
+
+/**
+ * Thrown by {@link OutboundHttpClient} when no slot frees up within the acquire timeout. Carries no stack trace:
+ * it is expected control flow while the client is saturated.
+ */
+public class OutboundPoolExhaustedException extends RuntimeException {
+
+    public OutboundPoolExhaustedException(int maxConcurrentRequests) {
+        super("All " + maxConcurrentRequests + " outbound HTTP slots are in use", null, false, false);
+    }
+}
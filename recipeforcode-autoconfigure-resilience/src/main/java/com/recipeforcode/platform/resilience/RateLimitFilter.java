@@ -0,0 +1,46 @@
+package com.recipeforcode.platform.resilience;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over their client's rate with {@code 429} and a {@code Retry-After} of the whole seconds until a
+ * permit is free, before any application code runs. The client key is the route's key header, or the remote
+ * address when the header is absent, which also bounds how many keys one address may introduce. Routes are matched
+ * against the path within the application, decoded and normalized, so no spelling of a path escapes its route;
+ * requests on paths no route matches pass through.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final KeyedRateLimiters limiters;
+
+    public RateLimitFilter(KeyedRateLimiters limiters) {
+        this.limiters = limiters;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        var route = limiters.route(RequestPaths.pathWithinApplication(req));
+        if (route != null) {
+            var key = req.getHeader(route.keyHeader());
+            var address = req.getRemoteAddr();
+            long wait = route.limiter().tryAcquire(key != null && !key.isEmpty() ? key : address, address);
+            if (wait > 0) {
+                res.setHeader("Retry-After", Long.toString((wait + SECOND - 1) / SECOND));
+                res.setStatus(SC_TOO_MANY_REQUESTS);
+                return;
+            }
+        }
+        chain.doFilter(req, res);
+    }
+}
@@ -0,0 +1,27 @@
+package com.recipeforcode.platform.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweeps idle rate-limit buckets on a background thread when Micrometer, and so {@link RateLimiterMetrics}, which
+ * does it otherwise, is not on the classpath.
+ */
+class RateLimitSweeper implements AutoCloseable {
+
+    private final ScheduledExecutorService sweeper;
+
+    RateLimitSweeper(KeyedRateLimiters limiters, Duration interval) {
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("recipeforcode-rate-limit-sweep").factory());
+        long nanos = interval.toNanos();
+        sweeper.scheduleWithFixedDelay(limiters::sweep, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,81 @@
+package com.recipeforcode.platform.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes admitted and rejected requests and held keys per rate-limited route, and the {@code topKeys} keys of
+ * each route with the most rejections as {@code recipeforcode.rate.limit.top.rejected{route,key}}. The top keys are
+ * re-ranked every {@code refreshInterval} on a background thread, so at most {@code topKeys} key series exist per
+ * route however many clients there are. The same thread sweeps idle buckets at that interval from construction,
+ * bound or not, keeping that off request threads.
+ */
+public class RateLimiterMetrics implements MeterBinder, AutoCloseable {
+
+    private final KeyedRateLimiters limiters;
+    private final int topKeys;
+    private final ScheduledExecutorService refresher;
+    private volatile MultiGauge top;
+
+    public RateLimiterMetrics(KeyedRateLimiters limiters, int topKeys, Duration refreshInterval) {
+        this.limiters = limiters;
+        this.topKeys = topKeys;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("recipeforcode-rate-limit-metrics").factory());
+        long interval = refreshInterval.toNanos();
+        refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (var route : limiters.getRoutes()) {
+            var limiter = route.limiter();
+            var tags = Tags.of("route", limiter.getName());
+            FunctionCounter.builder("recipeforcode.rate.limit.admitted", limiter, KeyedRateLimiter::getAdmittedCount)
+                    .tags(tags)
+                    .description("Requests admitted by the keyed rate limiter")
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.rate.limit.rejected", limiter, KeyedRateLimiter::getRejectedCount)
+                    .tags(tags)
+                    .description("Requests rejected by the keyed rate limiter")
+                    .register(registry);
+            Gauge.builder("recipeforcode.rate.limit.keys", limiter, KeyedRateLimiter::getKeyCount)
+                    .tags(tags)
+                    .description("Client keys with a token bucket held")
+                    .register(registry);
+        }
+        top = MultiGauge.builder("recipeforcode.rate.limit.top.rejected")
+                .description("Requests rejected for the most limited client keys while their buckets are held")
+                .register(registry);
+        refresh();
+    }
+
+    /** Sweeps idle buckets and, once bound, re-ranks the top keys of every route. */
+    synchronized void refresh() {
+        limiters.sweep();
+        if (top == null) return;
+        var rows = new ArrayList<MultiGauge.Row<?>>();
+        for (var route : limiters.getRoutes()) {
+            var limiter = route.limiter();
+            for (var key : limiter.topRejected(topKeys)) {
+                rows.add(MultiGauge.Row.of(Tags.of("route", limiter.getName(), "key", key.key()), key.rejected()));
+            }
+        }
+        top.register(rows, true);
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+}
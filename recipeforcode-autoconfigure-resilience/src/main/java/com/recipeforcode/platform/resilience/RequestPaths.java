@@ -0,0 +1,30 @@
+package com.recipeforcode.platform.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UrlPathHelper;
+
+/** Request paths as the application's handlers see them, for the inbound filters that match on paths. */
+final class RequestPaths {
+
+    private RequestPaths() {}
+
+    /**
+     * The decoded path after the context path, with path parameters ({@code ;...}) and duplicate slashes dropped and
+     * {@code .} and {@code ..} segments resolved, so every spelling of a path that reaches a handler matches it.
+     */
+    static String pathWithinApplication(HttpServletRequest req) {
+        return StringUtils.cleanPath(UrlPathHelper.defaultInstance.getPathWithinApplication(req));
+    }
+
+    /** Whether {@code path} is one of {@code prefixes} or lies below one, at a {@code /} boundary. */
+    static boolean isUnder(String path, String[] prefixes) {
+        for (var prefix : prefixes) {
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || prefix.endsWith("/")
+                    || path.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
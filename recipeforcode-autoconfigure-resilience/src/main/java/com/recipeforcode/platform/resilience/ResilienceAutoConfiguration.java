@@ -4,14 +4,30 @@ import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
 import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
 import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntSupplier;
 
 @AutoConfiguration
+@EnableConfigurationProperties(ResilienceProps.class)
 @ConditionalOnClass({CircuitBreaker.class, Retry.class})
 public class ResilienceAutoConfiguration {
 
@@ -25,12 +41,198 @@ public class ResilienceAutoConfiguration {
         );
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryBudgets retryBudgets(ResilienceProps p) {
+        return p.retry().toBudgets();
+    }
+
     @Bean
     @ConditionalOnMissingBean(name = "recipeforcodeDefaultRetryCustomizer")
-    public RetryConfigCustomizer recipeforcodeDefaultRetryCustomizer() {
-        return RetryConfigCustomizer.of("default", builder -> builder
-            .maxAttempts(3)
-            .waitDuration(Duration.ofMillis(200))
-        );
+    public RetryConfigCustomizer recipeforcodeDefaultRetryCustomizer(RetryBudgets budgets) {
+        return budgets.customizer(RetryBudgets.DEFAULT);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    @ConditionalOnProperty(prefix = "recipeforcode.resilience.retry.budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class RetryBudgetMetricsConfiguration {
+
+        @Bean
+        RetryBudgetMetrics retryBudgetMetrics(RetryBudgets budgets) {
+            return new RetryBudgetMetrics(budgets);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EndpointCircuitBreakers endpointCircuitBreakers(ResilienceProps p) {
+        return p.toEndpointCircuitBreakers();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "recipeforcode.resilience.hedging", name = "enabled", havingValue = "true")
+    static class HedgingConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        Hedgers hedgers(ResilienceProps p, @Qualifier("hedgingExecutor") ObjectProvider<ExecutorService> executor) {
+            var supplied = executor.getIfAvailable();
+            return supplied != null ? new Hedgers(p.hedging().toConfig(), supplied) : new Hedgers(p.hedging().toConfig());
+        }
+
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        @ConditionalOnMissingBean
+        static HedgedAnnotationBeanPostProcessor hedgedAnnotationBeanPostProcessor(ObjectProvider<Hedgers> hedgers) {
+            return new HedgedAnnotationBeanPostProcessor(hedgers);
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(MeterBinder.class)
+        static class MetricsConfiguration {
+
+            @Bean
+            HedgerMetrics hedgerMetrics(Hedgers hedgers) {
+                return new HedgerMetrics(hedgers);
+            }
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class MeterBinderConfiguration {
+
+        @Bean
+        EndpointCircuitBreakerMetrics endpointCircuitBreakerMetrics(EndpointCircuitBreakers breakers) {
+            return new EndpointCircuitBreakerMetrics(breakers);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "recipeforcode.resilience.adaptive-concurrency", name = "enabled", havingValue = "true")
+    static class AdaptiveConcurrencyConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        AdaptiveConcurrencyLimiter inboundConcurrencyLimiter(ResilienceProps p) {
+            return new AdaptiveConcurrencyLimiter("inbound", p.adaptiveConcurrency().toConfig());
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+        @ConditionalOnClass(OncePerRequestFilter.class)
+        static class FilterConfiguration {
+
+            @Bean
+            FilterRegistrationBean<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilter(ResilienceProps p,
+                                                                                        AdaptiveConcurrencyLimiter limiter) {
+                var reg = new FilterRegistrationBean<>(new AdaptiveConcurrencyFilter(limiter,
+                        p.adaptiveConcurrency().criticalPaths()));
+                // ahead of request correlation (HIGHEST_PRECEDENCE + 10) so shed requests cost as little as possible
+                reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+                return reg;
+            }
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(MeterBinder.class)
+        static class MetricsConfiguration {
+
+            @Bean
+            AdaptiveConcurrencyMetrics adaptiveConcurrencyMetrics(AdaptiveConcurrencyLimiter limiter) {
+                return new AdaptiveConcurrencyMetrics(limiter);
+            }
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "recipeforcode.resilience.load-shedding", name = "enabled", havingValue = "true")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(OncePerRequestFilter.class)
+    static class LoadSheddingConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        LoadShedder loadShedder(ResilienceProps p, ObjectProvider<TomcatQueueDepth> tomcatQueue) {
+            IntSupplier waiting = tomcatQueue.getIfAvailable();
+            return new LoadShedder(p.loadShedding().toConfig(), waiting != null ? waiting : () -> 0);
+        }
+
+        @Bean
+        FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(ResilienceProps p, LoadShedder shedder) {
+            var l = p.loadShedding();
+            var reg = new FilterRegistrationBean<>(new LoadSheddingFilter(shedder, l.priorityHeader(), l.criticalPaths(),
+                    l.trustCriticalHeader()));
+            // first of all filters, ahead of the observation filter and request correlation
+            reg.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return reg;
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(name = "org.apache.catalina.startup.Tomcat")
+        static class TomcatConfiguration {
+
+            @Bean
+            TomcatQueueDepth tomcatQueueDepth() {
+                return new TomcatQueueDepth();
+            }
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(MeterBinder.class)
+        static class MetricsConfiguration {
+
+            @Bean
+            LoadShedderMetrics loadShedderMetrics(LoadShedder shedder) {
+                return new LoadShedderMetrics(shedder);
+            }
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "recipeforcode.resilience.rate-limit", name = "enabled", havingValue = "true")
+    static class RateLimitConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        KeyedRateLimiters keyedRateLimiters(ResilienceProps p) {
+            return p.rateLimit().toLimiters();
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+        @ConditionalOnClass(OncePerRequestFilter.class)
+        static class FilterConfiguration {
+
+            @Bean
+            FilterRegistrationBean<RateLimitFilter> rateLimitFilter(KeyedRateLimiters limiters) {
+                var reg = new FilterRegistrationBean<>(new RateLimitFilter(limiters));
+                // inside the observation filter, so 429s are measured, and ahead of adaptive concurrency, so they
+                // never take a slot
+                reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 4);
+                return reg;
+            }
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(MeterBinder.class)
+        static class MetricsConfiguration {
+
+            @Bean
+            RateLimiterMetrics rateLimiterMetrics(ResilienceProps p, KeyedRateLimiters limiters) {
+                return new RateLimiterMetrics(limiters, p.rateLimit().topKeys(), p.rateLimit().topKeysRefresh());
+            }
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnMissingClass("io.micrometer.core.instrument.binder.MeterBinder")
+        static class SweepConfiguration {
+
+            @Bean
+            RateLimitSweeper rateLimitSweeper(ResilienceProps p, KeyedRateLimiters limiters) {
+                return new RateLimitSweeper(limiters, p.rateLimit().topKeysRefresh());
+            }
+        }
     }
 }
@@ -0,0 +1,202 @@
+package com.recipeforcode.platform.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties("recipeforcode.resilience")
+public record ResilienceProps(@DefaultValue AdaptiveConcurrency adaptiveConcurrency,
+                              @DefaultValue Retry retry,
+                              @DefaultValue Hedging hedging,
+                              @DefaultValue HttpClient httpClient,
+                              @DefaultValue LoadShedding loadShedding,
+                              @DefaultValue RateLimit rateLimit,
+                              Map<String, BreakerProfile> profiles) {
+
+    public ResilienceProps {
+        profiles = profiles == null ? Map.of() : profiles;
+    }
+
+    /**
+     * Latency-driven concurrency limit for inbound servlet requests (see {@link AdaptiveConcurrencyLimiter}).
+     * Requests under {@code criticalPaths} are never limited.
+     */
+    public record AdaptiveConcurrency(@DefaultValue("false") boolean enabled,
+                                      @DefaultValue("20") int initialLimit,
+                                      @DefaultValue("4") int minLimit,
+                                      @DefaultValue("500") int maxLimit,
+                                      @DefaultValue("0.2") double smoothing,
+                                      @DefaultValue("10") int sampleWindow,
+                                      @DefaultValue("1000") int baselineWindow,
+                                      @DefaultValue("1.5") double rttTolerance,
+                                      @DefaultValue("/actuator/health") List<String> criticalPaths) {
+
+        AdaptiveConcurrencyLimiter.Config toConfig() {
+            return new AdaptiveConcurrencyLimiter.Config(initialLimit, minLimit, maxLimit, smoothing, sampleWindow, baselineWindow, rttTolerance);
+        }
+    }
+
+    /**
+     * Platform retry defaults: decorrelated-jitter backoff (see {@link DecorrelatedJitterBackoff}) and a retry
+     * budget (see {@link RetryBudget}) shared by retries built from the default configuration.
+     */
+    public record Retry(@DefaultValue("3") int maxAttempts,
+                        @DefaultValue("100ms") Duration initialInterval,
+                        @DefaultValue("5s") Duration maxInterval,
+                        @DefaultValue Budget budget) {
+
+        public record Budget(@DefaultValue("true") boolean enabled,
+                             @DefaultValue("0.2") double ratio,
+                             @DefaultValue("10") int minRetriesPerSecond,
+                             @DefaultValue("10s") Duration window) {
+        }
+
+        RetryBudgets toBudgets() {
+            var backoff = new DecorrelatedJitterBackoff(initialInterval, maxInterval);
+            var budgetConfig = budget.enabled() ? new RetryBudget.Config(budget.ratio(), budget.minRetriesPerSecond(), budget.window()) : null;
+            return new RetryBudgets(maxAttempts, backoff, budgetConfig);
+        }
+    }
+
+    /**
+     * Hedged calls (see {@link Hedger}), shared by every hedged target.
+     */
+    public record Hedging(@DefaultValue("false") boolean enabled,
+                          @DefaultValue("0.95") double percentile,
+                          @DefaultValue("1ms") Duration minDelay,
+                          @DefaultValue("1s") Duration maxDelay,
+                          @DefaultValue("100") int minSamples,
+                          @DefaultValue("30s") Duration window,
+                          @DefaultValue("16") int maxInFlightHedges) {
+
+        Hedger.Config toConfig() {
+            return new Hedger.Config(percentile, minDelay, maxDelay, minSamples, window, maxInFlightHedges);
+        }
+    }
+
+    /**
+     * Shared outbound client applied to every auto-configured {@code RestClient.Builder} (see
+     * {@link OutboundHttpClient}); {@code retry} turns on retries of idempotent requests.
+     */
+    public record HttpClient(@DefaultValue("false") boolean enabled,
+                             @DefaultValue("200") int maxConcurrentRequests,
+                             @DefaultValue("1s") Duration acquireTimeout,
+                             @DefaultValue("2s") Duration connectTimeout,
+                             @DefaultValue("10s") Duration readTimeout,
+                             @DefaultValue("HTTP_2") java.net.http.HttpClient.Version version,
+                             @DefaultValue("X-Request-Id") String requestIdHeader,
+                             @DefaultValue("requestId") String requestIdMdcKey,
+                             @DefaultValue("true") boolean retry) {
+
+        OutboundHttpClient.Config toConfig() {
+            return new OutboundHttpClient.Config(maxConcurrentRequests, acquireTimeout, connectTimeout, readTimeout,
+                    version, requestIdHeader.isEmpty() ? null : requestIdHeader, requestIdMdcKey);
+        }
+    }
+
+    /**
+     * Inbound load shedding on JVM pressure (see {@link LoadShedder}). Requests under {@code criticalPaths} are
+     * never shed, nor, with {@code trustCriticalHeader}, those marked {@code critical} in {@code priorityHeader};
+     * {@code low} ones go first.
+     */
+    public record LoadShedding(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("0.25") double maxGcTimeFraction,
+                               @DefaultValue("0.9") double maxHeapAfterGc,
+                               @DefaultValue("1000") int maxQueueDepth,
+                               Duration maxLatency,
+                               @DefaultValue("10s") Duration latencyWindow,
+                               @DefaultValue("1s") Duration sampleInterval,
+                               @DefaultValue("0.8") double lowPriorityWatermark,
+                               @DefaultValue("X-Request-Priority") String priorityHeader,
+                               @DefaultValue("/actuator/health") List<String> criticalPaths,
+                               @DefaultValue("false") boolean trustCriticalHeader) {
+
+        LoadShedder.Config toConfig() {
+            return new LoadShedder.Config(maxGcTimeFraction, maxHeapAfterGc, maxQueueDepth, maxLatency, latencyWindow,
+                    sampleInterval, lowPriorityWatermark);
+        }
+    }
+
+    /**
+     * Per-client rate limits on inbound servlet requests (see {@link KeyedRateLimiter}). A request takes the first
+     * route whose {@code match} path globs fit it; its client key is read from the route's {@code keyHeader}, or
+     * the one set here, and falls back to the remote address.
+     */
+    public record RateLimit(@DefaultValue("false") boolean enabled,
+                            @DefaultValue("X-Tenant-Id") String keyHeader,
+                            @DefaultValue("100000") int maxKeys,
+                            @DefaultValue("5m") Duration idleTimeout,
+                            @DefaultValue("60") int newKeysPerAddress,
+                            @DefaultValue("10") int topKeys,
+                            @DefaultValue("10s") Duration topKeysRefresh,
+                            Map<String, Route> routes) {
+
+        public RateLimit {
+            routes = routes == null ? Map.of() : routes;
+        }
+
+        public record Route(List<String> match,
+                            String keyHeader,
+                            @DefaultValue("10") double permitsPerSecond,
+                            @DefaultValue("20") int burst) {
+
+            public Route {
+                match = match == null ? List.of() : match;
+            }
+        }
+
+        KeyedRateLimiters toLimiters() {
+            var limiters = new ArrayList<KeyedRateLimiters.Route>();
+            routes.forEach((name, route) -> {
+                var config = new KeyedRateLimiter.Config(route.permitsPerSecond(), route.burst(), maxKeys, idleTimeout,
+                        newKeysPerAddress);
+                limiters.add(new KeyedRateLimiters.Route(route.match(),
+                        route.keyHeader() != null ? route.keyHeader() : keyHeader, new KeyedRateLimiter(name, config)));
+            });
+            return new KeyedRateLimiters(limiters);
+        }
+    }
+
+    /**
+     * Per-endpoint circuit breakers (see {@link EndpointCircuitBreakers}). Endpoints take the first profile whose
+     * {@code match} globs fit their name; the profile named {@code default}, if any, configures all others.
+     */
+    public record BreakerProfile(List<String> match,
+                                 @DefaultValue("50") float failureRateThreshold,
+                                 @DefaultValue("20") int minimumCalls,
+                                 @DefaultValue("10s") Duration window,
+                                 @DefaultValue("5s") Duration waitInOpen,
+                                 @DefaultValue("5") int permittedInHalfOpen,
+                                 @DefaultValue("30s") Duration maxWaitInHalfOpen,
+                                 @DefaultValue("10m") Duration idleTimeout) {
+
+        public BreakerProfile {
+            match = match == null ? List.of() : match;
+        }
+
+        static BreakerProfile defaults() {
+            return new BreakerProfile(List.of(), 50, 20, Duration.ofSeconds(10), Duration.ofSeconds(5), 5, Duration.ofSeconds(30),
+                    Duration.ofMinutes(10));
+        }
+
+        EndpointCircuitBreaker.Config toConfig() {
+            return new EndpointCircuitBreaker.Config(failureRateThreshold, minimumCalls, window, waitInOpen, permittedInHalfOpen,
+                    maxWaitInHalfOpen, idleTimeout);
+        }
+    }
+
+    EndpointCircuitBreakers toEndpointCircuitBreakers() {
+        var named = new ArrayList<EndpointCircuitBreakers.Profile>();
+        profiles.forEach((name, profile) -> {
+            if (!EndpointCircuitBreakers.FALLBACK.equals(name)) {
+                named.add(new EndpointCircuitBreakers.Profile(name, profile.match(), profile.toConfig()));
+            }
+        });
+        var fallback = profiles.getOrDefault(EndpointCircuitBreakers.FALLBACK, BreakerProfile.defaults());
+        return new EndpointCircuitBreakers(named, fallback.toConfig());
+    }
+}
@@ -0,0 +1,163 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.IntervalFunction;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps retries to a fraction of recent successful calls, after Finagle's retry budgets.
+ * <p>
+ * Successful calls deposit into one-second slots of a sliding window; each retry withdraws from the slot of the
+ * current second. A retry is allowed while withdrawals in the window stay below
+ * {@code minRetriesPerSecond * window + ratio * deposits}, so a healthy backend retries its occasional failure
+ * freely while a failing one stops multiplying its own load by {@code maxAttempts}: once successes dry up only the
+ * small reserve remains. Slot counters are {@link LongAdder}s, so concurrent callers do not contend on one word;
+ * the check and the withdrawal are not atomic, which lets concurrent callers overshoot the cap by at most one
+ * retry each.
+ * <p>
+ * Deposits come from {@link #deposit()}, or are polled from a monotonic success count (e.g. a Resilience4j
+ * retry's metrics) whenever the budget is consulted.
+ */
+public class RetryBudget {
+
+    private final String name;
+    private final Config config;
+    private final Slot[] slots;
+    private final LongSupplier successes;
+    private final LongSupplier nanoClock;
+    private final AtomicLong seenSuccesses = new AtomicLong();
+    private final AtomicLong polledAt;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * @param ratio               retries allowed per successful call in the window
+     * @param minRetriesPerSecond retries always allowed, regardless of successes
+     * @param window              how long deposits and withdrawals count, whole seconds
+     */
+    public record Config(double ratio, int minRetriesPerSecond, Duration window) {
+        public Config {
+            if (ratio < 0) throw new IllegalArgumentException("ratio must be >= 0");
+            if (minRetriesPerSecond < 0) throw new IllegalArgumentException("minRetriesPerSecond must be >= 0");
+            if (window.toSeconds() < 1) throw new IllegalArgumentException("window must be at least one second");
+        }
+    }
+
+    /**
+     * @param successes monotonic count of successful calls to poll for deposits, or {@code null} to rely on
+     *                  {@link #deposit()}
+     */
+    public RetryBudget(String name, Config config, LongSupplier successes) {
+        this(name, config, successes, System::nanoTime);
+    }
+
+    RetryBudget(String name, Config config, LongSupplier successes, LongSupplier nanoClock) {
+        this.name = name;
+        this.config = config;
+        this.successes = successes;
+        this.nanoClock = nanoClock;
+        this.slots = new Slot[(int) config.window().toSeconds()];
+        for (int i = 0; i < slots.length; i++) slots[i] = new Slot();
+        this.polledAt = new AtomicLong(second());
+    }
+
+    /** Records a successful call. */
+    public void deposit() {
+        slot(second()).deposits.increment();
+    }
+
+    /** Withdraws one retry if the budget allows it. */
+    public boolean tryAcquire() {
+        long now = second();
+        poll(now);
+        if (available(now) < 1) {
+            exhausted.increment();
+            return false;
+        }
+        slot(now).withdrawals.increment();
+        retries.increment();
+        return true;
+    }
+
+    /**
+     * Backoff that consults this budget before each retry on an exception and returns {@code -1} when it is
+     * exhausted, which Resilience4j treats as "do not retry" and surfaces the last exception. Retries on results
+     * are not budgeted: Resilience4j has no exception to surface for them.
+     */
+    public <T> IntervalBiFunction<T> withBackoff(IntervalFunction backoff) {
+        return (attempt, outcome) -> outcome.isLeft() && !tryAcquire() ? -1L : backoff.apply(attempt);
+    }
+
+    /** Retries left in the current window. */
+    public long getAvailable() {
+        long now = second();
+        poll(now);
+        return Math.max(0, (long) available(now));
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private double available(long now) {
+        long deposits = 0, withdrawals = 0;
+        for (var slot : slots) {
+            long second = slot.second.get();
+            if (second <= now && second > now - slots.length) {
+                deposits += slot.deposits.sum();
+                withdrawals += slot.withdrawals.sum();
+            }
+        }
+        return (double) config.minRetriesPerSecond() * slots.length + config.ratio() * deposits - withdrawals;
+    }
+
+    private void poll(long now) {
+        if (successes == null) return;
+        long total = successes.getAsLong();
+        long previous = seenSuccesses.getAndAccumulate(total, Math::max);
+        long since = polledAt.getAndAccumulate(now, Math::max);
+        if (total <= previous) return;
+        // successes since the last poll are spread evenly over the seconds in between; only the share that falls
+        // inside the window is deposited, so a quiet spell without failures does not look like a burst of successes
+        long elapsed = Math.max(1, now - since);
+        long first = Math.max(now - elapsed + 1, now - slots.length + 1);
+        long perSecond = (total - previous) / elapsed;
+        long remainder = (total - previous) % elapsed;
+        for (long s = first; s < now; s++) slot(s).deposits.add(perSecond);
+        slot(now).deposits.add(perSecond + remainder);
+    }
+
+    private Slot slot(long second) {
+        var slot = slots[(int) Math.floorMod(second, (long) slots.length)];
+        long current = slot.second.get();
+        // the thread that moves a slot to a new second clears it; counts landing in between are lost, never doubled
+        if (current < second && slot.second.compareAndSet(current, second)) {
+            slot.deposits.reset();
+            slot.withdrawals.reset();
+        }
+        return slot;
+    }
+
+    private long second() {
+        return TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong());
+    }
+
+    private static final class Slot {
+        final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+        final LongAdder deposits = new LongAdder();
+        final LongAdder withdrawals = new LongAdder();
+    }
+}
@@ -0,0 +1,37 @@
+package com.recipeforcode.platform.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes retries allowed and denied by each {@link RetryBudget}, and the retries left, tagged with its name.
+ * Budgets created after binding are registered as they appear.
+ */
+public class RetryBudgetMetrics implements MeterBinder {
+
+    private final RetryBudgets budgets;
+
+    public RetryBudgetMetrics(RetryBudgets budgets) {
+        this.budgets = budgets;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        budgets.forEachBudget(budget -> {
+            FunctionCounter.builder("recipeforcode.retry.budget.retries", budget, RetryBudget::getRetryCount)
+                    .tag("name", budget.getName())
+                    .description("Retries the budget allowed")
+                    .register(registry);
+            FunctionCounter.builder("recipeforcode.retry.budget.exhausted", budget, RetryBudget::getExhaustedCount)
+                    .tag("name", budget.getName())
+                    .description("Retries denied because the budget was exhausted")
+                    .register(registry);
+            Gauge.builder("recipeforcode.retry.budget.available", budget, RetryBudget::getAvailable)
+                    .tag("name", budget.getName())
+                    .description("Retries left in the current budget window")
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.github.resilience4j.retry.Retry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Retry budgets per backend, fed by the successes of the Resilience4j retries of the same name.
+ * <p>
+ * {@link #customizer(String)} applies the platform backoff and, when budgets are enabled, the budget of that name.
+ * The {@code default} budget is shared by every retry built from the default configuration (one budget per
+ * instance); declaring a customizer for a named retry gives that backend a budget of its own. Registered as a
+ * {@link RegistryEventConsumer} so the retry registry reports the retries whose metrics become deposits.
+ */
+public class RetryBudgets implements RegistryEventConsumer<Retry> {
+
+    public static final String DEFAULT = "default";
+
+    private final int maxAttempts;
+    private final IntervalFunction backoff;
+    private final RetryBudget.Config budgetConfig;
+    private final LongSupplier nanoClock;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    private final List<Retry> retries = new CopyOnWriteArrayList<>();
+    private final List<Consumer<RetryBudget>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param budgetConfig budget settings, or {@code null} to apply the backoff without budgets
+     */
+    public RetryBudgets(int maxAttempts, IntervalFunction backoff, RetryBudget.Config budgetConfig) {
+        this(maxAttempts, backoff, budgetConfig, System::nanoTime);
+    }
+
+    RetryBudgets(int maxAttempts, IntervalFunction backoff, RetryBudget.Config budgetConfig, LongSupplier nanoClock) {
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.budgetConfig = budgetConfig;
+        this.nanoClock = nanoClock;
+    }
+
+    /** Platform retry settings for the retry (or retry configuration) named {@code name}. */
+    public RetryConfigCustomizer customizer(String name) {
+        if (budgetConfig == null) {
+            return RetryConfigCustomizer.of(name, builder -> builder.maxAttempts(maxAttempts).intervalFunction(backoff));
+        }
+        var budget = budget(name);
+        return RetryConfigCustomizer.of(name, builder -> builder.maxAttempts(maxAttempts).intervalBiFunction(budget.withBackoff(backoff)));
+    }
+
+    public RetryBudget budget(String name) {
+        if (budgetConfig == null) throw new IllegalStateException("Retry budgets are disabled");
+        var budget = budgets.get(name);
+        if (budget != null) return budget;
+        var created = new RetryBudget(name, budgetConfig, () -> successes(name), nanoClock);
+        budget = budgets.putIfAbsent(name, created);
+        if (budget != null) return budget;
+        listeners.forEach(l -> l.accept(created));
+        return created;
+    }
+
+    public Collection<RetryBudget> getBudgets() {
+        return budgets.values();
+    }
+
+    /** Calls {@code listener} for every budget, now and as new ones are created. */
+    void forEachBudget(Consumer<RetryBudget> listener) {
+        listeners.add(listener);
+        budgets.values().forEach(listener);
+    }
+
+    private long successes(String name) {
+        long total = 0;
+        for (var retry : retries) {
+            // the default budget covers every retry without a budget of its own
+            boolean counts = name.equals(retry.getName()) || DEFAULT.equals(name) && !budgets.containsKey(retry.getName());
+            if (counts) {
+                var m = retry.getMetrics();
+                total += m.getNumberOfSuccessfulCallsWithoutRetryAttempt() + m.getNumberOfSuccessfulCallsWithRetryAttempt();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void onEntryAddedEvent(EntryAddedEvent<Retry> event) {
+        retries.add(event.getAddedEntry());
+    }
+
+    @Override
+    public void onEntryRemovedEvent(EntryRemovedEvent<Retry> event) {
+        retries.remove(event.getRemovedEntry());
+    }
+
+    @Override
+    public void onEntryReplacedEvent(EntryReplacedEvent<Retry> event) {
+        retries.remove(event.getOldEntry());
+        retries.add(event.getNewEntry());
+    }
+}
@@ -0,0 +1,35 @@
+package com.recipeforcode.platform.resilience;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntSupplier;
+
+/**
+ * Requests the embedded Tomcat has accepted but not yet handed to a worker thread, summed over its connectors.
+ * The executor is created when a connector starts, so it is looked up on every read. With virtual threads Tomcat
+ * has no queue (every request gets a thread at once) and this reads {@code 0}; the requests then show up as in
+ * flight instead.
+ */
+public class TomcatQueueDepth implements IntSupplier, TomcatConnectorCustomizer {
+
+    private final List<ProtocolHandler> handlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void customize(Connector connector) {
+        handlers.add(connector.getProtocolHandler());
+    }
+
+    @Override
+    public int getAsInt() {
+        int queued = 0;
+        for (var handler : handlers) {
+            if (handler.getExecutor() instanceof ThreadPoolExecutor executor) queued += executor.getQueue().size();
+        }
+        return queued;
+    }
+}
@@ -0,0 +1,180 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AdaptiveConcurrencyLimiter.Config config = new AdaptiveConcurrencyLimiter.Config(20, 4, 500, 0.2, 10, 1000, 1.5);
+
+    @Test
+    void shouldShrinkWhenLatencyRisesAndRecoverWhenItFalls() {
+        // no probes during this test: the baseline stays at the 10ms measured first
+        var limiter = new AdaptiveConcurrencyLimiter("test", new AdaptiveConcurrencyLimiter.Config(20, 4, 500, 0.2, 10, 1_000_000, 1.5));
+        saturate(limiter, 2_000, 10 * MS);
+        int steady = limiter.getLimit();
+        assertThat(steady).isGreaterThan(20);
+
+        saturate(limiter, 2_000, 40 * MS);
+        int congested = limiter.getLimit();
+        assertThat(congested).isLessThan(steady / 2);
+
+        saturate(limiter, 2_000, 10 * MS);
+        assertThat(limiter.getLimit()).isGreaterThan(congested);
+    }
+
+    @Test
+    void shouldNotGrowOnUnderusedLimit() {
+        var limiter = new AdaptiveConcurrencyLimiter("test", config);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(MS);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldRejectThroughResilience4jDecoratorsWhenLimitReached() {
+        var limiter = new AdaptiveConcurrencyLimiter("test", new AdaptiveConcurrencyLimiter.Config(1, 1, 1, 0.2, 10, 1000, 1.5));
+        var rejected = new int[1];
+        limiter.getEventPublisher().onCallRejected(e -> rejected[0]++);
+
+        var nested = Bulkhead.decorateSupplier(limiter, () -> "inner");
+        var outer = Bulkhead.decorateSupplier(limiter, nested);
+
+        assertThat(Bulkhead.decorateSupplier(limiter, () -> "ok").get()).isEqualTo("ok");
+        assertThatThrownBy(outer::get).isInstanceOf(BulkheadFullException.class);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+        assertThat(rejected[0]).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReleaseCompletionStagesCompletedOnAnotherThreadWithoutASample() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter("test", new AdaptiveConcurrencyLimiter.Config(2, 1, 10, 1.0, 1, 1000, 1.0));
+        var pending = new CompletableFuture<String>();
+        var decorated = Bulkhead.decorateCompletionStage(limiter, () -> pending);
+
+        var stage = decorated.get();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        var other = new Thread(() -> pending.complete("done"));
+        other.start();
+        other.join();
+
+        assertThat(stage.toCompletableFuture().get()).isEqualTo("done");
+        assertThat(limiter.getInFlight()).isZero();
+        // a one-call window would have moved the limit had the completion been sampled
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMapBulkheadConfigOntoTheLimitCeiling() {
+        var limiter = new AdaptiveConcurrencyLimiter("test", config);
+
+        limiter.changeConfig(BulkheadConfig.custom().maxConcurrentCalls(10).build());
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(10);
+        saturate(limiter, 2_000, MS);
+        assertThat(limiter.getLimit()).isLessThanOrEqualTo(10);
+        assertThatThrownBy(() -> limiter.changeConfig(
+                BulkheadConfig.custom().maxConcurrentCalls(0).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Discrete-event simulation of a service with 20 workers and a 10ms mean service time (capacity ~2000 rps)
+     * offered 3000 rps for 30 simulated seconds. A fixed bulkhead sized for peak (200) admits enough work to
+     * build a deep queue in front of the workers; the adaptive limit settles near the worker count and sheds
+     * the excess instead, so admitted requests see far lower tail latency.
+     */
+    @Test
+    void shouldKeepTailLatencyLowerThanFixedBulkheadUnderSaturation() {
+        var fixed = simulate(inFlight -> inFlight < 200, rtt -> {});
+
+        var limiter = new AdaptiveConcurrencyLimiter("sim", config);
+        var adaptive = simulate(inFlight -> limiter.tryAcquire(), limiter::release);
+
+        assertThat(adaptive.p99()).isLessThan(fixed.p99() / 3);
+        // shedding is the price: both keep the workers busy, so goodput stays comparable
+        assertThat(adaptive.completed()).isGreaterThan((long) (fixed.completed() * 0.9));
+    }
+
+    record Result(long completed, long rejected, long p99) {}
+
+    private static Result simulate(IntPredicate admit, LongConsumer onComplete) {
+        int workers = 20;
+        double meanService = 10 * MS, arrivalsPerNano = 3_000 / 1e9;
+        long horizon = TimeUnit.SECONDS.toNanos(30);
+        var random = new SplittableRandom(42);
+
+        var completions = new PriorityQueue<long[]>((a, b) -> Long.compare(a[0], b[0])); // {finishAt, arrivedAt}
+        var queue = new ArrayDeque<Long>();
+        long[] latencies = new long[(int) (horizon * arrivalsPerNano * 1.2)];
+        int done = 0, inFlight = 0, busy = 0;
+        long rejected = 0;
+        long nextArrival = 0;
+        while (nextArrival < horizon) {
+            if (!completions.isEmpty() && completions.peek()[0] <= nextArrival) {
+                var c = completions.poll();
+                long rtt = c[0] - c[1];
+                inFlight--;
+                onComplete.accept(rtt);
+                if (c[1] > horizon / 3) latencies[done++] = rtt; // skip warm-up
+                busy--;
+                if (!queue.isEmpty()) {
+                    busy++;
+                    completions.add(new long[]{c[0] + service(random, meanService), queue.poll()});
+                }
+                continue;
+            }
+            long now = nextArrival;
+            nextArrival += (long) (-Math.log(1 - random.nextDouble()) / arrivalsPerNano);
+            if (!admit.test(inFlight)) {
+                rejected++;
+                continue;
+            }
+            inFlight++;
+            if (busy < workers) {
+                busy++;
+                completions.add(new long[]{now + service(random, meanService), now});
+            } else {
+                queue.add(now);
+            }
+        }
+        var measured = Arrays.copyOf(latencies, done);
+        Arrays.sort(measured);
+        return new Result(done, rejected, measured[(int) (done * 0.99)]);
+    }
+
+    /** 8-12ms, with a slow 1% at 3x. */
+    private static long service(SplittableRandom random, double mean) {
+        double t = mean * (0.8 + 0.4 * random.nextDouble());
+        return (long) (random.nextDouble() < 0.01 ? 3 * t : t);
+    }
+
+    /** Keeps the limiter fully used with calls of the given latency. */
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, int calls, long rttNanos) {
+        for (int i = 0; i < calls; i++) {
+            while (limiter.tryAcquire()) { }
+            limiter.release(rttNanos);
+        }
+        while (limiter.getInFlight() > 0) limiter.release(-1);
+    }
+}
@@ -0,0 +1,130 @@
+package com.recipeforcode.platform.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EndpointCircuitBreakerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private final EndpointCircuitBreaker.Config config =
+            new EndpointCircuitBreaker.Config(50, 10, Duration.ofSeconds(10), Duration.ofSeconds(5), 2, Duration.ofSeconds(10), Duration.ofMinutes(1));
+
+    @Test
+    void shouldOpenOnFailureRateAndCloseAfterSuccessfulTrials() {
+        var counters = new EndpointCircuitBreaker.Counters();
+        var breaker = new EndpointCircuitBreaker("payments", "default", config, counters, clock::get);
+        for (int i = 0; i < 5; i++) breaker.onSuccess();
+        for (int i = 0; i < 4; i++) breaker.onError();
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.CLOSED);
+
+        breaker.onError();
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThatThrownBy(() -> breaker.execute(() -> "x")).isInstanceOf(EndpointCircuitOpenException.class);
+
+        clock.addAndGet(5 * SECOND);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.CLOSED);
+        assertThat(counters.getOpenedCount()).isEqualTo(1);
+        assertThat(counters.getRejectedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRecordErrorsAsFailuresAndReopenWhenTrialsNeverReport() throws Exception {
+        var breaker = new EndpointCircuitBreaker("payments", "default", config, new EndpointCircuitBreaker.Counters(), clock::get);
+        for (int i = 0; i < 10; i++) breaker.onError();
+        clock.addAndGet(5 * SECOND);
+
+        // an Error from a trial still reports its outcome: with the second trial, half failed and the breaker opens
+        assertThatThrownBy(() -> breaker.execute(() -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+        assertThat(breaker.execute(() -> "x")).isEqualTo("x");
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.OPEN);
+
+        clock.addAndGet(5 * SECOND);
+        // both trial permits taken and never reported
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.HALF_OPEN);
+
+        clock.addAndGet(10 * SECOND);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.OPEN);
+        clock.addAndGet(5 * SECOND);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldForgetOutcomesOutsideWindow() {
+        var breaker = new EndpointCircuitBreaker("payments", "default", config, new EndpointCircuitBreaker.Counters(), clock::get);
+        for (int i = 0; i < 9; i++) breaker.onError();
+        clock.addAndGet(10 * SECOND);
+        breaker.onError();
+
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldCountEveryOutcomeFromConcurrentThreads() throws Exception {
+        // minimumCalls 32000: opens only if none of the 32 * 1000 concurrent outcomes is lost
+        var strict = new EndpointCircuitBreaker.Config(100, 32_000, Duration.ofSeconds(60), Duration.ofSeconds(5), 1, Duration.ZERO, Duration.ofMinutes(1));
+        var breaker = new EndpointCircuitBreaker("inventory", "default", strict, new EndpointCircuitBreaker.Counters());
+        int threads = 32;
+        var done = new CountDownLatch(threads);
+        try (var pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                pool.execute(() -> {
+                    for (int i = 0; i < 1_000; i++) breaker.onError();
+                    done.countDown();
+                });
+            }
+            done.await();
+        }
+        assertThat(breaker.getState()).isEqualTo(EndpointCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldPickFirstMatchingProfileAndEvictIdleBreakers() {
+        var strict = new EndpointCircuitBreaker.Config(25, 5, Duration.ofSeconds(10), Duration.ofSeconds(5), 2, Duration.ZERO, Duration.ofSeconds(30));
+        var breakers = new EndpointCircuitBreakers(List.of(
+                new EndpointCircuitBreakers.Profile("payments", List.of("payments-*", "*.billing.internal"), strict)),
+                config, clock::get);
+
+        assertThat(breakers.breaker("payments-eu").getProfile()).isEqualTo("payments");
+        assertThat(breakers.breaker("api.billing.internal/invoices").getProfile()).isEqualTo("default");
+        assertThat(breakers.breaker("ledger.billing.internal").getProfile()).isEqualTo("payments");
+        var inventory = breakers.breaker("inventory");
+
+        clock.addAndGet(31 * SECOND);
+        inventory.onSuccess();
+        clock.addAndGet(SECOND);
+        breakers.breaker("inventory");
+
+        // payments breakers idled past 30s; the default profile keeps breakers for a minute
+        assertThat(breakers.getBreakers()).extracting(EndpointCircuitBreaker::getName)
+                .containsExactlyInAnyOrder("inventory", "api.billing.internal/invoices");
+    }
+}
@@ -0,0 +1,136 @@
+package com.recipeforcode.platform.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgerTest {
+
+    private static final Hedger.Config CONFIG =
+            new Hedger.Config(0.9, Duration.ofMillis(1), Duration.ofSeconds(1), 20, Duration.ofSeconds(30), 4);
+
+    private HttpServer server;
+    private HttpClient client;
+    private Hedgers hedgers;
+
+    @BeforeEach
+    void start() throws IOException {
+        // one request in twenty-five hits a "slow replica", far enough above a fast call that a hedge sent at the p90
+        // still clears it on a slow machine; over 400 calls a primary and its hedge both landing there is rare
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(25) == 0 ? 300 : 3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // headers only: a single write, so Nagle and delayed ACKs don't add 40ms to every call
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        client = HttpClient.newHttpClient();
+        hedgers = new Hedgers(CONFIG);
+    }
+
+    @AfterEach
+    void stop() {
+        hedgers.close();
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldCutTailLatencyOfSlowReplicas() throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/")).build();
+        Callable<Integer> call = () -> client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        var hedger = hedgers.hedger("stub");
+
+        long direct = p99(400, call);
+        // until minSamples latencies are known the hedger waits maxDelay
+        for (int i = 0; i < CONFIG.minSamples(); i++) hedger.execute(call);
+        long hedged = p99(400, () -> hedger.execute(call));
+
+        assertThat(hedged).isLessThan(direct / 3);
+        assertThat(hedger.getHedgeCount()).isPositive().isLessThan(hedger.getCallCount() / 4);
+        assertThat(hedger.getWinCount()).isPositive().isLessThanOrEqualTo(hedger.getHedgeCount());
+    }
+
+    @Test
+    void shouldReportFailureOnlyAfterEveryAttemptFailed() {
+        var hedger = hedgers.hedger("failing");
+        var attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> hedger.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IOException("down");
+        })).isInstanceOf(IOException.class).hasMessage("down");
+        assertThat(attempts).hasValue(1);
+        assertThat(hedger.getHedgeCount()).isZero();
+    }
+
+    @Test
+    void shouldNotHedgeBeyondInFlightBudget() throws Exception {
+        var hedger = new Hedger("budget", new Hedger.Config(0.5, Duration.ZERO, Duration.ZERO, 0, Duration.ofSeconds(1), 0),
+                Executors.newVirtualThreadPerTaskExecutor());
+
+        assertThat(hedger.execute(() -> {
+            Thread.sleep(100);
+            return "slow";
+        })).isEqualTo("slow");
+        assertThat(hedger.getHedgeCount()).isZero();
+        assertThat(hedger.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunAttemptsWithTheCallersMdc() throws Exception {
+        var pool = Executors.newSingleThreadExecutor();
+        var hedger = new Hedger("mdc", new Hedger.Config(0.5, Duration.ZERO, Duration.ZERO, 0, Duration.ofSeconds(1), 1), pool);
+        var seen = new CopyOnWriteArrayList<String>();
+        MDC.put("requestId", "r1");
+        try {
+            assertThat(hedger.execute(() -> {
+                seen.add(MDC.get("requestId"));
+                return "ok";
+            })).isEqualTo("ok");
+        } finally {
+            MDC.clear();
+        }
+        // the pooled thread is handed back without the caller's MDC
+        assertThat(pool.submit(() -> MDC.get("requestId")).get()).isNull();
+        pool.shutdownNow();
+        assertThat(seen).isNotEmpty().containsOnly("r1");
+    }
+
+    private static long p99(int calls, Callable<?> call) throws Exception {
+        var latencies = new long[calls];
+        for (int i = 0; i < calls; i++) {
+            long start = System.nanoTime();
+            call.call();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(calls * 0.99) - 1]);
+    }
+}
@@ -0,0 +1,170 @@
+package com.recipeforcode.platform.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyedRateLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private long now = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void shouldAdmitABurstThenTheSustainedRatePerKey() {
+        var limiter = limiter(10, 5, 100);
+        for (int i = 0; i < 5; i++) assertThat(limiter.tryAcquire("a")).isZero();
+        // the next permit is one emission interval (100ms) away
+        assertThat(limiter.tryAcquire("a")).isEqualTo(100 * MS);
+        assertThat(limiter.tryAcquire("b")).isZero();
+
+        now += 250 * MS;
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(50 * MS);
+        assertThat(limiter.getAdmittedCount()).isEqualTo(8);
+        assertThat(limiter.getRejectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictIdleBucketsAndShareOneBucketPastMaxKeys() {
+        var limiter = limiter(1, 1, 2);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        // a third and fourth key share the overflow bucket
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.tryAcquire("d")).isPositive();
+        assertThat(limiter.getKeyCount()).isEqualTo(2);
+        assertThat(limiter.topRejected(5)).containsExactly(new KeyedRateLimiter.KeyCount(KeyedRateLimiter.OVERFLOW_KEY, 1));
+
+        // full again after 1s, idle for the 1m timeout after that
+        now += TimeUnit.SECONDS.toNanos(61);
+        assertThat(limiter.getKeyCount()).isEqualTo(2);
+        limiter.sweep();
+        assertThat(limiter.getKeyCount()).isZero();
+        assertThat(limiter.topRejected(5)).isEmpty();
+        assertThat(limiter.tryAcquire("d")).isZero();
+        assertThat(limiter.getKeyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldChargeKeysAnAddressIntroducesPastItsBudgetToTheAddress() {
+        var limiter = new KeyedRateLimiter("test", new KeyedRateLimiter.Config(1, 2, 100, Duration.ofMinutes(1), 3),
+                () -> now);
+        // a client rotating its key gets buckets for its first three keys only
+        for (int i = 0; i < 3; i++) assertThat(limiter.tryAcquire("rotated-" + i, "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("rotated-3", "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("rotated-4", "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("rotated-5", "10.0.0.1")).isPositive();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+        assertThat(limiter.getKeyCount()).isEqualTo(4);
+        assertThat(limiter.topRejected(5)).containsExactly(new KeyedRateLimiter.KeyCount("10.0.0.1", 2));
+
+        // other addresses and known keys are unaffected
+        assertThat(limiter.tryAcquire("tenant", "10.0.0.2")).isZero();
+        assertThat(limiter.tryAcquire("rotated-0", "10.0.0.1")).isZero();
+
+        // the budget refills at three keys a minute
+        now += TimeUnit.SECONDS.toNanos(20);
+        assertThat(limiter.tryAcquire("rotated-6", "10.0.0.1")).isZero();
+        assertThat(limiter.getKeyCount()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldRankKeysByRejections() {
+        var limiter = limiter(1, 1, 100);
+        for (var key : List.of("a", "b", "c")) {
+            int requests = switch (key) { case "a" -> 3; case "b" -> 5; default -> 2; };
+            for (int i = 0; i < requests; i++) limiter.tryAcquire(key);
+        }
+        assertThat(limiter.topRejected(2)).containsExactly(
+                new KeyedRateLimiter.KeyCount("b", 4), new KeyedRateLimiter.KeyCount("a", 2));
+
+        var limiters = new KeyedRateLimiters(List.of(new KeyedRateLimiters.Route(List.of("/*"), "X-Tenant-Id", limiter)));
+        var metrics = new RateLimiterMetrics(limiters, 2, Duration.ofMinutes(1));
+        var registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+        metrics.close();
+        assertThat(registry.get("recipeforcode.rate.limit.top.rejected").tag("key", "b").gauge().value()).isEqualTo(4);
+        assertThat(registry.get("recipeforcode.rate.limit.top.rejected").gauges()).hasSize(2);
+        assertThat(registry.get("recipeforcode.rate.limit.rejected").tag("route", "test").functionCounter().count()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldAdmitExactlyTheBurstUnderConcurrentAcquires() throws Exception {
+        var limiter = limiter(1, 1000, 100);
+        var admitted = new AtomicInteger();
+        int threads = 8;
+        var done = new CountDownLatch(threads);
+        try (var pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                pool.execute(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (limiter.tryAcquire("shared") == 0) admitted.incrementAndGet();
+                    }
+                    done.countDown();
+                });
+            }
+            done.await();
+        }
+        assertThat(admitted).hasValue(1000);
+        assertThat(limiter.getRejectedCount()).isEqualTo(3000);
+    }
+
+    @Test
+    void shouldAnswer429WithRetryAfterAndFallBackToTheRemoteAddress() throws Exception {
+        var limiters = new KeyedRateLimiters(List.of(
+                new KeyedRateLimiters.Route(List.of("/orders*"), "X-Tenant-Id", limiter(0.5, 1, 100))));
+        var filter = new RateLimitFilter(limiters);
+        var chained = new AtomicInteger();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders"), new MockHttpServletResponse(),
+                (req, res) -> chained.incrementAndGet());
+        var limited = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"), limited, (req, res) -> chained.incrementAndGet());
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("2");
+
+        var tenant = new MockHttpServletRequest("GET", "/orders/1");
+        tenant.addHeader("X-Tenant-Id", "t-1");
+        filter.doFilter(tenant, new MockHttpServletResponse(), (req, res) -> chained.incrementAndGet());
+        filter.doFilter(new MockHttpServletRequest("GET", "/health"), new MockHttpServletResponse(),
+                (req, res) -> chained.incrementAndGet());
+        assertThat(chained).hasValue(3);
+    }
+
+    @Test
+    void shouldLimitEverySpellingOfARoutedPath() throws Exception {
+        var limiters = new KeyedRateLimiters(List.of(
+                new KeyedRateLimiters.Route(List.of("/api/orders*"), "X-Tenant-Id", limiter(0.5, 1, 100))));
+        var filter = new RateLimitFilter(limiters);
+
+        var first = new MockHttpServletRequest("GET", "/shop/api/orders");
+        first.setContextPath("/shop");
+        var admitted = new MockHttpServletResponse();
+        filter.doFilter(first, admitted, (req, res) -> { });
+        assertThat(admitted.getStatus()).isEqualTo(200);
+
+        for (var path : List.of("/api/orders", "/api//orders", "/api/orders;x=1", "/x/../api/orders", "/api/%6Frders")) {
+            var limited = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", path), limited, (req, res) -> { });
+            assertThat(limited.getStatus()).as(path).isEqualTo(429);
+        }
+        assertThat(limiters.getRoutes().get(0).limiter().getRejectedCount()).isEqualTo(5);
+    }
+
+    private KeyedRateLimiter limiter(double permitsPerSecond, int burst, int maxKeys) {
+        return new KeyedRateLimiter("test", new KeyedRateLimiter.Config(permitsPerSecond, burst, maxKeys,
+                Duration.ofMinutes(1), 60), () -> now);
+    }
+}
@@ -0,0 +1,245 @@
+package com.recipeforcode.platform.resilience;
+
+import jakarta.servlet.AsyncContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LoadShedderTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final FakePressure jvm = new FakePressure();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private long now;
+
+    @Test
+    void shouldShedLowPriorityFirstThenNormalAndNeverCritical() {
+        var shedder = shedder(config(null));
+
+        waiting.set(7);
+        assertThat(shedder.tryAcquire(LoadShedder.Priority.LOW)).isTrue();
+        // 8 of 10: the low-priority watermark
+        assertThat(shedder.tryAcquire(LoadShedder.Priority.LOW)).isFalse();
+        assertThat(shedder.tryAcquire(LoadShedder.Priority.NORMAL)).isTrue();
+
+        waiting.set(14);
+        // 16 in flight or waiting: past 1.5x the threshold every normal request is rejected
+        for (int i = 0; i < 100; i++) {
+            assertThat(shedder.tryAcquire(LoadShedder.Priority.NORMAL)).isFalse();
+            assertThat(shedder.tryAcquire(LoadShedder.Priority.CRITICAL)).isTrue();
+            shedder.release(MS);
+        }
+        assertThat(shedder.getRejectedCount(LoadShedder.Priority.LOW)).isEqualTo(1);
+        assertThat(shedder.getRejectedCount(LoadShedder.Priority.NORMAL)).isEqualTo(100);
+        assertThat(shedder.getAdmittedCount()).isEqualTo(102);
+        assertThat(shedder.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectNormalRequestsInProportionToOverload() {
+        var shedder = shedder(config(null));
+        // heap at 1.25x its threshold: half way between the threshold and full shedding
+        jvm.heap = 0.9 * 1.25;
+
+        int admitted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (shedder.tryAcquire(LoadShedder.Priority.NORMAL)) {
+                admitted++;
+                shedder.release(MS);
+            }
+        }
+        assertThat(admitted / 10_000.0).isCloseTo(0.5, within(0.03));
+    }
+
+    @Test
+    void shouldSampleGcAndHeapOncePerInterval() {
+        var shedder = shedder(config(null));
+        jvm.gc = 0.5;
+        assertThat(shedder.pressure()).isEqualTo(2.0);
+        assertThat(shedder.getSignal(LoadShedder.Signal.GC)).isEqualTo(2.0);
+        assertThat(shedder.tryAcquire(LoadShedder.Priority.NORMAL)).isFalse();
+
+        jvm.gc = 0;
+        jvm.heap = 0.45;
+        now += Duration.ofMillis(500).toNanos();
+        assertThat(shedder.pressure()).isEqualTo(2.0);
+        now += Duration.ofMillis(500).toNanos();
+        assertThat(shedder.pressure()).isEqualTo(0.5);
+        assertThat(shedder.getSignal(LoadShedder.Signal.HEAP)).isEqualTo(0.5);
+        assertThat(jvm.samples).isEqualTo(2);
+    }
+
+    @Test
+    void shouldTreatSlowAdmittedRequestsAsPressureOnceThereAreEnoughSamples() {
+        var shedder = shedder(config(Duration.ofMillis(100)));
+        for (int i = 0; i < 19; i++) {
+            shedder.tryAcquire(LoadShedder.Priority.NORMAL);
+            shedder.release(400 * MS);
+        }
+        now += Duration.ofSeconds(1).toNanos();
+        assertThat(shedder.pressure()).isZero();
+
+        shedder.tryAcquire(LoadShedder.Priority.NORMAL);
+        shedder.release(400 * MS);
+        now += Duration.ofSeconds(1).toNanos();
+        // p99 is reported as its bucket's upper bound, at most 12.5% above the true 400ms
+        assertThat(shedder.pressure()).isBetween(4.0, 4.5);
+        assertThat(shedder.getSignal(LoadShedder.Signal.LATENCY)).isBetween(4.0, 4.5);
+    }
+
+    @Test
+    void shouldRejectWith503AndHonourCriticalPaths() throws Exception {
+        var shedder = shedder(config(null));
+        var filter = new LoadSheddingFilter(shedder, "X-Request-Priority", List.of("/actuator/health"), false);
+        waiting.set(20);
+        var chained = new AtomicInteger();
+
+        var shed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders"), shed, (req, res) -> chained.incrementAndGet());
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health/liveness"), new MockHttpServletResponse(),
+                (req, res) -> chained.incrementAndGet());
+        // any client could claim to be critical
+        var claimed = new MockHttpServletResponse();
+        filter.doFilter(critical(), claimed, (req, res) -> chained.incrementAndGet());
+        assertThat(claimed.getStatus()).isEqualTo(503);
+
+        assertThat(chained).hasValue(1);
+        assertThat(shedder.getInFlight()).isZero();
+        assertThat(shedder.getRejectedCount(LoadShedder.Priority.NORMAL)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMatchCriticalPathsWithinTheApplicationAtSegmentBoundaries() throws Exception {
+        var shedder = shedder(config(null));
+        var filter = new LoadSheddingFilter(shedder, "X-Request-Priority", List.of("/actuator/health"), false);
+        waiting.set(20);
+
+        var probe = new MockHttpServletRequest("GET", "/ctx/actuator/health/readiness");
+        probe.setContextPath("/ctx");
+        assertThat(status(filter, probe)).isEqualTo(200);
+        assertThat(status(filter, new MockHttpServletRequest("GET", "/actuator/health"))).isEqualTo(200);
+
+        for (var lookalike : List.of("/actuator/health/../../api/orders", "/actuator/health;x/../../api",
+                "/actuator/health/%2e%2e/%2e%2e/api", "/actuator/healthz")) {
+            assertThat(status(filter, new MockHttpServletRequest("GET", lookalike))).as(lookalike).isEqualTo(503);
+        }
+        assertThat(shedder.getRejectedCount(LoadShedder.Priority.NORMAL)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldHonourCriticalHeaderOnlyWhenTrusted() throws Exception {
+        var shedder = shedder(config(null));
+        var filter = new LoadSheddingFilter(shedder, "X-Request-Priority", List.of(), true);
+        waiting.set(20);
+        var chained = new AtomicInteger();
+
+        filter.doFilter(critical(), new MockHttpServletResponse(), (req, res) -> chained.incrementAndGet());
+
+        assertThat(chained).hasValue(1);
+        assertThat(shedder.getRejectedCount(LoadShedder.Priority.NORMAL)).isZero();
+    }
+
+    @Test
+    void shouldKeepGoodputAtCapacityPastSaturation() throws Exception {
+        // a stub server finishing 10 requests per tick, offered 30 per tick by clients that give up after 20 ticks
+        var unprotected = new StubServer(new LoadShedder.Config(0.25, 0.9, Integer.MAX_VALUE, null,
+                Duration.ofSeconds(10), Duration.ofSeconds(1), 0.8));
+        var protectedByQueueDepth = new StubServer(new LoadShedder.Config(0.25, 0.9, 100, null,
+                Duration.ofSeconds(10), Duration.ofSeconds(1), 0.8));
+
+        for (int tick = 0; tick < 1000; tick++) {
+            unprotected.tick(tick);
+            protectedByQueueDepth.tick(tick);
+        }
+
+        // past saturation every admitted request still makes its deadline, so goodput stays at capacity...
+        assertThat(protectedByQueueDepth.goodput).isGreaterThanOrEqualTo(9_900);
+        assertThat(protectedByQueueDepth.timedOut).isZero();
+        // ...while without shedding the queue grows until the server only works on requests nobody waits for
+        assertThat(unprotected.goodput).isLessThan(500);
+        assertThat(unprotected.timedOut).isGreaterThan(9_000);
+    }
+
+    private static int status(LoadSheddingFilter filter, MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest critical() {
+        var request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader("X-Request-Priority", "Critical");
+        return request;
+    }
+
+    /** Async requests through the filter, served first come first served at a fixed rate per tick. */
+    private static final class StubServer {
+        static final int CAPACITY = 10;
+        static final int OFFERED = 30;
+        static final int DEADLINE = 20;
+
+        final LoadSheddingFilter filter;
+        final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        int goodput;
+        int timedOut;
+
+        StubServer(LoadShedder.Config config) {
+            filter = new LoadSheddingFilter(new LoadShedder(config, new FakePressure(), () -> 0, () -> 0),
+                    "X-Request-Priority", List.of(), false);
+        }
+
+        void tick(long tick) throws Exception {
+            for (int i = 0; i < OFFERED; i++) {
+                var request = new MockHttpServletRequest("GET", "/orders");
+                request.setAsyncSupported(true);
+                filter.doFilter(request, new MockHttpServletResponse(),
+                        (req, res) -> queue.add(new Pending(tick, req.startAsync())));
+            }
+            for (int i = 0; i < CAPACITY && !queue.isEmpty(); i++) {
+                var pending = queue.poll();
+                if (tick - pending.arrival() <= DEADLINE) goodput++; else timedOut++;
+                pending.context().complete();
+            }
+        }
+
+        record Pending(long arrival, AsyncContext context) {}
+    }
+
+    private LoadShedder shedder(LoadShedder.Config config) {
+        return new LoadShedder(config, jvm, waiting::get, () -> now);
+    }
+
+    private static LoadShedder.Config config(Duration maxLatency) {
+        return new LoadShedder.Config(0.25, 0.9, 10, maxLatency, Duration.ofSeconds(10), Duration.ofSeconds(1), 0.8);
+    }
+
+    private static final class FakePressure extends JvmPressure {
+        double gc;
+        double heap;
+        int samples;
+
+        @Override
+        double gcTimeFraction(long nowNanos) {
+            samples++;
+            return gc;
+        }
+
+        @Override
+        double heapAfterGc() {
+            return heap;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.recipeforcode.platform.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboundHttpClientTest {
+
+    private final EndpointCircuitBreakers breakers = new EndpointCircuitBreakers(List.of(),
+            new EndpointCircuitBreaker.Config(50, 4, Duration.ofSeconds(10), Duration.ofSeconds(30), 1, Duration.ZERO, Duration.ofMinutes(1)));
+    private final AtomicReference<String> requestId = new AtomicReference<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private OutboundHttpClient client;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/stock", exchange -> {
+            requestId.set(exchange.getRequestHeaders().getFirst("X-Request-Id"));
+            var body = "7".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        MDC.clear();
+        release.countDown();
+        if (client != null) client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldPropagateRequestIdAndReleaseSlots() {
+        client = client(4, null);
+        var registry = new SimpleMeterRegistry();
+        new OutboundHttpClientMetrics(client).bindTo(registry);
+        MDC.put("requestId", "r-42");
+
+        var stock = rest().get().uri("/stock").retrieve().body(String.class);
+
+        assertThat(stock).isEqualTo("7");
+        assertThat(requestId).hasValue("r-42");
+        assertThat(client.getActiveCount()).isZero();
+        var endpoint = "127.0.0.1:" + server.getAddress().getPort();
+        assertThat(registry.get("recipeforcode.http.client.requests").tag("endpoint", endpoint).tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("recipeforcode.http.client.pool.max").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldOpenEndpointBreakerOnServerErrors() {
+        client = client(4, null);
+        status.set(503);
+        var rest = rest();
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> rest.get().uri("/stock").retrieve().toBodilessEntity())
+                    .hasMessageContaining("503");
+        }
+
+        assertThatThrownBy(() -> rest.get().uri("/stock").retrieve().toBodilessEntity())
+                .isInstanceOf(EndpointCircuitOpenException.class);
+        assertThat(breakers.breaker("127.0.0.1:" + server.getAddress().getPort()).getState())
+                .isEqualTo(EndpointCircuitBreaker.State.OPEN);
+        assertThat(client.getActiveCount()).isZero();
+    }
+
+    @Test
+    void shouldRetryIdempotentRequestsOnIoErrorsOnly() throws Exception {
+        var retry = Retry.of("down", RetryConfig.custom().maxAttempts(3).waitDuration(Duration.ofMillis(1)).build());
+        client = client(4, endpoint -> retry);
+        int closedPort;
+        try (var socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        var rest = RestClient.builder().baseUrl("http://127.0.0.1:" + closedPort)
+                .requestFactory(client).build();
+
+        assertThatThrownBy(() -> rest.get().uri("/stock").retrieve().toBodilessEntity())
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(retry.getMetrics().getNumberOfFailedCallsWithRetryAttempt()).isEqualTo(1);
+
+        assertThatThrownBy(() -> rest.post().uri("/stock").body("x").retrieve().toBodilessEntity())
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(retry.getMetrics().getNumberOfFailedCallsWithRetryAttempt()).isEqualTo(1);
+        assertThat(client.getActiveCount()).isZero();
+    }
+
+    @Test
+    void shouldRetryBelowTheInterceptorsOfTheRestClient() throws Exception {
+        var retry = Retry.of("flaky", RetryConfig.custom().maxAttempts(3).waitDuration(Duration.ofMillis(1)).build());
+        client = client(4, endpoint -> retry);
+        var outcomes = new java.util.concurrent.ConcurrentLinkedQueue<OutboundHttpClient.Outcome>();
+        client.addListener((endpoint, outcome, nanos) -> outcomes.add(outcome));
+        var authorizations = new java.util.concurrent.ConcurrentLinkedQueue<String>();
+        var intercepted = new AtomicInteger();
+        try (var flaky = new ServerSocket(0, 50, java.net.InetAddress.getLoopbackAddress())) {
+            // drops the first two connections once the request head is read, then answers
+            var stub = Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 3; i++) {
+                    try (var socket = flaky.accept()) {
+                        var in = new java.io.BufferedReader(new java.io.InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                        for (var line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+                            if (line.regionMatches(true, 0, "Authorization:", 0, 14)) authorizations.add(line.substring(14).trim());
+                        }
+                        if (i == 2) {
+                            socket.getOutputStream().write("HTTP/1.1 204 No Content\r\nConnection: close\r\n\r\n"
+                                    .getBytes(StandardCharsets.ISO_8859_1));
+                        }
+                    } catch (java.io.IOException e) {
+                        return;
+                    }
+                }
+            });
+            var rest = RestClient.builder().baseUrl("http://127.0.0.1:" + flaky.getLocalPort())
+                    .requestFactory(client)
+                    .requestInterceptor((request, body, execution) -> {
+                        request.getHeaders().setBearerAuth("t-" + intercepted.incrementAndGet());
+                        return execution.execute(request, body);
+                    })
+                    .build();
+
+            assertThat(rest.get().uri("/stock").retrieve().toBodilessEntity().getStatusCode().value()).isEqualTo(204);
+            stub.join();
+        }
+
+        assertThat(intercepted).hasValue(1);
+        assertThat(authorizations).containsExactly("Bearer t-1", "Bearer t-1", "Bearer t-1");
+        // the JDK client may resend a dropped GET itself, so an attempt can span both dropped connections
+        assertThat(outcomes).startsWith(OutboundHttpClient.Outcome.IO_ERROR).endsWith(OutboundHttpClient.Outcome.SUCCESS);
+        assertThat(retry.getMetrics().getNumberOfSuccessfulCallsWithRetryAttempt()).isEqualTo(1);
+        assertThat(client.getActiveCount()).isZero();
+    }
+
+    @Test
+    void shouldRejectCallsOnceAllSlotsAreBusy() throws Exception {
+        client = client(1, null);
+        var rest = rest();
+        var busy = Thread.ofVirtual().start(() -> rest.get().uri("/slow").retrieve().toBodilessEntity());
+        while (client.getActiveCount() == 0) Thread.sleep(1);
+
+        assertThatThrownBy(() -> rest.get().uri("/stock").retrieve().toBodilessEntity())
+                .isInstanceOf(OutboundPoolExhaustedException.class);
+        assertThat(client.getRejectedCount()).isEqualTo(1);
+
+        release.countDown();
+        busy.join();
+        assertThat(rest.get().uri("/stock").retrieve().body(String.class)).isEqualTo("7");
+    }
+
+    private OutboundHttpClient client(int maxConcurrentRequests, java.util.function.Function<String, Retry> retries) {
+        var config = new OutboundHttpClient.Config(maxConcurrentRequests, Duration.ofMillis(50), Duration.ofSeconds(1),
+                Duration.ofSeconds(5), HttpClient.Version.HTTP_2, "X-Request-Id", "requestId");
+        return new OutboundHttpClient(config, breakers, retries);
+    }
+
+    private RestClient rest() {
+        return RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .requestFactory(client)
+                .build();
+    }
+}
@@ -48,4 +48,265 @@ class ResilienceAutoConfigurationTest {
             assertThat(config.getIntervalBiFunction()).isNotNull();
         });
     }
+
+    @Test
+    void shouldBudgetDefaultRetriesAndPublishBudgetMetrics() {
+        contextRunner
+            .withBean(io.micrometer.core.instrument.simple.SimpleMeterRegistry.class)
+            .withPropertyValues("recipeforcode.resilience.retry.budget.min-retries-per-second=0")
+            .run(ctx -> {
+                var budgets = ctx.getBean(RetryBudgets.class);
+                var registry = ctx.getBean(io.micrometer.core.instrument.simple.SimpleMeterRegistry.class);
+                ctx.getBean(RetryBudgetMetrics.class).bindTo(registry);
+
+                var builder = io.github.resilience4j.retry.RetryConfig.custom();
+                ctx.getBean("recipeforcodeDefaultRetryCustomizer",
+                    io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer.class).customize(builder);
+                var retry = io.github.resilience4j.retry.Retry.of("inventory", builder.build());
+                var calls = new java.util.concurrent.atomic.AtomicInteger();
+                org.assertj.core.api.Assertions.assertThatThrownBy(() -> retry.executeRunnable(() -> {
+                    calls.incrementAndGet();
+                    throw new IllegalStateException("down");
+                })).hasMessage("down");
+
+                // no successes yet and no reserve: the first failure is not retried
+                assertThat(calls).hasValue(1);
+                assertThat(registry.get("recipeforcode.retry.budget.exhausted").tag("name", "default").functionCounter().count())
+                    .isEqualTo(1);
+                assertThat(budgets.budget(RetryBudgets.DEFAULT).getRetryCount()).isZero();
+            });
+    }
+
+    @Test
+    void shouldApplyJitterWithoutBudgetWhenDisabled() {
+        contextRunner
+            .withPropertyValues("recipeforcode.resilience.retry.budget.enabled=false")
+            .run(ctx -> {
+                assertThat(ctx).doesNotHaveBean(RetryBudgetMetrics.class);
+                assertThat(ctx.getBean(RetryBudgets.class).getBudgets()).isEmpty();
+            });
+    }
+
+    @Test
+    void shouldNotHedgeUnlessEnabled() {
+        contextRunner
+            .withBean(InventoryClient.class)
+            .run(ctx -> {
+                assertThat(ctx).doesNotHaveBean(Hedgers.class);
+                assertThat(ctx).doesNotHaveBean(HedgedAnnotationBeanPostProcessor.class);
+                assertThat(ctx).doesNotHaveBean(HedgerMetrics.class);
+                assertThat(org.springframework.aop.support.AopUtils.isAopProxy(ctx.getBean(InventoryClient.class))).isFalse();
+            });
+    }
+
+    @Test
+    void shouldHedgeAnnotatedMethods() {
+        contextRunner
+            .withBean(InventoryClient.class)
+            .withPropertyValues("recipeforcode.resilience.hedging.enabled=true",
+                "recipeforcode.resilience.hedging.min-samples=0", "recipeforcode.resilience.hedging.max-delay=5ms")
+            .run(ctx -> {
+                var client = ctx.getBean(InventoryClient.class);
+                assertThat(org.springframework.aop.support.AopUtils.isAopProxy(client)).isTrue();
+
+                assertThat(client.stock("sku-1")).isEqualTo(7);
+                assertThat(client.calls()).isEqualTo(2);
+                var hedger = ctx.getBean(Hedgers.class).hedger("inventory");
+                assertThat(hedger.getHedgeCount()).isEqualTo(1);
+                assertThat(hedger.getWinCount()).isEqualTo(1);
+            });
+    }
+
+    static class InventoryClient {
+        private final java.util.concurrent.atomic.AtomicInteger calls = new java.util.concurrent.atomic.AtomicInteger();
+
+        public int calls() {
+            return calls.get();
+        }
+
+        @Hedged("inventory")
+        public int stock(String sku) throws InterruptedException {
+            // the first call stalls until interrupted; the hedge answers at once
+            if (calls.incrementAndGet() == 1) Thread.sleep(10_000);
+            return 7;
+        }
+    }
+
+    @Test
+    void shouldConfigureEndpointBreakersFromProfiles() {
+        contextRunner
+            .withPropertyValues(
+                "recipeforcode.resilience.profiles.payments.match=payments-*,*.billing",
+                "recipeforcode.resilience.profiles.payments.failure-rate-threshold=25",
+                "recipeforcode.resilience.profiles.default.minimum-calls=5")
+            .run(ctx -> {
+                var breakers = ctx.getBean(EndpointCircuitBreakers.class);
+                assertThat(breakers.profile("payments-eu").config().failureRateThreshold()).isEqualTo(25f);
+                assertThat(breakers.profile("ledger.billing").name()).isEqualTo("payments");
+                var fallback = breakers.profile("inventory");
+                assertThat(fallback.name()).isEqualTo("default");
+                assertThat(fallback.config().minimumCalls()).isEqualTo(5);
+                assertThat(fallback.config().window()).isEqualTo(java.time.Duration.ofSeconds(10));
+            });
+    }
+
+    @Test
+    void shouldPointRestClientBuildersAtSharedOutboundClient() {
+        var runner = contextRunner
+            .withConfiguration(AutoConfigurations.of(OutboundHttpClientAutoConfiguration.class))
+            .withBean(io.micrometer.core.instrument.simple.SimpleMeterRegistry.class);
+        runner
+            .withPropertyValues("recipeforcode.resilience.http-client.enabled=true",
+                "recipeforcode.resilience.http-client.max-concurrent-requests=32")
+            .run(ctx -> {
+                var client = ctx.getBean(OutboundHttpClient.class);
+                assertThat(client.getConfig().maxConcurrentRequests()).isEqualTo(32);
+                assertThat(client.getConfig().version()).isEqualTo(java.net.http.HttpClient.Version.HTTP_2);
+                assertThat(ctx).hasSingleBean(OutboundHttpClientMetrics.class);
+
+                var builder = org.springframework.web.client.RestClient.builder();
+                ctx.getBean(org.springframework.boot.web.client.RestClientCustomizer.class).customize(builder);
+                builder.requestInterceptors(interceptors -> assertThat(interceptors).isEmpty());
+                assertThat(builder.build()).extracting("clientRequestFactory").isSameAs(client);
+            });
+        runner
+            .withBean(io.github.resilience4j.retry.RetryRegistry.class, io.github.resilience4j.retry.RetryRegistry::ofDefaults)
+            .withPropertyValues("recipeforcode.resilience.http-client.enabled=true",
+                "recipeforcode.resilience.retry.max-attempts=2")
+            .run(ctx -> {
+                int port;
+                try (var socket = new java.net.ServerSocket(0)) {
+                    port = socket.getLocalPort();
+                }
+                var builder = org.springframework.web.client.RestClient.builder().baseUrl("http://127.0.0.1:" + port);
+                ctx.getBean(org.springframework.boot.web.client.RestClientCustomizer.class).customize(builder);
+                org.assertj.core.api.Assertions.assertThatThrownBy(() -> builder.build().get().retrieve().toBodilessEntity())
+                    .isInstanceOf(org.springframework.web.client.ResourceAccessException.class);
+
+                // created on first use with the platform retry defaults, not Resilience4j's
+                var retry = ctx.getBean(io.github.resilience4j.retry.RetryRegistry.class).find("127.0.0.1:" + port).orElseThrow();
+                assertThat(retry.getRetryConfig().getMaxAttempts()).isEqualTo(2);
+                assertThat(retry.getMetrics().getNumberOfFailedCallsWithRetryAttempt()).isEqualTo(1);
+            });
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean(OutboundHttpClient.class));
+    }
+
+    @Test
+    void shouldNotRegisterAdaptiveConcurrencyByDefault() {
+        contextRunner.run(ctx -> assertThat(ctx).doesNotHaveBean(AdaptiveConcurrencyLimiter.class));
+    }
+
+    @Test
+    void shouldShedRequestsWith503WhenAdaptiveLimitReached() {
+        new org.springframework.boot.test.context.runner.WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ResilienceAutoConfiguration.class))
+            .withPropertyValues(
+                "recipeforcode.resilience.adaptive-concurrency.enabled=true",
+                "recipeforcode.resilience.adaptive-concurrency.initial-limit=1",
+                "recipeforcode.resilience.adaptive-concurrency.min-limit=1")
+            .run(ctx -> {
+                assertThat(ctx).hasSingleBean(AdaptiveConcurrencyMetrics.class);
+                var limiter = ctx.getBean(AdaptiveConcurrencyLimiter.class);
+                var filter = ctx.getBean("adaptiveConcurrencyFilter", org.springframework.boot.web.servlet.FilterRegistrationBean.class).getFilter();
+
+                var rejected = new org.springframework.mock.web.MockHttpServletResponse();
+                filter.doFilter(new org.springframework.mock.web.MockHttpServletRequest(), new org.springframework.mock.web.MockHttpServletResponse(),
+                    (req, res) -> filter.doFilter(new org.springframework.mock.web.MockHttpServletRequest(), rejected, (r2, s2) -> { }));
+
+                assertThat(rejected.getStatus()).isEqualTo(503);
+                assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+                // a status line only, no error page dispatch
+                assertThat(rejected.getErrorMessage()).isNull();
+                assertThat(limiter.getInFlight()).isZero();
+                assertThat(limiter.getRejectedCount()).isEqualTo(1);
+
+                // health probes bypass the limit, within the context path; lookalikes do not
+                var probe = new org.springframework.mock.web.MockHttpServletRequest("GET", "/ctx/actuator/health/liveness");
+                probe.setContextPath("/ctx");
+                var probed = new org.springframework.mock.web.MockHttpServletResponse();
+                var lookalike = new org.springframework.mock.web.MockHttpServletResponse();
+                filter.doFilter(new org.springframework.mock.web.MockHttpServletRequest(), new org.springframework.mock.web.MockHttpServletResponse(),
+                    (req, res) -> {
+                        filter.doFilter(probe, probed, (r2, s2) -> { });
+                        filter.doFilter(new org.springframework.mock.web.MockHttpServletRequest("GET", "/actuator/health/../../api/orders"),
+                            lookalike, (r2, s2) -> { });
+                    });
+                assertThat(probed.getStatus()).isEqualTo(200);
+                assertThat(lookalike.getStatus()).isEqualTo(503);
+                assertThat(limiter.getRejectedCount()).isEqualTo(2);
+            });
+    }
+
+    @Test
+    void shouldRegisterLoadSheddingFilterFirstWhenEnabled() {
+        var runner = new org.springframework.boot.test.context.runner.WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ResilienceAutoConfiguration.class));
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean(LoadShedder.class));
+        runner
+            .withPropertyValues(
+                "recipeforcode.resilience.load-shedding.enabled=true",
+                "recipeforcode.resilience.load-shedding.max-queue-depth=1")
+            .run(ctx -> {
+                assertThat(ctx).hasSingleBean(LoadShedderMetrics.class).hasSingleBean(TomcatQueueDepth.class);
+                var registration = ctx.getBean("loadSheddingFilter", org.springframework.boot.web.servlet.FilterRegistrationBean.class);
+                assertThat(registration.getOrder()).isEqualTo(org.springframework.core.Ordered.HIGHEST_PRECEDENCE);
+                var shedder = ctx.getBean(LoadShedder.class);
+                assertThat(shedder.getConfig().maxLatency()).isNull();
+
+                var filter = registration.getFilter();
+                var low = new org.springframework.mock.web.MockHttpServletRequest();
+                low.addHeader("X-Request-Priority", "low");
+                var rejected = new org.springframework.mock.web.MockHttpServletResponse();
+                filter.doFilter(new org.springframework.mock.web.MockHttpServletRequest(), new org.springframework.mock.web.MockHttpServletResponse(),
+                    (req, res) -> filter.doFilter(low, rejected, (r2, s2) -> { }));
+
+                assertThat(rejected.getStatus()).isEqualTo(503);
+                assertThat(shedder.getRejectedCount(LoadShedder.Priority.LOW)).isEqualTo(1);
+                assertThat(shedder.getInFlight()).isZero();
+            });
+    }
+
+    @Test
+    void shouldLimitConfiguredRoutesPerClientKeyWhenEnabled() {
+        var runner = new org.springframework.boot.test.context.runner.WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ResilienceAutoConfiguration.class));
+        runner.run(ctx -> assertThat(ctx).doesNotHaveBean(KeyedRateLimiters.class));
+        runner
+            .withPropertyValues(
+                "recipeforcode.resilience.rate-limit.enabled=true",
+                "recipeforcode.resilience.rate-limit.routes.orders.match=/orders/*",
+                "recipeforcode.resilience.rate-limit.routes.orders.permits-per-second=1",
+                "recipeforcode.resilience.rate-limit.routes.orders.burst=1",
+                "recipeforcode.resilience.rate-limit.routes.search.match=/search,/search/*",
+                "recipeforcode.resilience.rate-limit.routes.search.key-header=X-Api-Key")
+            .run(ctx -> {
+                assertThat(ctx).hasSingleBean(RateLimiterMetrics.class).doesNotHaveBean(RateLimitSweeper.class);
+                assertThat(ctx.getBean(KeyedRateLimiters.class).getRoutes().get(0).limiter().getConfig().newKeysPerAddress())
+                    .isEqualTo(60);
+                var routes = ctx.getBean(KeyedRateLimiters.class).getRoutes();
+                assertThat(routes).extracting(r -> r.limiter().getName()).containsExactly("orders", "search");
+                assertThat(routes.get(0).keyHeader()).isEqualTo("X-Tenant-Id");
+                assertThat(routes.get(1).keyHeader()).isEqualTo("X-Api-Key");
+                assertThat(routes.get(1).limiter().getConfig().burst()).isEqualTo(20);
+
+                var registration = ctx.getBean("rateLimitFilter", org.springframework.boot.web.servlet.FilterRegistrationBean.class);
+                assertThat(registration.getOrder()).isEqualTo(org.springframework.core.Ordered.HIGHEST_PRECEDENCE + 4);
+                var filter = registration.getFilter();
+                int[] chained = new int[1];
+                var statuses = new java.util.ArrayList<Integer>();
+                for (var tenant : new String[] {"a", "a", "b"}) {
+                    var req = new org.springframework.mock.web.MockHttpServletRequest("GET", "/orders/42");
+                    req.addHeader("X-Tenant-Id", tenant);
+                    var res = new org.springframework.mock.web.MockHttpServletResponse();
+                    filter.doFilter(req, res, (rq, rs) -> chained[0]++);
+                    statuses.add(res.getStatus());
+                }
+                assertThat(statuses).containsExactly(200, 429, 200);
+                assertThat(chained[0]).isEqualTo(2);
+            });
+        runner
+            .withClassLoader(new org.springframework.boot.test.context.FilteredClassLoader(io.micrometer.core.instrument.binder.MeterBinder.class))
+            .withPropertyValues("recipeforcode.resilience.rate-limit.enabled=true")
+            .run(ctx -> assertThat(ctx).hasSingleBean(RateLimitSweeper.class).doesNotHaveBean(RateLimiterMetrics.class));
+    }
 }
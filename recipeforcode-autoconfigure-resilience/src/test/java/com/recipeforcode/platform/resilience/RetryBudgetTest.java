@@ -0,0 +1,122 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryBudgetTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldCapRetriesToRatioOfSuccessesInWindow() {
+        var budget = new RetryBudget("test", new RetryBudget.Config(0.1, 0, Duration.ofSeconds(10)), null, clock::get);
+        for (int i = 0; i < 100; i++) budget.deposit();
+
+        int allowed = 0;
+        while (budget.tryAcquire()) allowed++;
+        assertThat(allowed).isEqualTo(10);
+        assertThat(budget.getExhaustedCount()).isEqualTo(1);
+
+        // deposits and withdrawals age out together; only the reserve would remain
+        clock.addAndGet(10 * SECOND);
+        assertThat(budget.getAvailable()).isZero();
+    }
+
+    @Test
+    void shouldKeepMinimumRetriesWithoutSuccesses() {
+        var budget = new RetryBudget("test", new RetryBudget.Config(0.2, 2, Duration.ofSeconds(5)), null, clock::get);
+        int allowed = 0;
+        while (budget.tryAcquire()) allowed++;
+        assertThat(allowed).isEqualTo(10);
+
+        clock.addAndGet(SECOND);
+        assertThat(budget.tryAcquire()).isFalse();
+        clock.addAndGet(4 * SECOND);
+        // the first second's withdrawals left the window
+        assertThat(budget.getAvailable()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldDrawJitteredWaitsWithinGrowingBounds() {
+        var backoff = new DecorrelatedJitterBackoff(Duration.ofMillis(100), Duration.ofSeconds(2));
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(backoff.apply(1)).isBetween(100L, 300L);
+            assertThat(backoff.apply(2)).isBetween(100L, 900L);
+            assertThat(backoff.apply(10)).isBetween(100L, 2_000L);
+        }
+    }
+
+    @Test
+    void shouldSurfaceTheFailureWhenBudgetIsExhausted() {
+        var budgets = new RetryBudgets(3, n -> 0L, new RetryBudget.Config(0.1, 0, Duration.ofSeconds(10)), clock::get);
+        var retry = retryRegistry(budgets).retry("inventory");
+        var calls = new AtomicLong();
+
+        assertThatThrownBy(() -> retry.executeSupplier(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("down");
+        assertThat(calls).hasValue(1);
+        assertThat(budgets.budget(RetryBudgets.DEFAULT).getExhaustedCount()).isEqualTo(1);
+    }
+
+    /**
+     * 100 calls per second against a backend that is healthy for a minute, then down for a minute. Without a
+     * budget every failed call costs three attempts; with one, retries fall back to the reserve within a window.
+     */
+    @Test
+    void shouldLimitAmplificationDuringOutage() {
+        double unbudgeted = outageAmplification(null);
+        double budgeted = outageAmplification(new RetryBudget.Config(0.2, 10, Duration.ofSeconds(10)));
+
+        assertThat(unbudgeted).isEqualTo(3.0);
+        assertThat(budgeted).isLessThan(1.2);
+    }
+
+    private double outageAmplification(RetryBudget.Config budgetConfig) {
+        clock.set(0);
+        var budgets = new RetryBudgets(3, n -> 0L, budgetConfig, clock::get);
+        var retry = retryRegistry(budgets).retry("inventory");
+        var down = new boolean[1];
+        var attempts = new AtomicLong();
+        Runnable backend = () -> {
+            attempts.incrementAndGet();
+            if (down[0]) throw new IllegalStateException("down");
+        };
+
+        long calls = 0;
+        for (int second = 0; second < 120; second++) {
+            down[0] = second >= 60;
+            if (second == 60) attempts.set(0);
+            for (int i = 0; i < 100; i++) {
+                clock.set(second * SECOND + i * (SECOND / 100));
+                try {
+                    retry.executeRunnable(backend);
+                } catch (IllegalStateException expected) {
+                    // counted through attempts
+                }
+                if (down[0]) calls++;
+            }
+        }
+        return (double) attempts.get() / calls;
+    }
+
+    private static RetryRegistry retryRegistry(RetryBudgets budgets) {
+        var builder = RetryConfig.custom();
+        budgets.customizer(RetryBudgets.DEFAULT).customize(builder);
+        return RetryRegistry.custom()
+                .withRetryConfig(builder.build())
+                .addRegistryEventConsumer(budgets)
+                .build();
+    }
+}
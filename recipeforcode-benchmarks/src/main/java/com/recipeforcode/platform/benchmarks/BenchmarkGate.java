@@ -0,0 +1,115 @@
+package com.recipeforcode.platform.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result ({@code -rf json}) with a stored baseline and fails when a benchmark regressed.
+ * <p>
+ * A benchmark (name and parameters) regresses when its score is worse than the baseline by more than
+ * {@code threshold}, a fraction, and by more than the run's own score error, so one noisy iteration does not
+ * fail the build. Higher is better for {@code thrpt}, lower for the time modes. With {@code -prof gc} it also
+ * regresses when {@code gc.alloc.rate.norm} grows by more than {@code threshold} and {@value #ALLOCATION_SLACK}
+ * bytes per operation, so a path that allocated nothing fails once it allocates. Benchmarks only on one side
+ * are reported, not failed, which lets a run cover a subset of the baseline.
+ * <p>
+ * Usage: {@code BenchmarkGate <result.json> <baseline.json> <threshold> [update]}; with {@code update=true}
+ * the result becomes the new baseline.
+ */
+public final class BenchmarkGate {
+
+    static final int ALLOCATION_SLACK = 16;
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private BenchmarkGate() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: BenchmarkGate <result.json> <baseline.json> <threshold> [update]");
+            System.exit(2);
+        }
+        var result = Path.of(args[0]);
+        var baseline = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        if (args.length > 3 && Boolean.parseBoolean(args[3])) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Benchmark baseline updated: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.err.println("No benchmark baseline at " + baseline + "; record one with -Dbenchmarks.baseline.update=true");
+            System.exit(1);
+        }
+        var regressions = compare(read(baseline), read(result), threshold, System.out);
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%:%n", regressions.size(), threshold * 100);
+            regressions.forEach(r -> System.err.println("  " + r));
+            System.exit(1);
+        }
+    }
+
+    /** Scores by benchmark name and parameters, e.g. {@code a.B.run{mode=sync}}. */
+    static Map<String, Score> read(Path json) throws IOException {
+        var scores = new LinkedHashMap<String, Score>();
+        for (JsonNode run : JSON.readTree(json.toFile())) {
+            var params = new TreeMap<String, String>();
+            run.path("params").properties().forEach(e -> params.put(e.getKey(), e.getValue().asText()));
+            var primary = run.path("primaryMetric");
+            var allocation = run.path("secondaryMetrics").path(ALLOCATION);
+            // JMH writes "NaN" when there were too few iterations to estimate an error
+            double error = primary.path("scoreError").asDouble(0);
+            scores.put(run.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString()), new Score(
+                    run.path("mode").asText(),
+                    primary.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    primary.path("scoreUnit").asText(),
+                    allocation.isMissingNode() ? Double.NaN : allocation.path("score").asDouble()));
+        }
+        return scores;
+    }
+
+    /** Prints one line per benchmark and returns the regressions. */
+    static List<String> compare(Map<String, Score> baseline, Map<String, Score> current, double threshold, PrintStream out) {
+        var regressions = new ArrayList<String>();
+        current.forEach((name, now) -> {
+            var before = baseline.get(name);
+            if (before == null) {
+                out.printf("NEW   %s: %.3f %s%n", name, now.score(), now.unit());
+                return;
+            }
+            // positive when worse, as a fraction of the baseline
+            double change = (now.higherIsBetter() ? before.score() - now.score() : now.score() - before.score()) / before.score();
+            boolean slower = change > threshold && Math.abs(now.score() - before.score()) > now.error();
+            boolean allocates = now.allocation() > before.allocation() * (1 + threshold) + ALLOCATION_SLACK;
+            var line = String.format("%s: %.3f -> %.3f %s (%+.1f%%)", name, before.score(), now.score(), now.unit(),
+                    (now.score() / before.score() - 1) * 100);
+            if (!Double.isNaN(now.allocation()) && !Double.isNaN(before.allocation())) {
+                line += String.format(", %.0f -> %.0f B/op", before.allocation(), now.allocation());
+            }
+            out.println((slower || allocates ? "FAIL  " : "OK    ") + line);
+            if (slower || allocates) regressions.add(line);
+        });
+        baseline.keySet().stream().filter(name -> !current.containsKey(name)).forEach(name -> out.println("SKIP  " + name));
+        return regressions;
+    }
+
+    /** @param allocation bytes per operation, {@code NaN} without {@code -prof gc} */
+    record Score(String mode, double score, double error, String unit, double allocation) {
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.recipeforcode.platform.benchmarks;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * A non-web application with every auto-configuration on the benchmark classpath, so benchmarks measure the
+ * beans a service actually gets from the platform starters rather than hand-built copies.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+public class PlatformApplication {
+
+    /** Starts the application with the given extra properties, e.g. {@code --recipeforcode.observability.service=x}. */
+    public static ConfigurableApplicationContext start(String... properties) {
+        var app = new SpringApplication(PlatformApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        app.setLogStartupInfo(false);
+        var args = new String[properties.length + 1];
+        args[0] = "--logging.level.root=WARN";
+        System.arraycopy(properties, 0, args, 1, properties.length);
+        return app.run(args);
+    }
+}
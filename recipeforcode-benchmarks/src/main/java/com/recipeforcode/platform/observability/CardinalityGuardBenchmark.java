@@ -0,0 +1,101 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CardinalityLimitingMeterFilter} on the registration path.
+ * <ul>
+ *   <li>{@code mapAdmitted}/{@code mapOverflow}: per-id filter cost from 4 threads for a value already admitted
+ *   and for a value past the limit (sketch update plus tag rewrite).</li>
+ *   <li>{@code register}: 10,000 distinct {@code uri} values into a fresh registry, unguarded vs guarded at
+ *   100. Run with {@code -prof gc}; the guarded registry ends with 101 meters instead of 10,000.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardinalityGuardBenchmark {
+
+    private static final int DISTINCT = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+        final CardinalityLimitingMeterFilter filter = new CardinalityLimitingMeterFilter(100, List.of(), List.of(), "OTHER");
+        final Meter.Id[] admitted = new Meter.Id[100];
+        final Meter.Id[] overflow = new Meter.Id[DISTINCT];
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < admitted.length; i++) {
+                admitted[i] = id("/orders/" + i);
+                filter.map(admitted[i]);
+            }
+            for (int i = 0; i < overflow.length; i++) overflow[i] = id("/users/" + i);
+        }
+
+        private static Meter.Id id(String uri) {
+            return new Meter.Id("http.server.requests", Tags.of("method", "GET", "status", "200", "uri", uri), null, null, Meter.Type.TIMER);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Meter.Id mapAdmitted(Filter f, Cursor c) {
+        return f.filter.map(f.admitted[c.i++ % f.admitted.length]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Meter.Id mapOverflow(Filter f, Cursor c) {
+        return f.filter.map(f.overflow[c.i++ % f.overflow.length]);
+    }
+
+    @State(Scope.Thread)
+    public static class Registry {
+        @Param({"false", "true"})
+        public boolean guarded;
+        SimpleMeterRegistry registry;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            registry = new SimpleMeterRegistry();
+            if (guarded) registry.config().meterFilter(new CardinalityLimitingMeterFilter(100, List.of(), List.of(), "OTHER"));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int register(Registry r) {
+        for (int i = 0; i < DISTINCT; i++) {
+            Counter.builder("http.server.requests").tag("uri", "/users/" + i).register(r.registry).increment();
+        }
+        return r.registry.getMeters().size();
+    }
+}
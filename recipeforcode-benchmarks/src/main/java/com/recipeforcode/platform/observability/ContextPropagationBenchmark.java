@@ -0,0 +1,75 @@
+package com.recipeforcode.platform.observability;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing a request's correlation state to another thread: capture on the submitting side plus
+ * restore and cleanup on the worker side. {@code correlationContext} passes the filter's snapshot by
+ * reference; {@code mdcCopy} is the usual {@code getCopyOfContextMap()}/{@code setContextMap()} idiom.
+ * Both run on one thread, which isolates the per-hop cost from executor scheduling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextPropagationBenchmark {
+
+    private static final String[] KEYS = {"requestId", "service", "hdr.user-id", "hdr.tenant-id"};
+
+    private CorrelationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new CorrelationContext(KEYS, new String[]{"0190a4c2-1f7e-7c3a-9d2b-5e6f7a8b9c0d", "orders", "u-1", "t-9"});
+        CorrelationContext.attach(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        CorrelationContext.detach();
+    }
+
+    @Benchmark
+    public String correlationContext() {
+        var captured = CorrelationContext.current();
+        // worker side: the worker's thread starts without the context
+        CorrelationContext.detach();
+        String seen;
+        try (var ignored = captured.open()) {
+            seen = MDC.get("requestId");
+        }
+        CorrelationContext.attach(captured);
+        return seen;
+    }
+
+    @Benchmark
+    public String mdcCopy() {
+        var captured = MDC.getCopyOfContextMap();
+        MDC.clear();
+        String seen;
+        try {
+            MDC.setContextMap(captured);
+            seen = MDC.get("requestId");
+        } finally {
+            MDC.clear();
+        }
+        MDC.setContextMap(captured);
+        return seen;
+    }
+}
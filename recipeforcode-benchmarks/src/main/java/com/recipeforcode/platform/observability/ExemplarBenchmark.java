@@ -0,0 +1,65 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One latency into a histogram timer on a Prometheus registry, without exemplars ({@code off}) and with
+ * {@link RequestIdSpanContext} reading the request id of an open {@link CorrelationContext} ({@code requestId}).
+ * The client samples at most one exemplar per bucket per interval, so most records never consult the span
+ * context. Run with {@code -prof gc}: neither mode should allocate per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExemplarBenchmark {
+
+    @Param({"off", "requestId"})
+    public String exemplars;
+
+    private Timer timer;
+    private CorrelationContext.Scope scope;
+
+    @Setup
+    public void setUp() {
+        var registry = "off".equals(exemplars)
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                : new PrometheusMeterRegistry(PrometheusConfig.DEFAULT, new PrometheusRegistry(), Clock.SYSTEM,
+                        new RequestIdSpanContext());
+        timer = Timer.builder("http.server.requests").publishPercentileHistogram().register(registry);
+        scope = new CorrelationContext(new String[] {RequestCorrelationFilter.REQUEST_ID_KEY},
+                new String[] {"4bf92f3577b34da6"}).open();
+    }
+
+    @TearDown
+    public void tearDown() {
+        scope.close();
+    }
+
+    @Benchmark
+    public void record() {
+        timer.record(ThreadLocalRandom.current().nextLong(1_000_000, 500_000_000), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,98 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code http.server.requests} on a Prometheus registry with today's client-side percentiles (p50/p90/p95/p99)
+ * against {@link RelativeErrorHistogramMeterFilter} at its default 10% accuracy, 1ms-30s.
+ * <ul>
+ *   <li>{@code createTimers}: 100 uri tags into a fresh registry; with {@code -prof gc},
+ *   {@code gc.alloc.rate.norm / 100} approximates the memory each timer holds.</li>
+ *   <li>{@code record}: one latency into an existing timer from 4 threads.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistogramModeBenchmark {
+
+    private static final int TIMERS = 100;
+
+    @State(Scope.Benchmark)
+    public static class Registry {
+        @Param({"percentiles", "histogram"})
+        public String mode;
+
+        PrometheusMeterRegistry registry;
+        Timer timer;
+
+        @Setup(Level.Trial)
+        public void setUpTrial() {
+            setUp();
+            timer = Timer.builder("http.server.requests").tag("uri", "/orders").register(registry);
+        }
+
+        void setUp() {
+            registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            registry.config().meterFilter("histogram".equals(mode)
+                    ? new RelativeErrorHistogramMeterFilter(List.of("http.server.requests"), 0.1, Duration.ofMillis(1), Duration.ofSeconds(30))
+                    : new MeterFilter() {
+                        @Override
+                        public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig c) {
+                            return DistributionStatisticConfig.builder().percentiles(0.5, 0.9, 0.95, 0.99).build().merge(c);
+                        }
+                    });
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Fresh {
+        Registry target;
+
+        @Setup(Level.Invocation)
+        public void setUp(Registry shared) {
+            target = new Registry();
+            target.mode = shared.mode;
+            target.setUp();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int createTimers(Fresh fresh) {
+        var registry = fresh.target.registry;
+        for (int i = 0; i < TIMERS; i++) Timer.builder("http.server.requests").tag("uri", "/orders/" + i).register(registry);
+        return registry.getMeters().size();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void record(Registry r) {
+        r.timer.record(ThreadLocalRandom.current().nextLong(1_000_000, 500_000_000), TimeUnit.NANOSECONDS);
+    }
+}
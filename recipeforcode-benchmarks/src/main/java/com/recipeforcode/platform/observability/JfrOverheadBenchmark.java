@@ -0,0 +1,63 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the continuous {@link JfrEventStream} on a request-like workload (hashing, boxing, short-lived
+ * collections), with streaming {@code off} and {@code on}. The stream runs with its defaults, so the difference
+ * includes JFR's execution sampling and the event handlers. The budget is under 1%.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JfrOverheadBenchmark {
+
+    @Param({"off", "on"})
+    public String jfr;
+
+    private JfrEventStream stream;
+
+    @Setup
+    public void setUp() {
+        if ("on".equals(jfr)) {
+            stream = new JfrEventStream(new JfrEventStream.Config(
+                    "default", Duration.ofMinutes(10), 100_000_000, Duration.ofMillis(10), Duration.ofMillis(20)));
+            stream.bindTo(new SimpleMeterRegistry());
+            stream.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (stream != null) stream.close();
+    }
+
+    @Benchmark
+    public int request() {
+        var items = new ArrayList<String>(32);
+        for (int i = 0; i < 32; i++) items.add("item-" + i);
+        var totals = new HashMap<String, Integer>();
+        for (var item : items) totals.merge(item.substring(0, 4), item.hashCode(), Integer::sum);
+        return totals.get("item");
+    }
+}
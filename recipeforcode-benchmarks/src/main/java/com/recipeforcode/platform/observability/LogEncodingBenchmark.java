@@ -0,0 +1,84 @@
+package com.recipeforcode.platform.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One JSON log line through {@link LogstashEncoder} configured as in the starter's {@code logback-spring.xml}
+ * ({@code includeMdc}, {@code app} custom field), with no MDC and with the four entries a correlated request
+ * carries. The event is created per call, as the logger does, so lazily formatted message and copied MDC map
+ * are part of the cost; run with {@code -prof gc} for bytes per line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogEncodingBenchmark {
+
+    private static final String FQCN = LogEncodingBenchmark.class.getName();
+    private static final Object[] ARGS = {42};
+
+    @Param({"false", "true"})
+    public boolean mdc;
+
+    private LoggerContext context;
+    private Logger logger;
+    private LogstashEncoder encoder;
+    private Exception failure;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setIncludeMdc(true);
+        encoder.setCustomFields("{\"app\":\"orders\"}");
+        encoder.start();
+        logger = context.getLogger("com.example.orders.OrderService");
+        failure = new IllegalStateException("inventory unavailable");
+        if (mdc) {
+            MDC.put("requestId", "0190a4c2-1f7e-7c3a-9d2b-5e6f7a8b9c0d");
+            MDC.put("service", "orders");
+            MDC.put("hdr.user-id", "u-123");
+            MDC.put("hdr.tenant-id", "t-9");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        MDC.clear();
+        encoder.stop();
+        context.stop();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoder.encode(new LoggingEvent(FQCN, logger, Level.INFO, "order {} accepted", null, ARGS));
+    }
+
+    @Benchmark
+    public byte[] encodeWithException() {
+        return encoder.encode(new LoggingEvent(FQCN, logger, Level.ERROR, "order {} failed", failure, ARGS));
+    }
+}
@@ -0,0 +1,103 @@
+package com.recipeforcode.platform.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of one JSON log line with MDC, from 8 threads: the starter's synchronous
+ * {@code ConsoleAppender}-style setup ({@code sync}) against {@link RingBufferConsoleAppender} with the
+ * {@code block} policy ({@code async}), so the writer thread's throughput bounds the async case too.
+ * Output goes to a stream that discards bytes, which keeps the comparison about locking and encoding
+ * rather than terminal speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingThroughputBenchmark {
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Appender<ILoggingEvent> appender;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        var encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        if ("async".equals(mode)) {
+            var a = new RingBufferConsoleAppender();
+            a.setEncoder(encoder);
+            a.setOverflowPolicy("block");
+            a.setOutputStream(OutputStream.nullOutputStream());
+            appender = a;
+        } else {
+            var a = new OutputStreamAppender<ILoggingEvent>();
+            a.setEncoder(encoder);
+            a.setOutputStream(OutputStream.nullOutputStream());
+            appender = a;
+        }
+        appender.setName(mode);
+        appender.setContext(context);
+        appender.start();
+        logger = context.getLogger("bench");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @TearDown
+    public void tearDown() {
+        appender.stop();
+        context.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class Mdc {
+        @Setup
+        public void setUp() {
+            MDC.put("requestId", "0190a4c2-1f7e-7c3a-9d2b-5e6f7a8b9c0d");
+            MDC.put("service", "orders");
+        }
+
+        @TearDown
+        public void tearDown() {
+            MDC.clear();
+        }
+    }
+
+    @Benchmark
+    public void log(Mdc mdc) {
+        logger.info("order {} accepted", 42);
+    }
+}
@@ -0,0 +1,117 @@
+package com.recipeforcode.platform.observability;
+
+import com.recipeforcode.platform.benchmarks.PlatformApplication;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.MeterFilterReply;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meter filters and common tags as auto-configured by the observability starter (service, application and
+ * environment tags, HTTP percentiles, cardinality guard), taken from a running context.
+ * <ul>
+ *   <li>{@code commonTags}: the common-tags filter mapping one {@code http.server.requests} id.</li>
+ *   <li>{@code filterChain}: what the registry does for a new id: common tags, then every platform
+ *   {@link MeterFilter} bean's {@code accept}, {@code map} and {@code configure}, in bean order.</li>
+ *   <li>{@code register}: the per-request {@code Timer.builder(..).register(..)} lookup of an existing timer in
+ *   the platform registry against a bare {@link PrometheusMeterRegistry}.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeterFilterBenchmark {
+
+    private static final Tags REQUEST_TAGS = Tags.of("exception", "none", "method", "GET", "outcome", "SUCCESS",
+            "status", "200", "uri", "/orders/{id}");
+
+    private ConfigurableApplicationContext context;
+    private MeterRegistry platform;
+    private MeterFilter commonTags;
+    private List<MeterFilter> filters;
+    private Meter.Id id;
+
+    @Setup
+    public void setUp() {
+        context = PlatformApplication.start(
+                "--spring.application.name=orders",
+                "--recipeforcode.observability.service=orders",
+                "--recipeforcode.observability.environment=prod",
+                "--recipeforcode.observability.http-percentiles=0.5,0.95,0.99",
+                "--recipeforcode.observability.cardinality.enabled=true");
+        platform = context.getBean(MeterRegistry.class);
+        // the customizer adds its tags through a commonTags filter; read them back from a probe meter
+        commonTags = MeterFilter.commonTags(platform.counter("probe").getId().getTags());
+        filters = context.getBeanProvider(MeterFilter.class).orderedStream().toList();
+        id = new Meter.Id("http.server.requests", REQUEST_TAGS, null, null, Meter.Type.TIMER);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Meter.Id commonTags() {
+        return commonTags.map(id);
+    }
+
+    @Benchmark
+    public void filterChain(Blackhole bh) {
+        var mapped = commonTags.map(id);
+        for (var filter : filters) {
+            if (filter.accept(mapped) == MeterFilterReply.DENY) return;
+            mapped = filter.map(mapped);
+        }
+        var config = DistributionStatisticConfig.NONE;
+        for (var filter : filters) {
+            var configured = filter.configure(mapped, config);
+            if (configured != null) config = configured;
+        }
+        bh.consume(mapped);
+        bh.consume(config);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Registry {
+        @Param({"platform", "bare"})
+        public String registry;
+        MeterRegistry meters;
+
+        @Setup
+        public void setUp(MeterFilterBenchmark benchmark) {
+            meters = "platform".equals(registry) ? benchmark.platform : new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            Timer.builder("http.server.requests").tags(REQUEST_TAGS).register(meters);
+        }
+    }
+
+    @Benchmark
+    public Timer register(Registry r) {
+        return Timer.builder("http.server.requests").tags(REQUEST_TAGS).register(r.meters);
+    }
+}
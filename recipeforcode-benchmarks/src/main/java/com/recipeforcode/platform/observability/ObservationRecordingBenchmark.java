@@ -0,0 +1,116 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.observation.MeterObservationHandler;
+import io.micrometer.observation.Observation;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The meter side of one {@code http.server.requests} observation (start, then stop) on a Prometheus registry with
+ * common tags, through Micrometer's {@link DefaultMeterObservationHandler} ({@code default}) and through
+ * {@link BatchingMeterObservationHandler} ({@code batched}), at 1, 16 and 64 threads spread over 8 routes.
+ * {@code default} builds tags, looks the timer up in the registry and records into it on every request;
+ * {@code batched} looks it up in its own cache and appends to a striped buffer, folded in every second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservationRecordingBenchmark {
+
+    private static final int ROUTES = 8;
+
+    @State(Scope.Benchmark)
+    public static class Handler {
+        @Param({"default", "batched"})
+        public String recording;
+
+        MeterObservationHandler<Observation.Context> handler;
+
+        @Setup
+        public void setUp() {
+            var registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            registry.config().commonTags("service", "orders", "environment", "prod");
+            if ("batched".equals(recording)) {
+                var batching = new BatchingMeterObservationHandler(registry, true,
+                        new BatchingMeterObservationHandler.Config(Duration.ofSeconds(1), 128, 10_000));
+                batching.start();
+                handler = batching;
+            } else {
+                handler = new DefaultMeterObservationHandler(registry);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (handler instanceof BatchingMeterObservationHandler batching) batching.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+        final Observation.Context[] contexts = new Observation.Context[ROUTES];
+        int next;
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < ROUTES; i++) {
+                var context = new Observation.Context();
+                context.setName("http.server.requests");
+                context.addLowCardinalityKeyValue(KeyValue.of("method", "GET"));
+                context.addLowCardinalityKeyValue(KeyValue.of("uri", "/orders/" + i + "/{id}"));
+                context.addLowCardinalityKeyValue(KeyValue.of("status", "200"));
+                context.addLowCardinalityKeyValue(KeyValue.of("outcome", "SUCCESS"));
+                context.addLowCardinalityKeyValue(KeyValue.of("exception", "none"));
+                contexts[i] = context;
+            }
+        }
+
+        Observation.Context next() {
+            return contexts[next++ & (ROUTES - 1)];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads1(Handler handler, Requests requests) {
+        observe(handler, requests);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void threads16(Handler handler, Requests requests) {
+        observe(handler, requests);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads64(Handler handler, Requests requests) {
+        observe(handler, requests);
+    }
+
+    private static void observe(Handler handler, Requests requests) {
+        var context = requests.next();
+        handler.handler.onStart(context);
+        handler.handler.onStop(context);
+    }
+}
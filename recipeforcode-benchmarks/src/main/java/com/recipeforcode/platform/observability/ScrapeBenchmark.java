@@ -0,0 +1,94 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.prometheus.metrics.expositionformats.ExpositionFormats;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusOutputFormat;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One scrape of a registry with {@code series} timer series (each timer renders count, sum and max) through
+ * Boot's {@code PrometheusScrapeEndpoint} ({@code actuator}) and through {@link PrometheusScrapeServlet}
+ * ({@code streaming}), both in the Prometheus text format. The servlet writes into a discarding response so
+ * {@code -prof gc} shows only what the render itself allocates; the actuator variant's body array is consumed
+ * by a blackhole. {@code streamingCached} is a scraper arriving within the cache TTL of an earlier render.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScrapeBenchmark {
+
+    @Param({"20000"})
+    public int series;
+
+    private PrometheusScrapeEndpoint endpoint;
+    private PrometheusScrapeServlet servlet;
+    private PrometheusScrapeServlet cachingServlet;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        var registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        for (int i = 0; i < series; i++) {
+            Timer.builder("http.server.requests").tag("uri", "/orders/" + i).tag("status", "200").register(registry)
+                    .record(Duration.ofMillis(i % 250));
+        }
+        endpoint = new PrometheusScrapeEndpoint(registry.getPrometheusRegistry(), new Properties());
+        servlet = new PrometheusScrapeServlet(registry.getPrometheusRegistry(), ExpositionFormats.init(), Duration.ZERO, 32 * 1024);
+        cachingServlet = new PrometheusScrapeServlet(registry.getPrometheusRegistry(), ExpositionFormats.init(), Duration.ofSeconds(10), 32 * 1024);
+        request = new MockHttpServletRequest("GET", "/metrics");
+    }
+
+    @Benchmark
+    public void actuator(Blackhole bh) {
+        bh.consume(endpoint.scrape(PrometheusOutputFormat.CONTENT_TYPE_004, null).getBody());
+    }
+
+    @Benchmark
+    public void streaming() throws Exception {
+        servlet.service(request, new DiscardingResponse());
+    }
+
+    @Benchmark
+    public void streamingCached() throws Exception {
+        cachingServlet.service(request, new DiscardingResponse());
+    }
+
+    static final class DiscardingResponse extends MockHttpServletResponse {
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override public void write(int b) {}
+            @Override public void write(byte[] b, int off, int len) {}
+            @Override public boolean isReady() { return true; }
+            @Override public void setWriteListener(WriteListener listener) {}
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.recipeforcode.platform.observability;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of SLO tracking.
+ * <ul>
+ *   <li>{@code record}: one request into a {@link SloTracker} with 5m/1h/6h windows, from 1 and 4 threads.</li>
+ *   <li>{@code observe}: an {@code http.server.requests} observation through {@link SloObservationHandler}
+ *   ({@code slo}) or with no handler at all ({@code off}), so the difference is what the handler adds.</li>
+ * </ul>
+ * Run with {@code -prof gc}: {@code record} should not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SloBenchmark {
+
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(300);
+
+    @State(Scope.Benchmark)
+    public static class Tracker {
+        SloTracker tracker;
+
+        @Setup
+        public void setUp() {
+            tracker = tracker();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Observations {
+        @Param({"off", "slo"})
+        public String tracking;
+
+        ObservationRegistry registry;
+        ServerRequestObservationContext context;
+
+        @Setup
+        public void setUp() {
+            registry = ObservationRegistry.create();
+            if ("slo".equals(tracking)) {
+                registry.observationConfig().observationHandler(new SloObservationHandler(List.of(tracker()), Clock.SYSTEM));
+            } else {
+                // a registry without handlers is a no-op; keep one that ignores everything so both sides create observations
+                registry.observationConfig().observationHandler(c -> true);
+            }
+            context = new ServerRequestObservationContext(new MockHttpServletRequest("GET", "/orders/42"),
+                    new MockHttpServletResponse());
+            context.setPathPattern("/orders/{id}");
+        }
+    }
+
+    @Benchmark
+    public void record(Tracker t) {
+        t.tracker.record(ThreadLocalRandom.current().nextLong(LATENCY * 2), false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended(Tracker t) {
+        t.tracker.record(ThreadLocalRandom.current().nextLong(LATENCY * 2), false);
+    }
+
+    @Benchmark
+    public void observe(Observations o) {
+        Observation.start("http.server.requests", () -> o.context, o.registry).stop();
+    }
+
+    private static SloTracker tracker() {
+        return new SloTracker(new SloTracker.Config("/orders/{id}", null, Duration.ofNanos(LATENCY), 0.99, 0.999,
+                List.of(Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofHours(6)), Duration.ofSeconds(30)),
+                Clock.SYSTEM);
+    }
+}
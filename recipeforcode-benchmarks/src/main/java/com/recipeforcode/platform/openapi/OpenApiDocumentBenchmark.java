@@ -0,0 +1,109 @@
+package com.recipeforcode.platform.openapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start cost of the OpenAPI document of a {@link SyntheticService} with {@code endpoints} operations:
+ * application start ({@code startup}) and the first {@code /v3/api-docs} request after start
+ * ({@code firstRequest}), with Springdoc building the document on demand ({@code springdoc}) or served from a
+ * build-time copy ({@code prebuilt}). Single-shot: every measurement is a fresh application in the same JVM.
+ * The prebuilt document is generated once per trial from the Springdoc one.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OpenApiDocumentBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Service {
+
+        @Param({"springdoc", "prebuilt"})
+        public String mode;
+
+        @Param({"1000"})
+        public int endpoints;
+
+        final HttpClient client = HttpClient.newHttpClient();
+        Path document;
+        ConfigurableApplicationContext context;
+
+        @Setup(Level.Trial)
+        public void prebuild() throws Exception {
+            if (!mode.equals("prebuilt")) return;
+            document = Files.createTempFile("openapi", ".json");
+            try (var springdoc = SyntheticService.start(endpoints)) {
+                Files.writeString(document, fetch(springdoc).body());
+            }
+        }
+
+        ConfigurableApplicationContext start() {
+            return mode.equals("prebuilt")
+                    ? SyntheticService.start(endpoints, "--recipeforcode.openapi.prebuilt.enabled=true",
+                            "--recipeforcode.openapi.prebuilt.location=" + document.toUri())
+                    : SyntheticService.start(endpoints);
+        }
+
+        HttpResponse<String> fetch(ConfigurableApplicationContext app) throws IOException, InterruptedException {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v3/api-docs")).build();
+            var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) throw new IllegalStateException("HTTP " + response.statusCode());
+            return response;
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (context != null) context.close();
+            context = null;
+        }
+
+        @TearDown(Level.Trial)
+        public void clean() throws IOException {
+            if (document != null) Files.deleteIfExists(document);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Started {
+
+        @Setup(Level.Iteration)
+        public void start(Service service) {
+            service.context = service.start();
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext startup(Service service) {
+        return service.context = service.start();
+    }
+
+    @Benchmark
+    public int firstRequest(Service service, Started started) throws Exception {
+        return service.fetch(service.context).body().length();
+    }
+}
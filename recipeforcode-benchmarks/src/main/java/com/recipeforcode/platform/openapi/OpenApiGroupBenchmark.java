@@ -0,0 +1,66 @@
+package com.recipeforcode.platform.openapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state requests for the platform group document of a {@link SyntheticService} with {@code endpoints}
+ * operations, with Springdoc serializing it on every request ({@code cacheDocuments=false}) and replayed by
+ * {@link OpenApiDocumentCacheFilter}. The model itself is built once, on the first request of the trial; run
+ * with {@code -prof gc} for the heap allocated per request (the in-process client included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenApiGroupBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cacheDocuments;
+
+    @Param({"1000"})
+    public int endpoints;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ConfigurableApplicationContext app;
+    private HttpRequest request;
+
+    @Setup
+    public void start() {
+        app = SyntheticService.start(endpoints, "--recipeforcode.openapi.cache-documents=" + cacheDocuments);
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v3/api-docs/public")).build();
+    }
+
+    @TearDown
+    public void stop() {
+        app.close();
+    }
+
+    @Benchmark
+    public byte[] groupDocument() throws Exception {
+        var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) throw new IllegalStateException("HTTP " + response.statusCode());
+        return response.body();
+    }
+}
@@ -0,0 +1,81 @@
+package com.recipeforcode.platform.openapi;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A web application with {@code endpoints} generated operations, half reads and half writes over
+ * {@code /resources<n>}, for measuring OpenAPI generation at the size of a large service.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+public class SyntheticService {
+
+    /** Starts the service on a random port with the given endpoint count and extra properties. */
+    public static ConfigurableApplicationContext start(int endpoints, String... properties) {
+        var app = new SpringApplication(SyntheticService.class);
+        app.setLogStartupInfo(false);
+        var args = new String[properties.length + 3];
+        args[0] = "--server.port=0";
+        args[1] = "--synthetic.endpoints=" + endpoints;
+        args[2] = "--logging.level.root=WARN";
+        System.arraycopy(properties, 0, args, 3, properties.length);
+        return app.run(args);
+    }
+
+    @Bean
+    Resources syntheticResources() {
+        return new Resources();
+    }
+
+    @Bean
+    ApplicationRunner registerSyntheticEndpoints(RequestMappingHandlerMapping requestMappingHandlerMapping,
+                                                 Resources resources,
+                                                 Environment env) throws NoSuchMethodException {
+        var get = Resources.class.getMethod("get", String.class, List.class);
+        var put = Resources.class.getMethod("put", String.class, Item.class);
+        int endpoints = env.getRequiredProperty("synthetic.endpoints", Integer.class);
+        return args -> {
+            var options = requestMappingHandlerMapping.getBuilderConfiguration();
+            for (int i = 0; i < endpoints; i++) {
+                var path = "/resources" + (i / 2) + "/{id}";
+                var method = i % 2 == 0 ? RequestMethod.GET : RequestMethod.PUT;
+                var info = RequestMappingInfo.paths(path).methods(method).options(options).build();
+                requestMappingHandlerMapping.registerMapping(info, resources, i % 2 == 0 ? get : put);
+            }
+        };
+    }
+
+    /** Handler for every generated operation; not a {@code @Controller}, so only the generated mappings exist. */
+    @ResponseBody
+    public static class Resources {
+
+        public Item get(@PathVariable String id, @RequestParam(required = false) List<String> fields) {
+            return new Item(id, "item", new Price(BigDecimal.ONE, "EUR"), List.of(), Instant.EPOCH);
+        }
+
+        public Item put(@PathVariable String id, @RequestBody Item item) {
+            return item;
+        }
+    }
+
+    public record Item(String id, String name, Price price, List<String> tags, Instant updatedAt) {}
+
+    public record Price(BigDecimal amount, String currency) {}
+}
@@ -0,0 +1,84 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission check plus outcome recording on one shared breaker from 32 threads, 1% failures (never enough to
+ * open). Compares {@link EndpointCircuitBreaker} with Resilience4j's breaker using a time-based window of the
+ * same length and with the platform's count-based default (50 calls). Run with {@code -prof gc} to compare
+ * allocation per call as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class CircuitBreakerBenchmark {
+
+    private static final IllegalStateException FAILURE = new IllegalStateException("failure");
+
+    @State(Scope.Benchmark)
+    public static class Breakers {
+        @Param({"endpoint", "resilience4j-time", "resilience4j-count"})
+        public String impl;
+        EndpointCircuitBreaker endpoint;
+        CircuitBreaker resilience4j;
+
+        @Setup
+        public void setUp() {
+            switch (impl) {
+                case "endpoint" -> endpoint = new EndpointCircuitBreakers(List.of(), new EndpointCircuitBreaker.Config(
+                        50, 20, Duration.ofSeconds(10), Duration.ofSeconds(5), 5, Duration.ofSeconds(30), Duration.ofMinutes(10))).breaker("inventory");
+                case "resilience4j-time" -> resilience4j = CircuitBreaker.of("inventory", CircuitBreakerConfig.custom()
+                        .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.TIME_BASED)
+                        .slidingWindowSize(10)
+                        .minimumNumberOfCalls(20)
+                        .failureRateThreshold(50)
+                        .build());
+                case "resilience4j-count" -> resilience4j = CircuitBreaker.of("inventory", CircuitBreakerConfig.custom()
+                        .slidingWindowSize(50)
+                        .failureRateThreshold(50)
+                        .build());
+                default -> throw new IllegalArgumentException(impl);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+    }
+
+    @Benchmark
+    public boolean record(Breakers b, Cursor c) {
+        boolean failure = ++c.i % 100 == 0;
+        if (b.endpoint != null) {
+            if (!b.endpoint.tryAcquirePermission()) return false;
+            if (failure) b.endpoint.onError();
+            else b.endpoint.onSuccess();
+            return true;
+        }
+        if (!b.resilience4j.tryAcquirePermission()) return false;
+        if (failure) b.resilience4j.onError(1_000, TimeUnit.NANOSECONDS, FAILURE);
+        else b.resilience4j.onSuccess(1_000, TimeUnit.NANOSECONDS);
+        return true;
+    }
+}
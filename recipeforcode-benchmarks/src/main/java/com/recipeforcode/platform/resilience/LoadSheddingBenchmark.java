@@ -0,0 +1,122 @@
+package com.recipeforcode.platform.resilience;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of {@link LoadSheddingFilter} against a local stub: {@value #WORKERS} workers taking
+ * {@code 2ms} per request behind a FIFO queue, so capacity is about 4000 requests/s. Closed-loop clients (8, 32
+ * and 128 threads, i.e. below, at and far past saturation) send requests through the filter ({@code on}) or
+ * straight to the stub ({@code off}); a shed client backs off for 1ms, as it would on {@code Retry-After}.
+ * <p>
+ * The score is attempts/s; the {@code good} counter is goodput, responses within a {@code 10ms} deadline, and
+ * {@code late} and {@code shed} are the rest. Without shedding the queue grows with the clients until every
+ * response misses the deadline; with shedding (queue threshold of two requests per worker) goodput should stay
+ * near capacity past saturation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class LoadSheddingBenchmark {
+
+    static final int WORKERS = 8;
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long DEADLINE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"off", "on"})
+        public String shedding;
+
+        LoadSheddingFilter filter;
+        final Semaphore workers = new Semaphore(WORKERS, true);
+        final FilterChain stub = (req, res) -> {
+            workers.acquireUninterruptibly();
+            try {
+                LockSupport.parkNanos(SERVICE_NANOS);
+            } finally {
+                workers.release();
+            }
+        };
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            if ("on".equals(shedding)) {
+                var config = new LoadShedder.Config(0.25, 0.9, 2 * WORKERS, null, Duration.ofSeconds(10),
+                        Duration.ofSeconds(1), 0.8);
+                filter = new LoadSheddingFilter(new LoadShedder(config, () -> 0), "X-Request-Priority", List.of(), false);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long good;
+        public long late;
+        public long shed;
+
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders/42");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void clients8(Server server, Outcomes outcomes) throws Exception {
+        request(server, outcomes);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void clients32(Server server, Outcomes outcomes) throws Exception {
+        request(server, outcomes);
+    }
+
+    @Benchmark
+    @Threads(128)
+    public void clients128(Server server, Outcomes outcomes) throws Exception {
+        request(server, outcomes);
+    }
+
+    private static void request(Server server, Outcomes outcomes) throws Exception {
+        var response = new MockHttpServletResponse();
+        long start = System.nanoTime();
+        if (server.filter != null) {
+            server.filter.doFilter(outcomes.request, response, server.stub);
+        } else {
+            server.stub.doFilter(outcomes.request, response);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (response.getStatus() == 503) {
+            outcomes.shed++;
+            LockSupport.parkNanos(BACKOFF_NANOS);
+        } else if (elapsed <= DEADLINE_NANOS) {
+            outcomes.good++;
+        } else {
+            outcomes.late++;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.recipeforcode.platform.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of small GETs against a local stub server from 16 threads: {@link OutboundHttpClient} (shared
+ * client, slots, request id, endpoint breaker, retry off), Spring's JDK request factory with its own client
+ * ({@code jdk}), and {@code HttpURLConnection} ({@code simple}), the fallback when no client library is present.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// without TCP_NODELAY the stub's separate header and body writes stall on delayed ACKs
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Threads(16)
+public class OutboundHttpClientBenchmark {
+
+    private static final byte[] BODY = "{\"sku\":\"sku-1\",\"stock\":7}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"platform", "jdk", "simple"})
+    public String client;
+
+    private HttpServer server;
+    private OutboundHttpClient outbound;
+    private RestClient rest;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/stock", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            exchange.getResponseBody().write(BODY);
+            exchange.close();
+        });
+        server.start();
+        var builder = RestClient.builder().baseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        switch (client) {
+            case "platform" -> {
+                var breakers = new EndpointCircuitBreakers(List.of(), new EndpointCircuitBreaker.Config(
+                        50, 20, Duration.ofSeconds(10), Duration.ofSeconds(5), 5, Duration.ofSeconds(30), Duration.ofMinutes(10)));
+                outbound = new OutboundHttpClient(new OutboundHttpClient.Config(200, Duration.ofSeconds(1),
+                        Duration.ofSeconds(2), Duration.ofSeconds(10), HttpClient.Version.HTTP_2, "X-Request-Id", "requestId"),
+                        breakers, null);
+                builder.requestFactory(outbound);
+            }
+            case "jdk" -> builder.requestFactory(new JdkClientHttpRequestFactory());
+            case "simple" -> builder.requestFactory(new SimpleClientHttpRequestFactory());
+            default -> throw new IllegalArgumentException(client);
+        }
+        rest = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (outbound != null) outbound.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public String get() {
+        return rest.get().uri("/stock").retrieve().body(String.class);
+    }
+}
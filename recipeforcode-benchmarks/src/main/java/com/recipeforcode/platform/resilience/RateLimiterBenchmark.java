@@ -0,0 +1,80 @@
+package com.recipeforcode.platform.resilience;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One permit for a random client key out of {@code keys} from 4 threads, at 100 permits/s per key with a burst of
+ * 100, so a single hot key is mostly rejected and 100k keys mostly admitted. Compares {@link KeyedRateLimiter} with
+ * a map of Resilience4j rate limiters, one per key, as a service would build it today. Run with {@code -prof gc}:
+ * neither should allocate per acquire once every key has its limiter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Limiters {
+        @Param({"keyed", "resilience4j-map"})
+        public String impl;
+
+        @Param({"1", "100000"})
+        public int keys;
+
+        String[] names;
+        KeyedRateLimiter keyed;
+        ConcurrentHashMap<String, RateLimiter> resilience4j;
+        RateLimiterConfig resilience4jConfig;
+
+        @Setup
+        public void setUp() {
+            names = new String[keys];
+            for (int i = 0; i < keys; i++) names[i] = "tenant-" + i;
+            if ("keyed".equals(impl)) {
+                keyed = new KeyedRateLimiter("api", new KeyedRateLimiter.Config(100, 100, 200_000, Duration.ofMinutes(5), 60));
+            } else {
+                resilience4j = new ConcurrentHashMap<>();
+                resilience4jConfig = RateLimiterConfig.custom()
+                        .limitForPeriod(100)
+                        .limitRefreshPeriod(Duration.ofSeconds(1))
+                        .timeoutDuration(Duration.ZERO)
+                        .build();
+            }
+            // every key has its bucket before measuring
+            for (var name : names) acquire(this, name);
+        }
+    }
+
+    @Benchmark
+    public boolean acquire(Limiters l) {
+        return acquire(l, l.names[ThreadLocalRandom.current().nextInt(l.keys)]);
+    }
+
+    private static boolean acquire(Limiters l, String key) {
+        if (l.keyed != null) return l.keyed.tryAcquire(key) == 0;
+        var limiter = l.resilience4j.get(key);
+        if (limiter == null) limiter = l.resilience4j.computeIfAbsent(key, k -> RateLimiter.of(k, l.resilience4jConfig));
+        return limiter.acquirePermission();
+    }
+}
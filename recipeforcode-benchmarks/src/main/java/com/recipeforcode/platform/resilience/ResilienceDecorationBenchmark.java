@@ -0,0 +1,90 @@
+package com.recipeforcode.platform.resilience;
+
+import com.recipeforcode.platform.benchmarks.PlatformApplication;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Successful calls through Resilience4j with the platform defaults: the {@code default} instances of a running
+ * context's registries, which the platform customizers configure (circuit breaker defaults, decorrelated-jitter
+ * backoff and retry budget). {@code direct} is the undecorated call; {@code retryAroundCircuitBreaker} uses a
+ * supplier decorated once, {@code decoratePerCall} decorates inline on every call, as code written as
+ * {@code Retry.decorateSupplier(retry, () -> ...)} inside a method does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResilienceDecorationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CircuitBreaker circuitBreaker;
+    private Retry retry;
+    private Supplier<Integer> call;
+    private Supplier<Integer> decorated;
+    private int value;
+
+    @Setup
+    public void setUp() {
+        // Resilience4j applies customizers to instances declared in configuration, as a service declares them
+        context = PlatformApplication.start(
+                "--resilience4j.circuitbreaker.instances.default.register-health-indicator=false",
+                "--resilience4j.retry.instances.default.fail-after-max-attempts=false");
+        circuitBreaker = context.getBean(CircuitBreakerRegistry.class).circuitBreaker("default");
+        retry = context.getBean(RetryRegistry.class).retry("default");
+        if (circuitBreaker.getCircuitBreakerConfig().getSlidingWindowSize() != 50) {
+            throw new IllegalStateException("platform circuit breaker defaults not applied");
+        }
+        call = () -> ++value;
+        decorated = Retry.decorateSupplier(retry, CircuitBreaker.decorateSupplier(circuitBreaker, call));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer direct() {
+        return call.get();
+    }
+
+    @Benchmark
+    public Integer circuitBreaker() {
+        return circuitBreaker.executeSupplier(call);
+    }
+
+    @Benchmark
+    public Integer retry() {
+        return retry.executeSupplier(call);
+    }
+
+    @Benchmark
+    public Integer retryAroundCircuitBreaker() {
+        return decorated.get();
+    }
+
+    @Benchmark
+    public Integer decoratePerCall() {
+        return Retry.decorateSupplier(retry, CircuitBreaker.decorateSupplier(circuitBreaker, call)).get();
+    }
+}
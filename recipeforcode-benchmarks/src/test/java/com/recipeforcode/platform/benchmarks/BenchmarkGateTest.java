@@ -0,0 +1,75 @@
+package com.recipeforcode.platform.benchmarks;
+
+import com.recipeforcode.platform.benchmarks.BenchmarkGate.Score;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BenchmarkGateTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final PrintStream out = new PrintStream(output);
+
+    @Test
+    void shouldReadScoresByBenchmarkAndParameters(@TempDir Path dir) throws Exception {
+        var json = dir.resolve("result.json");
+        Files.writeString(json, """
+                [{"benchmark": "a.Bench.run", "mode": "avgt", "params": {"mode": "sync", "b": "1"},
+                  "primaryMetric": {"score": 12.5, "scoreError": 0.5, "scoreUnit": "ns/op"},
+                  "secondaryMetrics": {"gc.alloc.rate.norm": {"score": 48.0}}},
+                 {"benchmark": "a.Bench.ops", "mode": "thrpt",
+                  "primaryMetric": {"score": 100.0, "scoreError": "NaN", "scoreUnit": "ops/ms"}}]
+                """);
+
+        var scores = BenchmarkGate.read(json);
+
+        assertThat(scores).containsOnlyKeys("a.Bench.run{b=1, mode=sync}", "a.Bench.ops");
+        assertThat(scores.get("a.Bench.run{b=1, mode=sync}")).isEqualTo(new Score("avgt", 12.5, 0.5, "ns/op", 48.0));
+        assertThat(scores.get("a.Bench.ops").error()).isZero();
+        assertThat(scores.get("a.Bench.ops").allocation()).isNaN();
+    }
+
+    @Test
+    void shouldFailOnlyBeyondThresholdAndError() {
+        var baseline = Map.of(
+                "time", new Score("avgt", 100, 1, "ns/op", Double.NaN),
+                "noisy", new Score("avgt", 100, 1, "ns/op", Double.NaN),
+                "ops", new Score("thrpt", 100, 1, "ops/ms", Double.NaN));
+        var current = Map.of(
+                "time", new Score("avgt", 115, 1, "ns/op", Double.NaN),
+                "noisy", new Score("avgt", 115, 20, "ns/op", Double.NaN),
+                "ops", new Score("thrpt", 120, 1, "ops/ms", Double.NaN));
+
+        var regressions = BenchmarkGate.compare(baseline, current, 0.10, out);
+
+        assertThat(regressions).singleElement().asString().startsWith("time:");
+    }
+
+    @Test
+    void shouldFailWhenAllocationGrows() {
+        var baseline = Map.of(
+                "zero", new Score("avgt", 100, 1, "ns/op", 0),
+                "large", new Score("avgt", 100, 1, "ns/op", 1_000));
+        var current = Map.of(
+                "zero", new Score("avgt", 100, 1, "ns/op", 24),
+                "large", new Score("avgt", 100, 1, "ns/op", 1_050));
+
+        assertThat(BenchmarkGate.compare(baseline, current, 0.10, out)).singleElement().asString().startsWith("zero:");
+    }
+
+    @Test
+    void shouldReportBenchmarksMissingOnEitherSide() {
+        var baseline = Map.of("old", new Score("avgt", 100, 1, "ns/op", Double.NaN));
+        var current = Map.of("new", new Score("avgt", 100, 1, "ns/op", Double.NaN));
+
+        assertThat(BenchmarkGate.compare(baseline, current, 0.10, out)).isEmpty();
+        assertThat(output.toString()).contains("NEW   new").contains("SKIP  old");
+    }
+}
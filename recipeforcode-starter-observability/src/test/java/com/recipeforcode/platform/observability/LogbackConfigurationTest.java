@@ -0,0 +1,60 @@
+package com.recipeforcode.platform.observability;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogbackConfigurationTest {
+
+    private final LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+
+    @AfterEach
+    void reset() {
+        loggingSystem.cleanUp();
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).reset();
+    }
+
+    @Test
+    void shouldUseSynchronousConsoleByDefault() {
+        var root = initialize(new MockEnvironment());
+
+        assertThat(root.getAppender("CONSOLE-sync")).isInstanceOf(ch.qos.logback.core.ConsoleAppender.class);
+        assertThat(root.getAppender("CONSOLE-async")).isNull();
+    }
+
+    @Test
+    void shouldSelectRingBufferAppenderWhenAsync() {
+        var root = initialize(new MockEnvironment()
+                .withProperty("recipeforcode.observability.logging.mode", "async")
+                .withProperty("recipeforcode.observability.logging.queue-size", "1024")
+                .withProperty("recipeforcode.observability.logging.overflow-policy", "sample"));
+
+        assertThat(root.getAppender("CONSOLE-sync")).isNull();
+        var appender = root.getAppender("CONSOLE-async");
+        assertThat(appender).isInstanceOf(RingBufferConsoleAppender.class);
+        assertThat(appender.isStarted()).isTrue();
+        assertThat(((RingBufferConsoleAppender) appender).getQueueCapacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void shouldFallBackToSynchronousConsoleForAnUnknownMode() {
+        var root = initialize(new MockEnvironment().withProperty("recipeforcode.observability.logging.mode", "asnyc"));
+
+        assertThat(root.getAppender("CONSOLE-sync")).isInstanceOf(ch.qos.logback.core.ConsoleAppender.class);
+        assertThat(root.getAppender("CONSOLE-sync").isStarted()).isTrue();
+        assertThat(root.getAppender("CONSOLE-async")).isNull();
+    }
+
+    private ch.qos.logback.classic.Logger initialize(MockEnvironment environment) {
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), "classpath:logback-spring.xml", null);
+        return ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+    }
+}
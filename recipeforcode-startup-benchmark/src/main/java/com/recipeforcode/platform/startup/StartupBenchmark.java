@@ -0,0 +1,127 @@
+package com.recipeforcode.platform.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Starts {@link StartupBenchmarkApplication} repeatedly in fresh JVMs and reports the time from process launch to
+ * the first successful {@code GET /ping} and the process RSS at that moment (Linux only).
+ * <p>
+ * Variants: the executable jar as built ({@code jar}) and with {@code spring.main.lazy-initialization}
+ * ({@code jar-lazy}); after {@code mvn -Pstartup package}, also the extracted jar ({@code extracted}), with Spring
+ * AOT and the training-run cache ({@code aot-cache}), and with both plus lazy initialization
+ * ({@code aot-cache-lazy}). Usage, from this module:
+ * <pre>
+ * java -cp target/classes com.recipeforcode.platform.startup.StartupBenchmark [runs] [target dir]
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+    private static final String LAZY = "-Dspring.main.lazy-initialization=true";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    record Variant(String name, List<String> command) {}
+
+    record Sample(long millis, long rssKb) {}
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        var target = Path.of(args.length > 1 ? args[1] : "target");
+        var benchmark = new StartupBenchmark();
+        var variants = benchmark.variants(target);
+        System.out.printf("%-16s %5s %12s %12s %10s%n", "variant", "runs", "ttfr p50 ms", "ttfr min ms", "rss p50 MB");
+        for (var variant : variants) {
+            benchmark.launch(variant); // warms the OS page cache and the CDS/AOT cache mapping
+            var samples = new ArrayList<Sample>();
+            for (int i = 0; i < runs; i++) samples.add(benchmark.launch(variant));
+            long[] millis = samples.stream().mapToLong(Sample::millis).sorted().toArray();
+            long[] rss = samples.stream().mapToLong(Sample::rssKb).sorted().toArray();
+            System.out.printf(Locale.ROOT, "%-16s %5d %12d %12d %10s%n", variant.name(), runs, millis[runs / 2], millis[0],
+                    rss[runs / 2] < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", rss[runs / 2] / 1024.0));
+        }
+    }
+
+    List<Variant> variants(Path target) throws IOException {
+        var variants = new ArrayList<Variant>();
+        var jar = single(target, "*.jar");
+        variants.add(new Variant("jar", List.of(java, "-jar", jar.toString())));
+        variants.add(new Variant("jar-lazy", List.of(java, LAZY, "-jar", jar.toString())));
+
+        var startup = target.resolve("startup");
+        if (Files.isDirectory(startup)) {
+            var extracted = startup.resolve(jar.getFileName()).toString();
+            var cache = single(startup, "application.{aot,jsa}");
+            var useCache = (cache.toString().endsWith(".aot") ? "-XX:AOTCache=" : "-XX:SharedArchiveFile=") + cache;
+            variants.add(new Variant("extracted", List.of(java, "-jar", extracted)));
+            variants.add(new Variant("aot-cache", List.of(java, useCache, "-Dspring.aot.enabled=true", "-jar", extracted)));
+            variants.add(new Variant("aot-cache-lazy", List.of(java, useCache, "-Dspring.aot.enabled=true", LAZY, "-jar", extracted)));
+        }
+        return variants;
+    }
+
+    Sample launch(Variant variant) throws Exception {
+        int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        var command = new ArrayList<>(variant.command());
+        command.add("--server.port=" + port);
+        var ping = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/ping")).timeout(Duration.ofSeconds(5)).build();
+
+        long start = System.nanoTime();
+        var process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (true) {
+                if (!process.isAlive()) throw new IllegalStateException(variant.name() + " exited with " + process.exitValue());
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) throw new IllegalStateException(variant.name() + " did not answer");
+                try {
+                    if (client.send(ping, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) break;
+                } catch (IOException notYet) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new Sample(millis, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static long rssKb(long pid) {
+        var status = new File("/proc/" + pid + "/status").toPath();
+        try {
+            for (var line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return -1;
+    }
+
+    private static Path single(Path dir, String glob) throws IOException {
+        try (var matches = Files.newDirectoryStream(dir, glob)) {
+            var found = new ArrayList<Path>();
+            matches.forEach(found::add);
+            if (found.size() != 1) throw new IllegalStateException("Expected one " + glob + " in " + dir + ", found " + Arrays.toString(found.toArray()));
+            return found.get(0);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.recipeforcode.platform.startup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** A minimal service on all three platform starters; {@link StartupBenchmark} times it to its first response. */
+@SpringBootApplication
+@RestController
+public class StartupBenchmarkApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(StartupBenchmarkApplication.class, args);
+    }
+
+    @GetMapping("/ping")
+    String ping() {
+        return "pong";
+    }
+}